@@ -0,0 +1,18 @@
+package com.tuleninov.serverapi;
+
+/**
+ * The CartConstants class contains the constants of the carts that the shop holds for its guests.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class CartConstants {
+
+    private CartConstants() {
+        throw new AssertionError("non-instantiable class");
+    }
+
+    public static final String CART_ID = "X-Cart-Id";
+
+    public static final String CART_HOLDER_PREFIX = "cart:";
+}
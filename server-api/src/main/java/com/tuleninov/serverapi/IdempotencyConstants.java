@@ -0,0 +1,18 @@
+package com.tuleninov.serverapi;
+
+/**
+ * The IdempotencyConstants class contains the constants of the requests that are safe to repeat.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class IdempotencyConstants {
+
+    private IdempotencyConstants() {
+        throw new AssertionError("non-instantiable class");
+    }
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final int MAX_KEY_LENGTH = 64;
+}
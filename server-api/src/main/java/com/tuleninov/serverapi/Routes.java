@@ -22,9 +22,15 @@ public final class Routes {
 
     public static final String TOKEN = API_ROOT + "/token";
 
+    public static final String JWKS = "/.well-known/jwks.json";
+
     public static final String CATEGORIES = API_ROOT + "/categories";
     public static final String GOODS = API_ROOT + "/goods";
 
+    public static final String RESERVATIONS = API_ROOT + "/reservations";
+
+    public static final String ORDERS = API_ROOT + "/orders";
+
     public static String user(long id) {
         return USERS + '/' + id;
     }
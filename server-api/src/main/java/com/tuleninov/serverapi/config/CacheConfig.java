@@ -0,0 +1,37 @@
+package com.tuleninov.serverapi.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * A class for configuring the in-process caches of the application.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String GOODS_CACHE = "goods";
+
+    /**
+     * Configuring the bounded Caffeine caches, whose evictions inside a transaction wait for its commit,
+     * so that a concurrent read cannot put the old value back before the change is visible.
+     * */
+    @Bean
+    public CacheManager cacheManager(@Value("${custom.cache.goods.spec}") String goodsSpec) {
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(goodsSpec));
+        cacheManager.setCacheNames(List.of(GOODS_CACHE));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
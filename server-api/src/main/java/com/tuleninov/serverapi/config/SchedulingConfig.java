@@ -0,0 +1,15 @@
+package com.tuleninov.serverapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * A class for enabling the scheduled background tasks of the application.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
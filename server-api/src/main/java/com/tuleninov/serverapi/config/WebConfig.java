@@ -0,0 +1,24 @@
+package com.tuleninov.serverapi.config;
+
+import com.tuleninov.serverapi.controller.SortableByInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * A class for configuring the handling of the web requests.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Adding the check of the sort properties of the pageable endpoints.
+     * */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SortableByInterceptor());
+    }
+}
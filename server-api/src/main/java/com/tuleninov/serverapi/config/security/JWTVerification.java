@@ -0,0 +1,319 @@
+package com.tuleninov.serverapi.config.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.auth0.jwt.interfaces.ECDSAKeyProvider;
+import com.tuleninov.serverapi.config.security.properties.CustomSecurityProperties;
+import com.tuleninov.serverapi.config.security.properties.JWTKeyProperties;
+import com.tuleninov.serverapi.config.security.properties.JWTProperties;
+import com.tuleninov.serverapi.model.auth.response.JWKResponse;
+import com.tuleninov.serverapi.model.user.KnownAuthority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The algorithm and the verifier of the JWT tokens, shared by everything that signs or verifies them.
+ * The tokens are signed with HS512 and the shared secret, or with ES256 and the configured keys,
+ * whose public parts are published as a JSON Web Key Set, so the other services can verify the tokens themselves.
+ * The verifier is immutable and thread safe, so it is built once instead of on every request.
+ * The authentications of the verified access tokens are kept in a bounded cache by the digest of the token
+ * until the token expires, so the repeated requests of a session skip the signature and the claims.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class JWTVerification {
+
+    private static final Logger log = LoggerFactory.getLogger(JWTVerification.class);
+
+    private static final String CURVE = "secp256r1";
+
+    private static final int COORDINATE_SIZE = 32;
+
+    private final Algorithm algorithm;
+
+    /**
+     * The public keys of ES256 by their ids, empty for HS512.
+     */
+    private final Map<String, ECPublicKey> publicKeys;
+
+    private final JWTVerifier verifier;
+
+    /**
+     * The verified access tokens by the SHA-256 digest of the token, or null if the cache is turned off.
+     */
+    private final Cache<ByteBuffer, Verified> verified;
+
+    private final MessageDigest digestPrototype;
+
+    public JWTVerification(CustomSecurityProperties securityProperties) {
+        JWTProperties jwtProperties = securityProperties.getJwt();
+        if (jwtProperties.getAlgorithm() == JWTProperties.SigningAlgorithm.ES256) {
+            var keys = new ES256Keys(jwtProperties.getKeys(), jwtProperties.isGenerateKeys());
+            this.publicKeys = keys.publicKeys;
+            this.algorithm = Algorithm.ECDSA256(keys);
+        } else {
+            this.publicKeys = Map.of();
+            this.algorithm = Algorithm.HMAC512(new String(jwtProperties.getSecret()).getBytes());
+        }
+        this.verifier = JWT.require(algorithm).build();
+        int cacheSize = jwtProperties.getVerifiedCacheSize();
+        this.verified = cacheSize == 0 ? null : Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilExpiry())
+                .build();
+        try {
+            this.digestPrototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Get the algorithm to sign the tokens.
+     *
+     * @return the algorithm
+     */
+    public Algorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Get the public keys that verify the tokens, in the JSON Web Key format.
+     *
+     * @return the keys, none while the tokens are signed with the secret
+     */
+    public List<JWKResponse> publicKeys() {
+        var encoder = Base64.getUrlEncoder().withoutPadding();
+        return publicKeys.entrySet().stream()
+                .map(entry -> new JWKResponse("EC", "P-256", entry.getKey(), "sig", "ES256",
+                        encoder.encodeToString(unsigned(entry.getValue().getW().getAffineX())),
+                        encoder.encodeToString(unsigned(entry.getValue().getW().getAffineY()))))
+                .toList();
+    }
+
+    /**
+     * Get the coordinate as an unsigned big-endian number of the size of the curve.
+     */
+    private static byte[] unsigned(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        var result = new byte[COORDINATE_SIZE];
+        int length = Math.min(bytes.length, COORDINATE_SIZE);
+        System.arraycopy(bytes, bytes.length - length, result, COORDINATE_SIZE - length, length);
+        return result;
+    }
+
+    /**
+     * Verify the signature and the time claims of the token.
+     *
+     * @param token the encoded token
+     * @return the decoded token
+     * @throws JWTVerificationException if the token is not valid
+     */
+    public DecodedJWT verify(String token) {
+        return verifier.verify(token);
+    }
+
+    /**
+     * Get the authentication of the user of the access token.
+     * The token that is not valid is never cached, so it is verified again every time.
+     * Every call gets its own authentication, which the filters may change, only the claims are shared.
+     *
+     * @param token the encoded access token
+     * @return the authentication, or null if the token is not valid
+     */
+    public UsernamePasswordAuthenticationToken authenticate(String token) {
+        ByteBuffer key = null;
+        if (verified != null) {
+            key = ByteBuffer.wrap(digest(token));
+            Verified entry = verified.getIfPresent(key);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) return entry.toAuthentication();
+        }
+
+        DecodedJWT decodedJWT;
+        Set<KnownAuthority> authorities;
+        try {
+            decodedJWT = verify(token);
+            authorities = authorities(decodedJWT);
+        } catch (JWTVerificationException | IllegalArgumentException e) {
+            // an authority unknown here, e.g. one renamed since the token was issued,
+            // makes the token as invalid as a bad signature
+            return null;
+        }
+        Instant expiresAt = decodedJWT.getExpiresAtAsInstant();
+        var entry = new Verified(decodedJWT.getSubject(), authorities,
+                expiresAt == null ? 0 : expiresAt.toEpochMilli());
+        if (key != null && expiresAt != null) verified.put(key, entry);
+        return entry.toAuthentication();
+    }
+
+    private static Set<KnownAuthority> authorities(DecodedJWT decodedJWT) {
+        Set<KnownAuthority> authorities = EnumSet.noneOf(KnownAuthority.class);
+        List<String> names = decodedJWT.getClaim(SecurityConstants.AUTHORITIES_CLAIM).asList(String.class);
+        if (names != null) names.forEach(name -> authorities.add(KnownAuthority.valueOf(name)));
+
+        return Collections.unmodifiableSet(authorities);
+    }
+
+    private byte[] digest(String token) {
+        try {
+            var digest = (MessageDigest) digestPrototype.clone();
+            return digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    /**
+     * Get the number of the verified tokens in the cache.
+     *
+     * @return the number of the tokens
+     */
+    public long cachedSize() {
+        if (verified == null) return 0;
+
+        verified.cleanUp();
+        return verified.estimatedSize();
+    }
+
+    /**
+     * The ES256 keys: the first one with a private key signs the tokens, and the key id in the header
+     * of a token chooses the key that verifies it.
+     */
+    private static final class ES256Keys implements ECDSAKeyProvider {
+
+        private final Map<String, ECPublicKey> publicKeys = new LinkedHashMap<>();
+
+        private String signingKeyId;
+
+        private ECPrivateKey signingKey;
+
+        private ES256Keys(List<JWTKeyProperties> keys, boolean generateKeys) {
+            if (keys.isEmpty() && !generateKeys) {
+                throw new IllegalStateException("No JWT keys are configured for ES256, set custom.security.jwt.keys, " +
+                        "or custom.security.jwt.generate-keys in development");
+            }
+            try {
+                if (keys.isEmpty()) {
+                    generate();
+                    return;
+                }
+                var keyFactory = KeyFactory.getInstance("EC");
+                var decoder = Base64.getMimeDecoder();
+                for (JWTKeyProperties key : keys) {
+                    var publicKey = (ECPublicKey) keyFactory.generatePublic(
+                            new X509EncodedKeySpec(decoder.decode(key.getPublicKey())));
+                    if (publicKey.getParams().getCurve().getField().getFieldSize() != COORDINATE_SIZE * 8) {
+                        throw new IllegalStateException("JWT key '" + key.getId() + "' is not a P-256 key");
+                    }
+                    publicKeys.put(key.getId(), publicKey);
+                    if (signingKey == null && key.getPrivateKey() != null && !key.getPrivateKey().isBlank()) {
+                        signingKeyId = key.getId();
+                        signingKey = (ECPrivateKey) keyFactory.generatePrivate(
+                                new PKCS8EncodedKeySpec(decoder.decode(key.getPrivateKey())));
+                    }
+                }
+            } catch (GeneralSecurityException | IllegalArgumentException | ClassCastException e) {
+                throw new IllegalStateException("JWT keys are not valid EC keys", e);
+            }
+            if (signingKey == null) throw new IllegalStateException("None of the JWT keys has a private key");
+        }
+
+        /**
+         * Generate a key that lives as long as the application, so the tokens do not survive a restart.
+         * It is allowed only in development, see {@link JWTProperties#isGenerateKeys()}.
+         */
+        private void generate() throws GeneralSecurityException {
+            var generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec(CURVE));
+            KeyPair keyPair = generator.generateKeyPair();
+            signingKeyId = UUID.randomUUID().toString();
+            signingKey = (ECPrivateKey) keyPair.getPrivate();
+            publicKeys.put(signingKeyId, (ECPublicKey) keyPair.getPublic());
+            log.warn("No JWT keys are configured for ES256, the tokens are signed with a generated key '{}'.",
+                    signingKeyId);
+        }
+
+        @Override
+        public ECPublicKey getPublicKeyById(String keyId) {
+            return keyId == null ? null : publicKeys.get(keyId);
+        }
+
+        @Override
+        public ECPrivateKey getPrivateKey() {
+            return signingKey;
+        }
+
+        @Override
+        public String getPrivateKeyId() {
+            return signingKeyId;
+        }
+    }
+
+    /**
+     * The claims of a verified token and the time the token expires at, in epoch milliseconds.
+     * The claims cannot be changed, so they are shared by all requests with the token.
+     */
+    private record Verified(String subject, Set<KnownAuthority> authorities, long expiresAt) {
+
+        private UsernamePasswordAuthenticationToken toAuthentication() {
+            return new UsernamePasswordAuthenticationToken(subject, null, authorities);
+        }
+    }
+
+    /**
+     * Keeps a verified token in the cache until it expires.
+     */
+    private static final class UntilExpiry implements Expiry<ByteBuffer, Verified> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Verified value, long currentTime) {
+            long remaining = value.expiresAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Verified value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Verified value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -49,14 +49,18 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final ObjectMapper objectMapper;
 
+    private final JWTVerification jwtVerification;
+
     public SecurityConfig(CustomSecurityProperties securityProperties,
                           UserService userService,
                           PasswordEncoder passwordEncoder,
-                          ObjectMapper objectMapper) {
+                          ObjectMapper objectMapper,
+                          JWTVerification jwtVerification) {
         this.securityProperties = securityProperties;
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
         this.objectMapper = objectMapper;
+        this.jwtVerification = jwtVerification;
     }
 
     /**
@@ -104,6 +108,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 // allow user registration and refresh, ignore authorization filters on login
                 .antMatchers(HttpMethod.POST, Routes.USERS, Routes.TOKEN + "/refresh").permitAll()
+                // allow other services to get the public keys that verify the tokens
+                .antMatchers(HttpMethod.GET, Routes.JWKS).permitAll()
                 // allow user to get activation code from database for activation
                 .antMatchers(HttpMethod.GET, Routes.USERS + "/{code}/activate").permitAll()
                 // allow user to get a new password from the server
@@ -112,6 +118,31 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers(HttpMethod.GET, Routes.CATEGORIES + "/list").permitAll()
                 // allow user to get list of goods
                 .antMatchers(HttpMethod.GET, Routes.GOODS, Routes.GOODS + "/{id:\\d+}/goods", Routes.GOODS + "/{id:\\d+}").permitAll()
+                // allow user to scroll goods with keyset pagination
+                .antMatchers(HttpMethod.GET, Routes.GOODS + "/scroll").permitAll()
+                // allow user to get suggestions of goods names
+                .antMatchers(HttpMethod.GET, Routes.GOODS + "/suggest").permitAll()
+                // allow user to filter goods with facet counts
+                .antMatchers(HttpMethod.GET, Routes.GOODS + "/filter").permitAll()
+                // allow user to get the numbers of goods by category and price
+                .antMatchers(HttpMethod.GET, Routes.GOODS + "/facets").permitAll()
+                // allow user to search goods
+                .antMatchers(HttpMethod.GET, Routes.GOODS + "/search").permitAll()
+                // allow user to get slices of goods without the total count
+                .antMatchers(HttpMethod.GET, Routes.GOODS + "/slice", Routes.GOODS + "/{id:\\d+}/goods/slice").permitAll()
+                // allow user to see how much of the goods is in stock
+                .antMatchers(HttpMethod.GET, Routes.GOODS + "/{id:\\d+}/stock").permitAll()
+                // admin can set the stock of goods
+                .antMatchers(HttpMethod.PUT, Routes.GOODS + "/{id:\\d+}/stock").hasRole("ADMIN")
+                // user holds goods in the cart, the shop holds them for the carts of its guests
+                .antMatchers(HttpMethod.POST, Routes.RESERVATIONS).authenticated()
+                .antMatchers(HttpMethod.DELETE, Routes.RESERVATIONS + "/{id}").authenticated()
+                // admin can commit a reservation by hand, the orders commit their reservations themselves
+                .antMatchers(HttpMethod.POST, Routes.RESERVATIONS + "/{id}/commit").hasRole("ADMIN")
+                // admin can import goods in bulk
+                .antMatchers(HttpMethod.POST, Routes.GOODS + "/import").hasRole("ADMIN")
+                // admin can export the whole catalog of goods
+                .antMatchers(HttpMethod.GET, Routes.GOODS + "/export").hasRole("ADMIN")
                 // admin can register new admins
                 .antMatchers(HttpMethod.POST, Routes.USERS + "/admins").hasRole("ADMIN")
                 // regular users can view basic user info for other users
@@ -151,7 +182,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
      * Authorization filter.
      * */
     private JWTAuthorizationFilter jwtAuthorizationFilter() throws Exception {
-        return new JWTAuthorizationFilter(authenticationManager(), securityProperties.getJwt());
+        return new JWTAuthorizationFilter(authenticationManager(), jwtVerification);
     }
 
     /**
@@ -1,11 +1,7 @@
 package com.tuleninov.serverapi.config.security.filters;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.interfaces.DecodedJWT;
+import com.tuleninov.serverapi.config.security.JWTVerification;
 import com.tuleninov.serverapi.config.security.SecurityConstants;
-import com.tuleninov.serverapi.config.security.properties.JWTProperties;
-import com.tuleninov.serverapi.model.user.KnownAuthority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -19,9 +15,6 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.EnumSet;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * This filter is responsible for processing any request that has a HTTP request header of Authorization
@@ -31,11 +24,11 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JWTAuthorizationFilter.class);
 
-    private final Algorithm algorithm;
+    private final JWTVerification jwtVerification;
 
-    public JWTAuthorizationFilter(AuthenticationManager authenticationManager, JWTProperties jwtProperties) {
+    public JWTAuthorizationFilter(AuthenticationManager authenticationManager, JWTVerification jwtVerification) {
         super(authenticationManager);
-        algorithm = Algorithm.HMAC512(new String(jwtProperties.getSecret()).getBytes());
+        this.jwtVerification = jwtVerification;
     }
 
     /**
@@ -76,29 +69,14 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
     /**
      * Designed for simple presentation of a username and password.
      * The principal and credentials are set using with an Object.
+     * A token that has already been verified is taken from the cache until it expires.
      *
      * @param encodedJwt encoded Jwt
      * @return simple presentation of a username and password
      * */
     private UsernamePasswordAuthenticationToken getAuthentication(String encodedJwt) {
-        // parse the token
-        DecodedJWT decodedJWT;
-        try {
-            decodedJWT = JWT.require(algorithm)
-                    .build()
-                    .verify(encodedJwt);
-        } catch (Exception e) {
-            log.debug("Invalid JWT received", e);
-            return null;
-        }
-
-        String email = decodedJWT.getSubject();
-
-        Set<KnownAuthority> authorities = decodedJWT.getClaim(SecurityConstants.AUTHORITIES_CLAIM)
-                .asList(String.class).stream()
-                .map(KnownAuthority::valueOf)
-                .collect(Collectors.toCollection(() -> EnumSet.noneOf(KnownAuthority.class)));
-
-        return new UsernamePasswordAuthenticationToken(email, null, authorities);
+        UsernamePasswordAuthenticationToken authentication = jwtVerification.authenticate(encodedJwt);
+        if (authentication == null) log.debug("Invalid JWT received");
+        return authentication;
     }
 }
@@ -0,0 +1,45 @@
+package com.tuleninov.serverapi.config.security.properties;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Class with the properties of a key that signs or verifies the JWT tokens with ES256.
+ * The keys are Base64 encoded DER, as the PEM files hold them without the first and the last lines.
+ * */
+public class JWTKeyProperties {
+
+    @NotBlank(message = "key id must not be blank")
+    private String id;
+
+    /**
+     * The PKCS#8 private key, absent for a key that only verifies the tokens it signed before the rotation.
+     */
+    private String privateKey;
+
+    @NotBlank(message = "public key must not be blank")
+    private String publicKey;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+}
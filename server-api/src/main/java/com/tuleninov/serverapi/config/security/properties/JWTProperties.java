@@ -3,17 +3,42 @@ package com.tuleninov.serverapi.config.security.properties;
 import org.hibernate.validator.constraints.time.DurationMax;
 import org.hibernate.validator.constraints.time.DurationMin;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Class with JWT properties.
  * */
 public class JWTProperties {
 
+    /**
+     * The algorithm that signs the tokens: HS512 with the shared secret,
+     * or ES256 with the keys, whose public parts are published for the other services.
+     */
+    @NotNull
+    private SigningAlgorithm algorithm = SigningAlgorithm.HS512;
+
     @NotEmpty
     private char[] secret;
 
+    /**
+     * The ES256 keys, the first one with a private key signs the tokens and all of them verify.
+     * A new key is added in front of the others, the old one stays without its private key
+     * until the tokens it signed expire.
+     */
+    private List<@Valid JWTKeyProperties> keys = new ArrayList<>();
+
+    /**
+     * Whether ES256 signs with a key generated at the start when no keys are configured, for development only:
+     * every instance generates its own key, so its tokens are not accepted by the others and do not survive a restart.
+     */
+    private boolean generateKeys;
+
     @DurationMax(minutes = 30)
     @DurationMin(minutes = 1)
     private Duration accessExpireIn;
@@ -22,6 +47,20 @@ public class JWTProperties {
     @DurationMin(hours = 12)
     private Duration refreshExpireIn;
 
+    /**
+     * The maximum number of the verified access tokens kept until they expire, 0 turns the cache off.
+     */
+    @PositiveOrZero
+    private int verifiedCacheSize = 10_000;
+
+    public SigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(SigningAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
     public char[] getSecret() {
         return secret;
     }
@@ -30,6 +69,22 @@ public class JWTProperties {
         this.secret = secret;
     }
 
+    public List<JWTKeyProperties> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<JWTKeyProperties> keys) {
+        this.keys = keys;
+    }
+
+    public boolean isGenerateKeys() {
+        return generateKeys;
+    }
+
+    public void setGenerateKeys(boolean generateKeys) {
+        this.generateKeys = generateKeys;
+    }
+
     public Duration getAccessExpireIn() {
         return accessExpireIn;
     }
@@ -45,4 +100,19 @@ public class JWTProperties {
     public void setRefreshExpireIn(Duration refreshExpireIn) {
         this.refreshExpireIn = refreshExpireIn;
     }
+
+    public int getVerifiedCacheSize() {
+        return verifiedCacheSize;
+    }
+
+    public void setVerifiedCacheSize(int verifiedCacheSize) {
+        this.verifiedCacheSize = verifiedCacheSize;
+    }
+
+    public enum SigningAlgorithm {
+
+        HS512,
+
+        ES256
+    }
 }
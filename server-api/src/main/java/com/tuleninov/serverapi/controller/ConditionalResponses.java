@@ -0,0 +1,92 @@
+package com.tuleninov.serverapi.controller;
+
+import com.tuleninov.serverapi.model.EntityTags;
+import com.tuleninov.serverapi.model.SliceResponse;
+import com.tuleninov.serverapi.model.Versioned;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+/**
+ * Responses of the read endpoints that support the conditional requests.
+ * Spring MVC compares the tag and the time of the response with {@code If-None-Match} and
+ * {@code If-Modified-Since} of a GET request and answers {@code 304 Not Modified} without the body if they match.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class ConditionalResponses {
+
+    /**
+     * The catalog reads open to everyone: any cache may keep them for a short time and then revalidates them.
+     */
+    public static final CacheControl PUBLIC_CATALOG = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
+
+    /**
+     * The reads that need authorization: only the client may keep them and it revalidates them every time.
+     */
+    public static final CacheControl PRIVATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Create the response with a single row, tagged and dated by its version.
+     *
+     * @param body         the row in response format
+     * @param cacheControl who may keep the response and for how long
+     * @return the response with the body
+     */
+    public static <T extends Versioned> ResponseEntity<T> ofRow(T body, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .eTag(EntityTags.strong(body))
+                .lastModified(EntityTags.millis(body.updatedAt()))
+                .cacheControl(cacheControl)
+                .body(body);
+    }
+
+    /**
+     * Create the response with a page of rows, tagged by the versions of the rows and the pagination information.
+     *
+     * @param body         the page of rows in response format
+     * @param cacheControl who may keep the response and for how long
+     * @return the response with the body
+     */
+    public static <T extends Versioned> ResponseEntity<Page<T>> ofPage(Page<T> body, CacheControl cacheControl) {
+        String etag = EntityTags.weak(body.getContent(),
+                body.getNumber(), body.getSize(), body.getTotalElements(), body.getSort());
+        return ofTagged(body, etag, cacheControl);
+    }
+
+    /**
+     * Create the response with a slice of rows, tagged by the versions of the rows and the pagination information.
+     *
+     * @param body         the slice of rows in response format
+     * @param cacheControl who may keep the response and for how long
+     * @return the response with the body
+     */
+    public static <T extends Versioned> ResponseEntity<SliceResponse<T>> ofSlice(SliceResponse<T> body,
+                                                                               CacheControl cacheControl) {
+        String etag = EntityTags.weak(body.content(),
+                body.number(), body.size(), body.hasNext(), body.approximateTotal());
+        return ofTagged(body, etag, cacheControl);
+    }
+
+    /**
+     * Create the response with the given tag.
+     * A page of rows gets no Last-Modified, because removing a row does not make the latest change of a page newer.
+     *
+     * @param body         the body of the response
+     * @param etag         the tag of the body
+     * @param cacheControl who may keep the response and for how long
+     * @return the response with the body
+     */
+    public static <T> ResponseEntity<T> ofTagged(T body, String etag, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body);
+    }
+}
@@ -0,0 +1,309 @@
+package com.tuleninov.serverapi.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.tuleninov.serverapi.Routes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.tuleninov.serverapi.IdempotencyConstants.IDEMPOTENCY_KEY;
+import static com.tuleninov.serverapi.IdempotencyConstants.MAX_KEY_LENGTH;
+import static com.tuleninov.serverapi.exceptions.idempotency.IdempotencyExceptions.bodyTooLarge;
+import static com.tuleninov.serverapi.exceptions.idempotency.IdempotencyExceptions.invalidKey;
+import static com.tuleninov.serverapi.exceptions.idempotency.IdempotencyExceptions.keyReused;
+import static com.tuleninov.serverapi.exceptions.idempotency.IdempotencyExceptions.requestInProgress;
+
+/**
+ * Filter that makes a POST request with an {@code Idempotency-Key} header safe to repeat.
+ * The response of the first request with the key is kept in a bounded store for a while and is sent again
+ * for the repeated ones, which are not executed. A repeat that comes while the first request is still executed
+ * waits for its response instead of running next to it. The key belongs to the user who sent it,
+ * and it cannot be used for a request with another method, path or body.
+ * <p>
+ * Only the successful responses are kept, so a request that failed can be repeated.
+ * The orders keep their keys in the database themselves, and the uploads and the imports are too large to be kept,
+ * so this filter leaves them alone, as well as any other body that is known to be too large.
+ * A body of unknown length is read up to the same limit, and the request is refused if it is longer.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    /**
+     * The largest body of a request whose response is kept.
+     */
+    private static final int MAX_BODY_SIZE = 1024 * 1024;
+
+    private final Cache<String, StoredResponse> responses;
+
+    /**
+     * The requests that are executed now, so the repeats know whom to wait for.
+     */
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private final Duration wait;
+
+    public IdempotencyFilter(@Value("${custom.idempotency.spec:maximumSize=10000,expireAfterWrite=24h}") String spec,
+                             @Value("${custom.idempotency.wait:PT10S}") Duration wait) {
+        this.responses = Caffeine.from(CaffeineSpec.parse(spec)).build();
+        this.wait = wait;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null) return true;
+
+        String contentType = request.getContentType();
+        long length = request.getContentLengthLong();
+        return request.getRequestURI().startsWith(Routes.ORDERS)
+                || request.getRequestURI().startsWith(Routes.GOODS + "/import")
+                || contentType != null && contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)
+                || length > MAX_BODY_SIZE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            sendError(response, invalidKey(key));
+            return;
+        }
+
+        // the length of a chunked body is not known until it is read
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_SIZE + 1);
+        if (body.length > MAX_BODY_SIZE) {
+            sendError(response, bodyTooLarge(MAX_BODY_SIZE));
+            return;
+        }
+        String storeKey = owner() + '\n' + key;
+        byte[] fingerprint = fingerprint(request, body);
+
+        while (true) {
+            StoredResponse stored = responses.getIfPresent(storeKey);
+            if (stored != null) {
+                if (!MessageDigest.isEqual(stored.fingerprint(), fingerprint)) sendError(response, keyReused(key));
+                else stored.replay(response);
+                return;
+            }
+
+            var mine = new InFlight(fingerprint);
+            InFlight other = inFlight.putIfAbsent(storeKey, mine);
+            if (other == null) {
+                execute(new CachedBodyRequest(request, body), response, filterChain, storeKey, mine);
+                return;
+            }
+
+            if (!MessageDigest.isEqual(other.fingerprint(), fingerprint)) {
+                sendError(response, keyReused(key));
+                return;
+            }
+            try {
+                if (!other.done().await(wait.toMillis(), TimeUnit.MILLISECONDS)) {
+                    sendError(response, requestInProgress(key));
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sendError(response, requestInProgress(key));
+                return;
+            }
+            // the first request is done: its response is stored now, or it failed and this one runs instead
+        }
+    }
+
+    private void execute(HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain filterChain,
+                         String storeKey,
+                         InFlight mine) throws ServletException, IOException {
+        try {
+            // the response may have been stored right before this request took the key
+            StoredResponse stored = responses.getIfPresent(storeKey);
+            if (stored != null) {
+                if (!MessageDigest.isEqual(stored.fingerprint(), mine.fingerprint())) {
+                    sendError(response, keyReused(request.getHeader(IDEMPOTENCY_KEY)));
+                } else {
+                    stored.replay(response);
+                }
+                return;
+            }
+
+            var wrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(request, wrapper);
+            // an error is sent by the container after the filters, so it has no body to keep here
+            if (wrapper.getStatus() < HttpServletResponse.SC_MULTIPLE_CHOICES) {
+                responses.put(storeKey, StoredResponse.of(mine.fingerprint(), wrapper));
+            }
+            wrapper.copyBodyToResponse();
+        } finally {
+            inFlight.remove(storeKey, mine);
+            mine.done().countDown();
+        }
+    }
+
+    /**
+     * Get the name of the user who sent the request, or an empty string for a guest.
+     */
+    private static String owner() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) return "";
+        return authentication.getName();
+    }
+
+    private static byte[] fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static void sendError(HttpServletResponse response, ResponseStatusException e) throws IOException {
+        response.sendError(e.getRawStatusCode(), e.getReason());
+    }
+
+    /**
+     * Get the number of the responses in the store.
+     *
+     * @return the number of the responses
+     */
+    public long size() {
+        responses.cleanUp();
+        return responses.estimatedSize();
+    }
+
+    /**
+     * The request with a key that is executed now.
+     */
+    private record InFlight(byte[] fingerprint, CountDownLatch done) {
+
+        private InFlight(byte[] fingerprint) {
+            this(fingerprint, new CountDownLatch(1));
+        }
+    }
+
+    /**
+     * The response of the first request with a key and the fingerprint of that request.
+     * Only the headers of the application are kept, the security and CORS headers are set on the repeated
+     * response by the filter chain again.
+     */
+    private record StoredResponse(byte[] fingerprint, int status, Map<String, String> headers, byte[] body) {
+
+        private static final List<String> STORED_HEADERS =
+                List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED);
+
+        private static StoredResponse of(byte[] fingerprint, ContentCachingResponseWrapper response) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String name : STORED_HEADERS) {
+                String value = name.equals(HttpHeaders.CONTENT_TYPE)
+                        ? response.getContentType()
+                        : response.getHeader(name);
+                if (value != null) headers.put(name, value);
+            }
+            return new StoredResponse(fingerprint, response.getStatus(), headers, response.getContentAsByteArray());
+        }
+
+        private void replay(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            headers.forEach(response::setHeader);
+            response.setHeader(IDEMPOTENT_REPLAYED, "true");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    /**
+     * The request whose body has already been read, so it is read again from memory.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.tuleninov.serverapi.controller;
+
+import com.tuleninov.serverapi.exceptions.precondition.PreconditionExceptions;
+import com.tuleninov.serverapi.model.EntityTags;
+
+/**
+ * Preconditions of the write endpoints.
+ * A client that merges a row sends the {@code ETag} it has read with the row in {@code If-Match},
+ * and the merge is refused with {@code 409 Conflict} if the row has changed since.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class Preconditions {
+
+    private Preconditions() {
+    }
+
+    /**
+     * Get the version of the row that the client expects.
+     *
+     * @param ifMatch the value of the If-Match header, may be null
+     * @return the expected version, or null if the client merges whatever version the row has
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) return null;
+
+        String value = ifMatch.strip();
+        if (value.equals("*")) return null;
+
+        Long version = EntityTags.version(value);
+        if (version == null) throw PreconditionExceptions.invalidIfMatch(ifMatch);
+        return version;
+    }
+}
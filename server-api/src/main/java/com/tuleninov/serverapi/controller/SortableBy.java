@@ -0,0 +1,27 @@
+package com.tuleninov.serverapi.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The properties the pageable parameter of an endpoint may be sorted by.
+ * Every property must be backed by an index, so that no page needs a sort of the whole table.
+ * A request that sorts by any other property is rejected with {@code 400 Bad Request}.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ * @see SortableByInterceptor
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SortableBy {
+
+    /**
+     * The names of the sortable properties.
+     */
+    String[] value();
+}
@@ -0,0 +1,44 @@
+package com.tuleninov.serverapi.controller;
+
+import com.tuleninov.serverapi.exceptions.pagination.PaginationExceptions;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortHandlerMethodArgumentResolver;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+/**
+ * Interceptor that rejects the sort of a pageable parameter by a property its {@link SortableBy} does not list.
+ * The sort is read from the request the same way the pageable parameter reads it.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public class SortableByInterceptor implements HandlerInterceptor {
+
+    private final SortHandlerMethodArgumentResolver sortResolver = new SortHandlerMethodArgumentResolver();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) return true;
+
+        for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+            SortableBy sortableBy = parameter.getParameterAnnotation(SortableBy.class);
+            if (sortableBy == null) continue;
+
+            List<String> sortable = List.of(sortableBy.value());
+            Sort sort = sortResolver.resolveArgument(parameter, null, new ServletWebRequest(request), null);
+            for (Sort.Order order : sort) {
+                if (!sortable.contains(order.getProperty())) {
+                    throw PaginationExceptions.unsortableProperty(order.getProperty(), sortable);
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.tuleninov.serverapi.controller.auth;
+
+import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.config.security.JWTVerification;
+import com.tuleninov.serverapi.model.auth.response.JWKSetResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Controller for the public keys that verify the tokens, so the other services do not have to ask this one.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@RestController
+public class JWKSController {
+
+    /**
+     * The keys change only when the application restarts with rotated keys,
+     * and a client that meets a token with an unknown key id gets them again.
+     */
+    private static final CacheControl KEYS = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final JWTVerification jwtVerification;
+
+    public JWKSController(JWTVerification jwtVerification) {
+        this.jwtVerification = jwtVerification;
+    }
+
+    /**
+     * Get the JSON Web Key Set with the public keys that verify the tokens.
+     *
+     * @return the keys, none while the tokens are signed with the shared secret
+     */
+    @GetMapping(
+            value = Routes.JWKS,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<JWKSetResponse> getKeys() {
+        return ResponseEntity.ok()
+                .cacheControl(KEYS)
+                .body(new JWKSetResponse(jwtVerification.publicKeys()));
+    }
+}
@@ -1,6 +1,11 @@
 package com.tuleninov.serverapi.controller.category;
 
 import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.controller.ConditionalResponses;
+import com.tuleninov.serverapi.controller.Preconditions;
+import com.tuleninov.serverapi.controller.SortableBy;
+import com.tuleninov.serverapi.model.SliceResponse;
+import com.tuleninov.serverapi.model.category.response.CategoryListSnapshot;
 import com.tuleninov.serverapi.model.category.request.SaveCategoryRequest;
 import com.tuleninov.serverapi.model.category.response.CategoryResponse;
 import com.tuleninov.serverapi.service.category.CategoryOperations;
@@ -8,6 +13,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import org.springdoc.core.converters.models.PageableAsQueryParam;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,10 +23,13 @@ import org.springframework.web.util.UriComponentsBuilder;
 import javax.validation.Valid;
 import java.util.List;
 
+import static com.tuleninov.serverapi.controller.ConditionalResponses.PRIVATE;
+import static com.tuleninov.serverapi.controller.ConditionalResponses.PUBLIC_CATALOG;
 import static com.tuleninov.serverapi.exceptions.category.CategoryExceptions.categoryNotFound;
 
 /**
  * Rest controller for the Category.
+ * The read endpoints answer the conditional requests with {@code 304 Not Modified}.
  *
  * @author Oleksandr Tuleninov
  * @version 01
@@ -65,12 +74,31 @@ public class CategoryController {
             produces = MediaType.APPLICATION_JSON_VALUE
     )
     @PageableAsQueryParam
-    public Page<CategoryResponse> listCategories(@Parameter(hidden = true) Pageable pageable) {
-        return categoryOperations.list(pageable);
+    public ResponseEntity<Page<CategoryResponse>> listCategories(
+            @SortableBy({"id", "name"}) @Parameter(hidden = true) Pageable pageable) {
+        return ConditionalResponses.ofPage(categoryOperations.list(pageable), PRIVATE);
+    }
+
+    /**
+     * Get a slice of categories from the database in response format without counting all categories.
+     *
+     * @param pageable abstract interface for pagination information
+     * @return the categories from the database in response format with the information about the next slice
+     */
+    @GetMapping(
+            value = "/slice",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PageableAsQueryParam
+    public ResponseEntity<SliceResponse<CategoryResponse>> sliceCategories(
+            @SortableBy({"id", "name"}) @Parameter(hidden = true) Pageable pageable) {
+        return ConditionalResponses.ofSlice(SliceResponse.fromSlice(categoryOperations.slice(pageable)), PRIVATE);
     }
 
     /**
      * Get all categories from the database in response format.
+     * The response carries the entity tag of the list, and a request with the same tag in
+     * {@code If-None-Match} gets {@code 304 Not Modified} without the body.
      *
      * @return all categories from the database in response format
      */
@@ -78,8 +106,9 @@ public class CategoryController {
             value = "/list",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    List<CategoryResponse> getListCategories() {
-        return categoryOperations.categoriesList();
+    ResponseEntity<List<CategoryResponse>> getListCategories() {
+        CategoryListSnapshot snapshot = categoryOperations.categoriesSnapshot();
+        return ConditionalResponses.ofTagged(snapshot.categories(), snapshot.etag(), PUBLIC_CATALOG);
     }
 
     /**
@@ -92,9 +121,9 @@ public class CategoryController {
             value = "/{id}",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public CategoryResponse getCategoryById(@PathVariable int id) {
-        return categoryOperations.findById(id)
-                .orElseThrow(() -> categoryNotFound(id));
+    public ResponseEntity<CategoryResponse> getCategoryById(@PathVariable int id) {
+        return ConditionalResponses.ofRow(categoryOperations.findById(id)
+                .orElseThrow(() -> categoryNotFound(id)), PRIVATE);
     }
 
     /**
@@ -102,6 +131,7 @@ public class CategoryController {
      *
      * @param id      the id of the category
      * @param request request with category parameters
+     * @param ifMatch the version of the category the client read, the merge answers 409 if it has changed since
      */
     @PutMapping(
             value = "/{id}",
@@ -109,8 +139,10 @@ public class CategoryController {
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     public CategoryResponse mergeCategoryById(@PathVariable int id,
-                                              @RequestBody @Valid SaveCategoryRequest request) {
-        return categoryOperations.mergeById(id, request);
+                                              @RequestBody @Valid SaveCategoryRequest request,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
+        return categoryOperations.mergeById(id, request, Preconditions.expectedVersion(ifMatch));
     }
 
     /**
@@ -1,13 +1,26 @@
 package com.tuleninov.serverapi.controller.goods;
 
 import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.controller.ConditionalResponses;
+import com.tuleninov.serverapi.controller.Preconditions;
+import com.tuleninov.serverapi.controller.SortableBy;
+import com.tuleninov.serverapi.model.EntityTags;
+import com.tuleninov.serverapi.model.SliceResponse;
+import com.tuleninov.serverapi.model.goods.GoodsScrollOrder;
+import com.tuleninov.serverapi.model.goods.request.GoodsFilter;
 import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsFilterResponse;
 import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsScrollResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
 import com.tuleninov.serverapi.service.goods.GoodsOperations;
 import io.swagger.v3.oas.annotations.Parameter;
+import org.springdoc.api.annotations.ParameterObject;
 import org.springdoc.core.converters.models.PageableAsQueryParam;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,11 +28,14 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.util.List;
 
+import static com.tuleninov.serverapi.controller.ConditionalResponses.PUBLIC_CATALOG;
 import static com.tuleninov.serverapi.exceptions.goods.GoodsExceptions.goodsNotFound;
 
 /**
  * Rest controller for the Goods.
+ * The read endpoints are open to everyone and answer the conditional requests with {@code 304 Not Modified}.
  *
  * @author Oleksandr Tuleninov
  * @version 01
@@ -64,8 +80,9 @@ public class GoodsController {
             produces = MediaType.APPLICATION_JSON_VALUE
     )
     @PageableAsQueryParam
-    public Page<GoodsResponse> listGoods(@Parameter(hidden = true) Pageable pageable) {
-        return goodsOperations.list(pageable);
+    public ResponseEntity<Page<GoodsResponse>> listGoods(
+            @SortableBy({"id", "name", "price", "weight"}) @Parameter(hidden = true) Pageable pageable) {
+        return ConditionalResponses.ofPage(goodsOperations.list(pageable), PUBLIC_CATALOG);
     }
 
     /**
@@ -79,9 +96,146 @@ public class GoodsController {
             value = "/{id}/goods",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public Page<GoodsResponse> listByCategoryId(@Parameter(hidden = true) Pageable pageable,
-                                                @PathVariable int id) {
-        return goodsOperations.findAllByCategoryId(pageable, id);
+    public ResponseEntity<Page<GoodsResponse>> listByCategoryId(
+            @SortableBy({"id", "name", "price", "weight"}) @Parameter(hidden = true) Pageable pageable,
+            @PathVariable int id) {
+        return ConditionalResponses.ofPage(goodsOperations.findAllByCategoryId(pageable, id), PUBLIC_CATALOG);
+    }
+
+    /**
+     * Find a slice of goods in the database in response format without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param total    whether to add the approximate number of all goods for a page count
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @GetMapping(
+            value = "/slice",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PageableAsQueryParam
+    public ResponseEntity<SliceResponse<GoodsResponse>> sliceGoods(
+            @SortableBy({"id", "name", "price", "weight"}) @Parameter(hidden = true) Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean total) {
+        return ConditionalResponses.ofSlice(SliceResponse.fromSlice(
+                goodsOperations.slice(pageable),
+                total ? goodsOperations.approximateCount() : null), PUBLIC_CATALOG);
+    }
+
+    /**
+     * Find a slice of goods by category id in the database in response format without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param id       the id of the category
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @GetMapping(
+            value = "/{id}/goods/slice",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PageableAsQueryParam
+    public ResponseEntity<SliceResponse<GoodsResponse>> sliceByCategoryId(
+            @SortableBy({"id", "name", "price", "weight"}) @Parameter(hidden = true) Pageable pageable,
+            @PathVariable int id) {
+        return ConditionalResponses.ofSlice(
+                SliceResponse.fromSlice(goodsOperations.sliceByCategoryId(pageable, id)), PUBLIC_CATALOG);
+    }
+
+    /**
+     * Find the goods that match the search query in response format, the most relevant first.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param q        the search query in the web search syntax
+     * @param category the id of the category to search in, absent to search in all categories
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @GetMapping(
+            value = "/search",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PageableAsQueryParam
+    public ResponseEntity<SliceResponse<GoodsResponse>> searchGoods(@Parameter(hidden = true) Pageable pageable,
+                                                                    @RequestParam String q,
+                                                                    @RequestParam(required = false) Integer category) {
+        return ConditionalResponses.ofSlice(
+                SliceResponse.fromSlice(goodsOperations.search(q, category, pageable)), PUBLIC_CATALOG);
+    }
+
+    /**
+     * Find the goods that match the filter in response format with the facet counts of the filter.
+     * Every absent condition of the filter matches all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param filter   the categories, the price range and the weight range of the goods
+     * @return the goods from the database in response format with the information about the next slice
+     * and the numbers of the goods by category and by price bucket
+     */
+    @GetMapping(
+            value = "/filter",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @PageableAsQueryParam
+    public ResponseEntity<GoodsFilterResponse> filterGoods(
+            @SortableBy({"id", "name", "price", "weight"}) @Parameter(hidden = true) Pageable pageable,
+            @ParameterObject GoodsFilter filter) {
+        GoodsFilterResponse response = goodsOperations.filter(filter, pageable);
+        SliceResponse<GoodsResponse> goods = response.goods();
+        String etag = EntityTags.weak(goods.content(),
+                goods.number(), goods.size(), goods.hasNext(), response.facets());
+        return ConditionalResponses.ofTagged(response, etag, PUBLIC_CATALOG);
+    }
+
+    /**
+     * Get the numbers of all goods by category and by price bucket for the catalog index page.
+     * The numbers are kept in memory, so the facets do not query the database.
+     *
+     * @return the facets of the whole catalog
+     */
+    @GetMapping(
+            value = "/facets",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<GoodsFacetsResponse> getFacets() {
+        GoodsFacetsResponse facets = goodsOperations.facets();
+        return ConditionalResponses.ofTagged(facets, EntityTags.strong(facets.toString()), PUBLIC_CATALOG);
+    }
+
+    /**
+     * Find the goods whose names start with the prefix for the suggestions while the user types.
+     * The names are looked up in memory, so the suggestions do not query the database.
+     *
+     * @param prefix the beginning of the name, the case is ignored
+     * @param limit  the maximum number of the goods
+     * @return the goods with the matching names in the order of the names
+     */
+    @GetMapping(
+            value = "/suggest",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public List<GoodsSuggestResponse> suggestGoods(@RequestParam String prefix,
+                                                   @RequestParam(defaultValue = "10") int limit) {
+        return goodsOperations.suggest(prefix, limit);
+    }
+
+    /**
+     * Find the goods page that follows the cursor using keyset pagination.
+     * Unlike the offset pagination, the cost of a page does not depend on how deep it is.
+     *
+     * @param after the cursor of the previous page, absent for the first page
+     * @param order the sort order of the goods, the cursor keeps the order of the first page
+     * @param size  the number of goods on the page
+     * @return the goods from the database in response format with the cursor of the next page
+     */
+    @GetMapping(
+            value = "/scroll",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<GoodsScrollResponse> scrollGoods(@RequestParam(required = false) String after,
+                                                           @RequestParam(defaultValue = "ID") GoodsScrollOrder order,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        GoodsScrollResponse response = goodsOperations.scroll(after, order, size);
+        String etag = EntityTags.weak(response.content(), response.size(), response.hasNext(), response.next());
+        return ConditionalResponses.ofTagged(response, etag, PUBLIC_CATALOG);
     }
 
     /**
@@ -94,9 +248,9 @@ public class GoodsController {
             value = "/{id}",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public GoodsResponse getGoodsById(@PathVariable int id) {
-        return goodsOperations.findById(id)
-                .orElseThrow(() -> goodsNotFound(id));
+    public ResponseEntity<GoodsResponse> getGoodsById(@PathVariable int id) {
+        return ConditionalResponses.ofRow(goodsOperations.findById(id)
+                .orElseThrow(() -> goodsNotFound(id)), PUBLIC_CATALOG);
     }
 
     /**
@@ -104,14 +258,17 @@ public class GoodsController {
      *
      * @param id      the id of the goods
      * @param request the request with goods parameters
+     * @param ifMatch the version of the goods the client read, the merge answers 409 if it has changed since
      */
     @PutMapping(
             value = "/{id}",
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     public GoodsResponse mergeGoodsById(@PathVariable int id,
-                                        @RequestBody @Valid SaveGoodsRequest request) {
-        return goodsOperations.mergeById(id, request);
+                                        @RequestBody @Valid SaveGoodsRequest request,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                        String ifMatch) {
+        return goodsOperations.mergeById(id, request, Preconditions.expectedVersion(ifMatch));
     }
 
     /**
@@ -0,0 +1,56 @@
+package com.tuleninov.serverapi.controller.goods;
+
+import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+import com.tuleninov.serverapi.service.goods.GoodsExportOperations;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Rest controller for the bulk export of the Goods.
+ * The body is written while the goods are read, so the size of a catalog is not limited by the memory.
+ * It is written to the response in the thread of the request rather than asynchronously,
+ * so the export of a large catalog is not cut off by the timeout of the asynchronous requests.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@RestController
+@RequestMapping(Routes.GOODS + "/export")
+public class GoodsExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final GoodsExportOperations goodsExportOperations;
+
+    public GoodsExportController(GoodsExportOperations goodsExportOperations) {
+        this.goodsExportOperations = goodsExportOperations;
+    }
+
+    /**
+     * Export all goods with the names of their categories in the format the import accepts.
+     *
+     * @param format   the format of the body, NDJSON by default
+     * @param response the response the body is written to while the goods are read
+     * @throws IOException if the body cannot be written
+     */
+    @GetMapping
+    public void exportGoods(@RequestParam(defaultValue = "NDJSON") GoodsDataFormat format,
+                            HttpServletResponse response) throws IOException {
+        MediaType contentType = format == GoodsDataFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        String filename = "goods." + (format == GoodsDataFormat.CSV ? "csv" : "ndjson");
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        goodsExportOperations.exportGoods(format, response.getOutputStream());
+    }
+}
@@ -0,0 +1,60 @@
+package com.tuleninov.serverapi.controller.goods;
+
+import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+import com.tuleninov.serverapi.model.goods.response.GoodsImportResponse;
+import com.tuleninov.serverapi.service.goods.GoodsImportOperations;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+/**
+ * Rest controller for the bulk import of the Goods.
+ * The body is read while the goods are saved, so the size of a catalog is not limited by the memory.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@RestController
+@RequestMapping(Routes.GOODS + "/import")
+public class GoodsImportController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final GoodsImportOperations goodsImportOperations;
+
+    public GoodsImportController(GoodsImportOperations goodsImportOperations) {
+        this.goodsImportOperations = goodsImportOperations;
+    }
+
+    /**
+     * Import the goods from NDJSON, one goods request in JSON per line.
+     *
+     * @param body the body of the request
+     * @return the numbers of the imported and the failed goods with the reasons of the failures
+     */
+    @PostMapping(
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public GoodsImportResponse importNdjson(InputStream body) {
+        return goodsImportOperations.importGoods(GoodsDataFormat.NDJSON, body);
+    }
+
+    /**
+     * Import the goods from CSV with a header line of the goods request fields.
+     *
+     * @param body the body of the request
+     * @return the numbers of the imported and the failed goods with the reasons of the failures
+     */
+    @PostMapping(
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = TEXT_CSV_VALUE
+    )
+    public GoodsImportResponse importCsv(InputStream body) {
+        return goodsImportOperations.importGoods(GoodsDataFormat.CSV, body);
+    }
+}
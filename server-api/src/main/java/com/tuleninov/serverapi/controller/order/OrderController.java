@@ -0,0 +1,81 @@
+package com.tuleninov.serverapi.controller.order;
+
+import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.model.order.request.CreateOrderRequest;
+import com.tuleninov.serverapi.model.order.response.OrderResponse;
+import com.tuleninov.serverapi.service.order.OrderOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.validation.Valid;
+import java.util.UUID;
+
+import static com.tuleninov.serverapi.CartConstants.CART_ID;
+import static com.tuleninov.serverapi.IdempotencyConstants.IDEMPOTENCY_KEY;
+import static com.tuleninov.serverapi.exceptions.order.OrderExceptions.orderNotFound;
+
+/**
+ * Rest controller for the orders of the current user.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@RestController
+@RequestMapping(Routes.ORDERS)
+public class OrderController {
+
+    private final OrderOperations orderOperations;
+
+    public OrderController(OrderOperations orderOperations) {
+        this.orderOperations = orderOperations;
+    }
+
+    /**
+     * Place the order from the reservations of the cart.
+     * A checkout repeated with the same {@code Idempotency-Key} gets the order that was placed by the first one.
+     * The goods that the shop has held for the cart of a guest are ordered with the {@code X-Cart-Id} of the cart.
+     *
+     * @param email          authentication principal
+     * @param cartId         the cart the shop has held the goods for
+     * @param request        request with the reservations and the contacts
+     * @param idempotencyKey the key of the checkout
+     * @param ucb            builder for UriComponents
+     * @return the order in response format
+     */
+    @PostMapping(
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.CREATED)
+    public ResponseEntity<OrderResponse> create(@AuthenticationPrincipal String email,
+                                                @RequestHeader(value = CART_ID, required = false) UUID cartId,
+                                                @RequestBody @Valid CreateOrderRequest request,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+                                                String idempotencyKey,
+                                                UriComponentsBuilder ucb) {
+        OrderResponse response = orderOperations.create(email, cartId, request, idempotencyKey);
+        return ResponseEntity
+                .created(ucb.path(Routes.ORDERS + "/{id}").build(response.id()))
+                .body(response);
+    }
+
+    /**
+     * Get the order of the current user by id.
+     *
+     * @param email authentication principal
+     * @param id    the id of the order
+     * @return the order in response format
+     */
+    @GetMapping(
+            value = "/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public OrderResponse getOrderById(@AuthenticationPrincipal String email, @PathVariable long id) {
+        return orderOperations.findById(email, id)
+                .orElseThrow(() -> orderNotFound(id));
+    }
+}
@@ -0,0 +1,142 @@
+package com.tuleninov.serverapi.controller.stock;
+
+import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.model.stock.request.ReserveStockRequest;
+import com.tuleninov.serverapi.model.stock.request.SaveStockRequest;
+import com.tuleninov.serverapi.model.stock.response.StockReservationResponse;
+import com.tuleninov.serverapi.model.stock.response.StockResponse;
+import com.tuleninov.serverapi.model.user.KnownAuthority;
+import com.tuleninov.serverapi.service.stock.StockOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.validation.Valid;
+import java.util.UUID;
+
+import static com.tuleninov.serverapi.CartConstants.CART_HOLDER_PREFIX;
+import static com.tuleninov.serverapi.CartConstants.CART_ID;
+import static com.tuleninov.serverapi.exceptions.goods.GoodsExceptions.goodsNotFound;
+import static com.tuleninov.serverapi.exceptions.stock.StockExceptions.cartNotAllowed;
+
+/**
+ * Rest controller for the stock of the Goods and its reservations.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@RestController
+public class StockController {
+
+    private final StockOperations stockOperations;
+
+    public StockController(StockOperations stockOperations) {
+        this.stockOperations = stockOperations;
+    }
+
+    /**
+     * Get the stock of the goods.
+     *
+     * @param id the id of the goods
+     * @return the stock of the goods in response format
+     */
+    @GetMapping(
+            value = Routes.GOODS + "/{id}/stock",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public StockResponse getStock(@PathVariable int id) {
+        return stockOperations.findStock(id)
+                .orElseThrow(() -> goodsNotFound(id));
+    }
+
+    /**
+     * Set the stock of the goods.
+     *
+     * @param id      the id of the goods
+     * @param request request with the stock
+     * @return the stock of the goods in response format
+     */
+    @PutMapping(
+            value = Routes.GOODS + "/{id}/stock",
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public StockResponse setStock(@PathVariable int id, @RequestBody @Valid SaveStockRequest request) {
+        return stockOperations.setStock(id, request);
+    }
+
+    /**
+     * Reserve the goods from the stock, the response is 409 if there is not enough of them
+     * and 429 if the holder already holds too many reservations.
+     * The shop holds the goods for the cart of its guest that it names in {@code X-Cart-Id}.
+     *
+     * @param authentication the caller that holds the goods
+     * @param cartId         the cart the shop holds the goods for, or null
+     * @param request        request with the goods and the quantity
+     * @param ucb            builder for UriComponents
+     * @return the reservation in response format
+     */
+    @PostMapping(
+            value = Routes.RESERVATIONS,
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.CREATED)
+    public ResponseEntity<StockReservationResponse> reserve(Authentication authentication,
+                                                            @RequestHeader(value = CART_ID, required = false)
+                                                            UUID cartId,
+                                                            @RequestBody @Valid ReserveStockRequest request,
+                                                            UriComponentsBuilder ucb) {
+        StockReservationResponse response = stockOperations.reserve(holder(authentication, cartId), request);
+        return ResponseEntity
+                .created(ucb.path(Routes.RESERVATIONS + "/{id}").build(response.id()))
+                .body(response);
+    }
+
+    /**
+     * Release the reservation of the caller or of the cart of the shop and give the goods back to the stock.
+     *
+     * @param authentication the caller that holds the goods
+     * @param cartId         the cart the shop holds the goods for, or null
+     * @param id             the id of the reservation
+     * @return the released reservation in response format
+     */
+    @DeleteMapping(
+            value = Routes.RESERVATIONS + "/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.OK)
+    public StockReservationResponse release(Authentication authentication,
+                                            @RequestHeader(value = CART_ID, required = false) UUID cartId,
+                                            @PathVariable UUID id) {
+        return stockOperations.release(id, holder(authentication, cartId), isAdmin(authentication));
+    }
+
+    /**
+     * Commit the reservation, the goods are not given back to the stock.
+     * Only an admin commits a reservation by hand, an order commits the reservations of its cart itself.
+     *
+     * @param id the id of the reservation
+     * @return the committed reservation in response format
+     */
+    @PostMapping(
+            value = Routes.RESERVATIONS + "/{id}/commit",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public StockReservationResponse commit(@PathVariable UUID id) {
+        return stockOperations.commit(id);
+    }
+
+    private static String holder(Authentication authentication, UUID cartId) {
+        if (cartId == null) return authentication.getName();
+        if (!authentication.getAuthorities().contains(KnownAuthority.ROLE_SHOP)) throw cartNotAllowed();
+        return CART_HOLDER_PREFIX + cartId;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().contains(KnownAuthority.ROLE_ADMIN);
+    }
+}
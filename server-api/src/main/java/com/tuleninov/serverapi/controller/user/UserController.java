@@ -1,6 +1,7 @@
 package com.tuleninov.serverapi.controller.user;
 
 import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.controller.SortableBy;
 import com.tuleninov.serverapi.model.user.request.*;
 import com.tuleninov.serverapi.model.user.response.PasswordResponse;
 import com.tuleninov.serverapi.model.user.response.UserResponse;
@@ -173,7 +174,8 @@ public class UserController {
             produces = MediaType.APPLICATION_JSON_VALUE
     )
     @PageableAsQueryParam
-    public Page<UserResponse> listUsers(@Parameter(hidden = true) Pageable pageable) {
+    public Page<UserResponse> listUsers(
+            @SortableBy({"id", "email", "nickname", "createdAt"}) @Parameter(hidden = true) Pageable pageable) {
         return userOperations.list(pageable);
     }
 
@@ -21,4 +21,9 @@ public final class CategoryExceptions {
     public static ResponseStatusException duplicateName(String name) {
         return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Name '" + name + "' already taken");
     }
+
+    public static ResponseStatusException versionConflict(int id) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Category with id '" + id + "' has been changed by another request, reload it and try again");
+    }
 }
@@ -29,4 +29,25 @@ public final class GoodsExceptions {
     public static ResponseStatusException duplicateImageName(String imageName) {
         return new ResponseStatusException(HttpStatus.BAD_REQUEST, "ImageName '" + imageName + "' already taken");
     }
+
+    public static ResponseStatusException versionConflict(int id) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Goods with id '" + id + "' has been changed by another request, reload it and try again");
+    }
+
+    public static ResponseStatusException invalidCursor(String cursor) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor '" + cursor + "' is not valid");
+    }
+
+    public static ResponseStatusException blankSearchQuery() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must not be blank");
+    }
+
+    public static ResponseStatusException invalidImport(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Import is not valid: " + reason);
+    }
+
+    public static ResponseStatusException invalidFilter(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Filter is not valid: " + reason);
+    }
 }
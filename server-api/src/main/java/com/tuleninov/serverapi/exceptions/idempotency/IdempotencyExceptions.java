@@ -0,0 +1,39 @@
+package com.tuleninov.serverapi.exceptions.idempotency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static com.tuleninov.serverapi.IdempotencyConstants.MAX_KEY_LENGTH;
+
+/**
+ * Class for exceptions process for the requests repeated with the same {@code Idempotency-Key}
+ * with specific HTTP response status codes.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class IdempotencyExceptions {
+
+    private IdempotencyExceptions() {
+    }
+
+    public static ResponseStatusException invalidKey(String key) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Idempotency key '" + key + "' is not valid, it must have from 1 to " + MAX_KEY_LENGTH + " characters");
+    }
+
+    public static ResponseStatusException bodyTooLarge(int maxSize) {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "The body of a request with an idempotency key must not be longer than " + maxSize + " bytes");
+    }
+
+    public static ResponseStatusException keyReused(String key) {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency key '" + key + "' has already been used for another request");
+    }
+
+    public static ResponseStatusException requestInProgress(String key) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "The request with idempotency key '" + key + "' is still in progress, repeat it later");
+    }
+}
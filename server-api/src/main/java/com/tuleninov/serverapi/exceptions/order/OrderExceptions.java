@@ -0,0 +1,25 @@
+package com.tuleninov.serverapi.exceptions.order;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Class for exceptions process for the Order with specific HTTP response status codes.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class OrderExceptions {
+
+    private OrderExceptions() {
+    }
+
+    public static ResponseStatusException orderNotFound(long id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Order with id '" + id + "' was not found");
+    }
+
+    public static ResponseStatusException reservationsExpired() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Some goods of the order are no longer reserved, the reservations have expired or were released");
+    }
+}
@@ -0,0 +1,23 @@
+package com.tuleninov.serverapi.exceptions.pagination;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Class for exceptions process for the pagination parameters with specific HTTP response status codes.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class PaginationExceptions {
+
+    private PaginationExceptions() {
+    }
+
+    public static ResponseStatusException unsortableProperty(String property, List<String> sortable) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Sort by '" + property + "' is not supported, sort by one of " + sortable);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tuleninov.serverapi.exceptions.precondition;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Class for exceptions process for the conditional request headers with specific HTTP response status codes.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class PreconditionExceptions {
+
+    private PreconditionExceptions() {
+    }
+
+    public static ResponseStatusException invalidIfMatch(String ifMatch) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "If-Match '" + ifMatch + "' is not valid, it must be the ETag of the row");
+    }
+}
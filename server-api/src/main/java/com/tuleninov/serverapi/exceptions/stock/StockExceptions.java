@@ -0,0 +1,36 @@
+package com.tuleninov.serverapi.exceptions.stock;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+/**
+ * Class for exceptions process for the stock of the Goods with specific HTTP response status codes.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class StockExceptions {
+
+    private StockExceptions() {
+    }
+
+    public static ResponseStatusException outOfStock(int goodsId, int quantity) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Goods with id '" + goodsId + "' has less than " + quantity + " in stock");
+    }
+
+    public static ResponseStatusException reservationNotFound(UUID id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation with id '" + id + "' was not found");
+    }
+
+    public static ResponseStatusException tooManyHolds(String holder, int maxHolds) {
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "Holder '" + holder + "' already holds " + maxHolds + " reservations");
+    }
+
+    public static ResponseStatusException cartNotAllowed() {
+        return new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the shop holds the goods for a cart");
+    }
+}
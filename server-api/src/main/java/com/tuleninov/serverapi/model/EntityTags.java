@@ -0,0 +1,99 @@
+package com.tuleninov.serverapi.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Entity tags of the responses for the conditional requests.
+ * The versions are taken with millisecond precision, which the database and the JVM clocks both keep,
+ * so a response built in memory gets the same tag as the same row read back from the database.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class EntityTags {
+
+    private static final Pattern ROW_TAG = Pattern.compile("\"(\\d{1,18})-\\d+\"");
+
+    private EntityTags() {
+    }
+
+    /**
+     * Get the strong tag of the content, equal content gets an equal tag on every instance of the server.
+     *
+     * @param content the content of the response
+     * @return the quoted tag
+     */
+    public static String strong(CharSequence content) {
+        return "\"" + hash(content) + "\"";
+    }
+
+    /**
+     * Get the strong tag of the row, {@code "<version>-<millis>"}: the version of the row that a merge has to match,
+     * and the time of the last change, which also follows the changes of the rows it shows, like the category
+     * of the goods. The same tag is accepted in If-Match, see {@link #version(String)}.
+     *
+     * @param row the row in response format
+     * @return the quoted tag
+     */
+    public static String strong(Versioned row) {
+        return "\"" + row.version() + "-" + millis(row.updatedAt()) + "\"";
+    }
+
+    /**
+     * Get the version of the row from its strong tag.
+     *
+     * @param tag the quoted tag of the row
+     * @return the version of the row, or null if the tag is not the strong tag of a row
+     */
+    public static Long version(String tag) {
+        Matcher matcher = ROW_TAG.matcher(tag);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    /**
+     * Get the weak tag of a page of rows, it changes when a row is changed, added to or removed from the page,
+     * or when the pagination information changes.
+     *
+     * @param rows     the rows of the page in response format
+     * @param metadata the pagination information of the page
+     * @return the weak tag
+     */
+    public static String weak(List<? extends Versioned> rows, Object... metadata) {
+        var content = new StringBuilder();
+        for (Object value : metadata) {
+            content.append(value).append('\n');
+        }
+        for (Versioned row : rows) {
+            content.append(row.id()).append(':').append(millis(row.updatedAt())).append('\n');
+        }
+        return "W/\"" + hash(content) + "\"";
+    }
+
+    /**
+     * Get the time of the last change of the row in milliseconds since the epoch.
+     *
+     * @param updatedAt the time of the last change, null for the rows that have never been stamped
+     * @return the time in milliseconds
+     */
+    public static long millis(OffsetDateTime updatedAt) {
+        return updatedAt == null ? 0 : updatedAt.toInstant().toEpochMilli();
+    }
+
+    private static String hash(CharSequence content) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        byte[] bytes = digest.digest(content.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(bytes, 0, 16);
+    }
+}
@@ -0,0 +1,33 @@
+package com.tuleninov.serverapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Record for the page of objects that knows only whether a next page exists,
+ * so it does not need the count query of a full page.
+ *
+ * @param approximateTotal the estimated number of all objects, present only when it was requested
+ */
+public record SliceResponse<T>(List<T> content,
+                               int number,
+                               int size,
+                               boolean hasNext,
+                               @JsonInclude(JsonInclude.Include.NON_NULL)
+                               Long approximateTotal) {
+
+    public static <T> SliceResponse<T> fromSlice(Slice<T> slice) {
+        return fromSlice(slice, null);
+    }
+
+    public static <T> SliceResponse<T> fromSlice(Slice<T> slice, Long approximateTotal) {
+        return new SliceResponse<>(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext(),
+                approximateTotal);
+    }
+}
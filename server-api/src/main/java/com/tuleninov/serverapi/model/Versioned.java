@@ -0,0 +1,33 @@
+package com.tuleninov.serverapi.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Interface for the responses of the versioned rows.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface Versioned {
+
+    /**
+     * Get the id of the row.
+     *
+     * @return the id of the row
+     */
+    int id();
+
+    /**
+     * Get the version of the row, a merge of the row has to match it.
+     *
+     * @return the version of the row
+     */
+    long version();
+
+    /**
+     * Get the time of the last change of the row.
+     *
+     * @return the time of the last change
+     */
+    OffsetDateTime updatedAt();
+}
@@ -4,8 +4,6 @@ import com.tuleninov.serverapi.model.user.CustomUser;
 
 import javax.persistence.*;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -26,10 +24,13 @@ public class RefreshToken {
     @Column(name = "expire_at", nullable = false)
     private OffsetDateTime expireAt;
 
-    @SuppressWarnings("FieldMayBeFinal")
-    @OneToMany(mappedBy = "next", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<RefreshToken> previous = new ArrayList<>();
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
 
+    /**
+     * The token that replaced this one when it was refreshed, null while this token has not been used.
+     * It only marks the token as rotated, the tokens of a login are found and invalidated by the family.
+     */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "next")
     @Access(AccessType.PROPERTY)
@@ -67,12 +68,16 @@ public class RefreshToken {
         this.expireAt = expireAt;
     }
 
-    public RefreshToken getNext() {
-        return next;
+    public UUID getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(UUID familyId) {
+        this.familyId = familyId;
     }
 
-    public List<RefreshToken> getPrevious() {
-        return previous;
+    public RefreshToken getNext() {
+        return next;
     }
 
     public void setNext(RefreshToken next) {
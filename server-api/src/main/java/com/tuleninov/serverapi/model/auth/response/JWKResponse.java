@@ -0,0 +1,14 @@
+package com.tuleninov.serverapi.model.auth.response;
+
+/**
+ * Record for the public key that verifies the tokens, in the JSON Web Key format of RFC 7517.
+ * The coordinates of the point of the elliptic curve are unsigned big-endian numbers in Base64url.
+ */
+public record JWKResponse(String kty,
+                          String crv,
+                          String kid,
+                          String use,
+                          String alg,
+                          String x,
+                          String y) {
+}
@@ -0,0 +1,9 @@
+package com.tuleninov.serverapi.model.auth.response;
+
+import java.util.List;
+
+/**
+ * Record for the set of the public keys that verify the tokens, empty while they are signed with the secret.
+ */
+public record JWKSetResponse(List<JWKResponse> keys) {
+}
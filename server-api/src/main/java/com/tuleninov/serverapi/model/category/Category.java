@@ -1,6 +1,7 @@
 package com.tuleninov.serverapi.model.category;
 
 import javax.persistence.*;
+import java.time.OffsetDateTime;
 import java.util.Objects;
 
 /**
@@ -21,6 +22,13 @@ public class Category {
     @Column(nullable = false, unique = true)
     private String name;
 
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public int getId() {
         return id;
     }
@@ -37,6 +45,30 @@ public class Category {
         this.name = name;
     }
 
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Stamp the new row with the time of its creation unless the time has been set.
+     */
+    @PrePersist
+    void prePersist() {
+        if (updatedAt == null) updatedAt = OffsetDateTime.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
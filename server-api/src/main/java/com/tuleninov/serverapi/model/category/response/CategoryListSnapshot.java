@@ -0,0 +1,30 @@
+package com.tuleninov.serverapi.model.category.response;
+
+import com.tuleninov.serverapi.model.EntityTags;
+
+import java.util.List;
+
+/**
+ * Record for the immutable list of all categories with the strong entity tag of its content.
+ * Equal lists get equal tags on every instance of the server, so clients can revalidate against any of them.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record CategoryListSnapshot(List<CategoryResponse> categories,
+                                   String etag) {
+
+    /**
+     * Create the snapshot of the categories.
+     *
+     * @param categories the categories in the order of their ids
+     * @return new snapshot with the tag of the categories
+     */
+    public static CategoryListSnapshot of(List<CategoryResponse> categories) {
+        var content = new StringBuilder();
+        for (CategoryResponse category : categories) {
+            content.append(category.id()).append('\t').append(category.name()).append('\n');
+        }
+        return new CategoryListSnapshot(List.copyOf(categories), EntityTags.strong(content));
+    }
+}
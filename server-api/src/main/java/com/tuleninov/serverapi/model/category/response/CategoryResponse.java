@@ -1,7 +1,10 @@
 package com.tuleninov.serverapi.model.category.response;
 
+import com.tuleninov.serverapi.model.Versioned;
 import com.tuleninov.serverapi.model.category.Category;
 
+import java.time.OffsetDateTime;
+
 /**
  * Record for the category response.
  *
@@ -9,7 +12,9 @@ import com.tuleninov.serverapi.model.category.Category;
  * @version 01
  */
 public record CategoryResponse(int id,
-                               String name) {
+                               String name,
+                               long version,
+                               OffsetDateTime updatedAt) implements Versioned {
 
     /**
      * Create the new record for the category.
@@ -20,7 +25,9 @@ public record CategoryResponse(int id,
     public static CategoryResponse fromCategory(Category category) {
         return new CategoryResponse(
                 category.getId(),
-                category.getName()
+                category.getName(),
+                category.getVersion(),
+                category.getUpdatedAt()
         );
     }
 }
@@ -3,6 +3,7 @@ package com.tuleninov.serverapi.model.goods;
 import com.tuleninov.serverapi.model.category.Category;
 
 import javax.persistence.*;
+import java.time.OffsetDateTime;
 import java.util.Objects;
 
 /**
@@ -16,7 +17,8 @@ import java.util.Objects;
 public class Goods {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "goods_id_generator")
+    @SequenceGenerator(name = "goods_id_generator", sequenceName = "goods_id_seq", allocationSize = 50)
     private int id;
 
     @Column(nullable = false)
@@ -38,6 +40,20 @@ public class Goods {
     @Column(nullable = false)
     private String imageName;
 
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * The stock is changed only by the conditional updates of the reservations, see StockService,
+     * so the merges of the goods never write it back.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int stock;
+
     public int getId() {
         return id;
     }
@@ -94,6 +110,34 @@ public class Goods {
         this.category = category;
     }
 
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    /**
+     * Stamp the new row with the time of its creation unless the time has been set.
+     */
+    @PrePersist
+    void prePersist() {
+        if (updatedAt == null) updatedAt = OffsetDateTime.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
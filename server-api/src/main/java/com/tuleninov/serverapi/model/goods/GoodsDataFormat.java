@@ -0,0 +1,15 @@
+package com.tuleninov.serverapi.model.goods;
+
+/**
+ * Enum with the formats of the bulk import and export of goods.
+ * NDJSON has one goods in JSON per line, CSV has a header line with the names of the goods fields.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public enum GoodsDataFormat {
+
+    NDJSON,
+    CSV
+
+}
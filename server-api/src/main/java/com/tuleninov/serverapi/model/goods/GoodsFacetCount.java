@@ -0,0 +1,14 @@
+package com.tuleninov.serverapi.model.goods;
+
+/**
+ * Record for the number of the goods of a category in a price bucket.
+ *
+ * @param bucket the number of the price bucket, see {@link GoodsPriceBuckets}
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsFacetCount(int categoryId,
+                              String categoryName,
+                              int bucket,
+                              long count) {
+}
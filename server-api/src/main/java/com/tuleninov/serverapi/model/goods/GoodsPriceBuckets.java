@@ -0,0 +1,54 @@
+package com.tuleninov.serverapi.model.goods;
+
+/**
+ * The price buckets of the catalog facets. A bucket holds the prices from its lower bound, inclusive,
+ * to the lower bound of the next bucket, exclusive. The first bucket starts at zero and the last one has no end.
+ * The numbering is the same as that of {@code width_bucket} of Postgres over {@link #BOUNDS}.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class GoodsPriceBuckets {
+
+    /**
+     * The lower bounds of all buckets but the first one.
+     */
+    public static final double[] BOUNDS = {10, 50, 100, 500, 1000};
+
+    public static final int COUNT = BOUNDS.length + 1;
+
+    private GoodsPriceBuckets() {
+    }
+
+    /**
+     * Get the bucket of the price.
+     *
+     * @param price the price of the goods
+     * @return the number of the bucket from zero
+     */
+    public static int of(double price) {
+        int bucket = 0;
+        while (bucket < BOUNDS.length && price >= BOUNDS[bucket]) bucket++;
+        return bucket;
+    }
+
+    /**
+     * Get the lowest price of the bucket.
+     *
+     * @param bucket the number of the bucket
+     * @return the lowest price, inclusive
+     */
+    public static double from(int bucket) {
+        return bucket == 0 ? 0 : BOUNDS[bucket - 1];
+    }
+
+    /**
+     * Get the price where the bucket ends.
+     *
+     * @param bucket the number of the bucket
+     * @return the end of the bucket, exclusive, or null for the last bucket
+     */
+    public static Double to(int bucket) {
+        return bucket < BOUNDS.length ? BOUNDS[bucket] : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.tuleninov.serverapi.model.goods;
+
+/**
+ * Enum with the sort orders supported by keyset pagination of goods.
+ * Every order is completed by the id of the goods, so the position of a row is unique.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public enum GoodsScrollOrder {
+
+    ID,
+    NAME,
+    PRICE,
+    PRICE_DESC
+
+}
@@ -0,0 +1,37 @@
+package com.tuleninov.serverapi.model.goods.request;
+
+import java.util.List;
+
+/**
+ * Record for the filter of the goods catalog, every absent condition matches all goods.
+ *
+ * @param categoryIds the ids of the categories to show the goods of
+ * @param minPrice    the lowest price, inclusive
+ * @param maxPrice    the highest price, inclusive
+ * @param minWeight   the lowest weight, inclusive
+ * @param maxWeight   the highest weight, inclusive
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsFilter(List<Integer> categoryIds,
+                          Double minPrice,
+                          Double maxPrice,
+                          Integer minWeight,
+                          Integer maxWeight) {
+
+    public boolean isEmpty() {
+        return !hasCategories() && !hasPriceRange() && !hasWeightRange();
+    }
+
+    public boolean hasCategories() {
+        return categoryIds != null && !categoryIds.isEmpty();
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    public boolean hasWeightRange() {
+        return minWeight != null || maxWeight != null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.tuleninov.serverapi.model.goods.response;
+
+/**
+ * Record for the number of the filtered goods in a category.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsCategoryFacet(int categoryId,
+                                 String categoryName,
+                                 long count) {
+}
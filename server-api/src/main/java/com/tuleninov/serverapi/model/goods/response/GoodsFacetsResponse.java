@@ -0,0 +1,16 @@
+package com.tuleninov.serverapi.model.goods.response;
+
+import java.util.List;
+
+/**
+ * Record for the facet counts of the filtered goods.
+ * The counts of a facet ignore the filter of the same facet, so they tell how many goods
+ * the shopper would see after choosing another category or price bucket.
+ * Categories and buckets without goods are left out.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsFacetsResponse(List<GoodsCategoryFacet> categories,
+                                  List<GoodsPriceFacet> prices) {
+}
@@ -0,0 +1,13 @@
+package com.tuleninov.serverapi.model.goods.response;
+
+import com.tuleninov.serverapi.model.SliceResponse;
+
+/**
+ * Record for the slice of the filtered goods with the facet counts of the filter.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsFilterResponse(SliceResponse<GoodsResponse> goods,
+                                  GoodsFacetsResponse facets) {
+}
@@ -0,0 +1,13 @@
+package com.tuleninov.serverapi.model.goods.response;
+
+/**
+ * Record for the goods that could not be imported.
+ *
+ * @param line    the line of the imported body where the goods starts
+ * @param message the reason why the goods was not imported
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsImportError(long line,
+                               String message) {
+}
@@ -0,0 +1,17 @@
+package com.tuleninov.serverapi.model.goods.response;
+
+import java.util.List;
+
+/**
+ * Record for the report of the bulk import of goods.
+ *
+ * @param imported the number of the goods that were saved
+ * @param failed   the number of the goods that were not saved
+ * @param errors   the reasons of the first failures, a large import reports only the first of them
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsImportResponse(int imported,
+                                  int failed,
+                                  List<GoodsImportError> errors) {
+}
@@ -0,0 +1,22 @@
+package com.tuleninov.serverapi.model.goods.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tuleninov.serverapi.model.goods.GoodsPriceBuckets;
+
+/**
+ * Record for the number of the filtered goods in a price bucket.
+ *
+ * @param from the lowest price of the bucket, inclusive
+ * @param to   the end of the bucket, exclusive, absent for the last bucket
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsPriceFacet(double from,
+                              @JsonInclude(JsonInclude.Include.NON_NULL)
+                              Double to,
+                              long count) {
+
+    public static GoodsPriceFacet of(int bucket, long count) {
+        return new GoodsPriceFacet(GoodsPriceBuckets.from(bucket), GoodsPriceBuckets.to(bucket), count);
+    }
+}
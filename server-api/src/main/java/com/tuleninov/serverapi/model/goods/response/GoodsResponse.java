@@ -1,9 +1,13 @@
 package com.tuleninov.serverapi.model.goods.response;
 
+import com.tuleninov.serverapi.model.Versioned;
 import com.tuleninov.serverapi.model.goods.Goods;
 
+import java.time.OffsetDateTime;
+
 /**
  * Record for the goods response.
+ * The goods show the name of their category, so the goods change when either of them changes.
  *
  * @author Oleksandr Tuleninov
  * @version 01
@@ -15,7 +19,23 @@ public record GoodsResponse(int id,
                             double price,
                             int weight,
                             String description,
-                            String imageName) {
+                            String imageName,
+                            long version,
+                            OffsetDateTime updatedAt) implements Versioned {
+
+    /**
+     * Create the new record from the columns of the goods and of its category.
+     * The version is the version of the goods alone, it is what a merge of the goods has to match.
+     *
+     * @param goodsUpdatedAt    the time of the last change of the goods
+     * @param categoryUpdatedAt the time of the last change of the category
+     */
+    public GoodsResponse(int id, String name, int categoryId, String categoryName, double price, int weight,
+                         String description, String imageName, long version,
+                         OffsetDateTime goodsUpdatedAt, OffsetDateTime categoryUpdatedAt) {
+        this(id, name, categoryId, categoryName, price, weight, description, imageName, version,
+                latest(goodsUpdatedAt, categoryUpdatedAt));
+    }
 
     /**
      * Create the new record from Goods.
@@ -32,7 +52,16 @@ public record GoodsResponse(int id,
                 goods.getPrice(),
                 goods.getWeight(),
                 goods.getDescription(),
-                goods.getImageName()
+                goods.getImageName(),
+                goods.getVersion(),
+                goods.getUpdatedAt(),
+                goods.getCategory().getUpdatedAt()
         );
     }
+
+    private static OffsetDateTime latest(OffsetDateTime first, OffsetDateTime second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        return first.isAfter(second) ? first : second;
+    }
 }
@@ -0,0 +1,15 @@
+package com.tuleninov.serverapi.model.goods.response;
+
+import java.util.List;
+
+/**
+ * Record for the goods response with keyset pagination information.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsScrollResponse(List<GoodsResponse> content,
+                                  int size,
+                                  boolean hasNext,
+                                  String next) {
+}
@@ -0,0 +1,11 @@
+package com.tuleninov.serverapi.model.goods.response;
+
+/**
+ * Record for the goods name suggested while the user types.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsSuggestResponse(int id,
+                                   String name) {
+}
@@ -0,0 +1,86 @@
+package com.tuleninov.serverapi.model.order;
+
+import javax.persistence.*;
+
+/**
+ * Class for the line of the order with the name and the price of the goods at checkout.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Entity
+@Table(name = "order_items")
+public class OrderItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_generator")
+    @SequenceGenerator(name = "order_items_id_generator", sequenceName = "order_items_id_seq", allocationSize = 50)
+    private long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private CustomerOrder order;
+
+    /**
+     * The id of the goods, or null once the goods has been deleted from the catalog.
+     */
+    @Column(name = "goods_id")
+    private Integer goodsId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public CustomerOrder getOrder() {
+        return order;
+    }
+
+    public void setOrder(CustomerOrder order) {
+        this.order = order;
+    }
+
+    public Integer getGoodsId() {
+        return goodsId;
+    }
+
+    public void setGoodsId(Integer goodsId) {
+        this.goodsId = goodsId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,12 @@
+package com.tuleninov.serverapi.model.order;
+
+/**
+ * Record for the name and the price of the goods at checkout.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record OrderedGoods(int id,
+                           String name,
+                           double price) {
+}
@@ -0,0 +1,38 @@
+package com.tuleninov.serverapi.model.order.request;
+
+import javax.validation.constraints.*;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Record for the request that places the order from the reservations of the cart.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record CreateOrderRequest(
+
+        @NotEmpty(message = "the order must have at least one reservation")
+        @Size(max = 100, message = "the order must have at most 100 reservations")
+        List<@NotNull UUID> reservationIds,
+
+        @NotBlank(message = "the first name must not be blank")
+        String firstName,
+
+        @NotBlank(message = "the last name must not be blank")
+        String lastName,
+
+        @Email(message = "the email must be a valid email string")
+        @NotNull(message = "the email must not be null")
+        String email,
+
+        @NotBlank(message = "the phone must not be blank")
+        String phone,
+
+        @NotBlank(message = "the address must not be blank")
+        String address,
+
+        String comment
+
+) {
+}
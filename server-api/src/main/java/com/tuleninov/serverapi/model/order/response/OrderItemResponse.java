@@ -0,0 +1,25 @@
+package com.tuleninov.serverapi.model.order.response;
+
+import com.tuleninov.serverapi.model.order.OrderItem;
+
+/**
+ * Record for the line of the order response.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record OrderItemResponse(Integer goodsId,
+                                String name,
+                                double price,
+                                int quantity) {
+
+    /**
+     * Create the new record from OrderItem.
+     *
+     * @param item the line of the order
+     * @return new record from OrderItem
+     */
+    public static OrderItemResponse fromOrderItem(OrderItem item) {
+        return new OrderItemResponse(item.getGoodsId(), item.getName(), item.getPrice(), item.getQuantity());
+    }
+}
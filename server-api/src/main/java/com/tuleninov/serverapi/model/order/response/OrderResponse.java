@@ -0,0 +1,45 @@
+package com.tuleninov.serverapi.model.order.response;
+
+import com.tuleninov.serverapi.model.order.CustomerOrder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Record for the order response.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record OrderResponse(long id,
+                            List<OrderItemResponse> items,
+                            double total,
+                            String firstName,
+                            String lastName,
+                            String email,
+                            String phone,
+                            String address,
+                            String comment,
+                            OffsetDateTime createdAt) {
+
+    /**
+     * Create the new record from CustomerOrder.
+     *
+     * @param order the order
+     * @return new record from CustomerOrder
+     */
+    public static OrderResponse fromOrder(CustomerOrder order) {
+        return new OrderResponse(
+                order.getId(),
+                order.getItems().stream().map(OrderItemResponse::fromOrderItem).toList(),
+                order.getTotal(),
+                order.getFirstName(),
+                order.getLastName(),
+                order.getEmail(),
+                order.getPhone(),
+                order.getAddress(),
+                order.getComment(),
+                order.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,14 @@
+package com.tuleninov.serverapi.model.stock;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Record for the reservation that is waiting to expire.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record StockHold(UUID id,
+                        OffsetDateTime expireAt) {
+}
@@ -0,0 +1,11 @@
+package com.tuleninov.serverapi.model.stock;
+
+/**
+ * Record for the quantity of the goods given back to the stock by the expired reservations.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record StockRelease(int goodsId,
+                           int quantity) {
+}
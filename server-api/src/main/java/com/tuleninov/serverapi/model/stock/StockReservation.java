@@ -0,0 +1,85 @@
+package com.tuleninov.serverapi.model.stock;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Class for the reservation of the goods from the stock.
+ * The reserved quantity has already been taken from the stock of the goods,
+ * and it is given back by the server when the reservation expires.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Entity
+@Table(name = "stock_reservations")
+public class StockReservation {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "goods_id", nullable = false)
+    private int goodsId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(nullable = false)
+    private String holder;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "expire_at", nullable = false)
+    private OffsetDateTime expireAt;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public int getGoodsId() {
+        return goodsId;
+    }
+
+    public void setGoodsId(int goodsId) {
+        this.goodsId = goodsId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public OffsetDateTime getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(OffsetDateTime expireAt) {
+        this.expireAt = expireAt;
+    }
+}
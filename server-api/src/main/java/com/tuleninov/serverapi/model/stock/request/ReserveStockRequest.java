@@ -0,0 +1,23 @@
+package com.tuleninov.serverapi.model.stock.request;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Record for the request that reserves the goods from the stock.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record ReserveStockRequest(
+
+        @PositiveOrZero(message = "the id of goods is mandatory")
+        int goodsId,
+
+        @Positive(message = "the quantity of goods should be greater then 0")
+        @Max(value = 100, message = "the quantity of goods should not be greater then 100")
+        int quantity
+
+) {
+}
@@ -0,0 +1,17 @@
+package com.tuleninov.serverapi.model.stock.request;
+
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Record for the request that sets the stock of the goods.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record SaveStockRequest(
+
+        @PositiveOrZero(message = "the stock of goods should not be negative")
+        int stock
+
+) {
+}
@@ -0,0 +1,35 @@
+package com.tuleninov.serverapi.model.stock.response;
+
+import com.tuleninov.serverapi.model.stock.StockReservation;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Record for the stock reservation response.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record StockReservationResponse(UUID id,
+                                       int goodsId,
+                                       int quantity,
+                                       OffsetDateTime createdAt,
+                                       OffsetDateTime expireAt) {
+
+    /**
+     * Create the new record from StockReservation.
+     *
+     * @param reservation the reservation
+     * @return new record from StockReservation
+     */
+    public static StockReservationResponse fromReservation(StockReservation reservation) {
+        return new StockReservationResponse(
+                reservation.getId(),
+                reservation.getGoodsId(),
+                reservation.getQuantity(),
+                reservation.getCreatedAt(),
+                reservation.getExpireAt()
+        );
+    }
+}
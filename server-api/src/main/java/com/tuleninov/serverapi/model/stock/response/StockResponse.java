@@ -0,0 +1,11 @@
+package com.tuleninov.serverapi.model.stock.response;
+
+/**
+ * Record for the stock response.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record StockResponse(int goodsId,
+                            int stock) {
+}
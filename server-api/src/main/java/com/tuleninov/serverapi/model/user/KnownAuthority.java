@@ -6,7 +6,9 @@ public enum KnownAuthority implements GrantedAuthority {
 
     ROLE_USER,
 
-    ROLE_ADMIN;
+    ROLE_ADMIN,
+
+    ROLE_SHOP;
 
     @Override
     public String getAuthority() {
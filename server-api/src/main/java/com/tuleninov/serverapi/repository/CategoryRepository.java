@@ -1,7 +1,14 @@
 package com.tuleninov.serverapi.repository;
 
 import com.tuleninov.serverapi.model.category.Category;
+import com.tuleninov.serverapi.model.category.response.CategoryResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Interface for working with the repository of Category.
@@ -11,6 +18,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
  */
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
-    boolean existsByName(String name);
+    Slice<Category> findAllBy(Pageable pageable);
+
+    @Query("select new com.tuleninov.serverapi.model.category.response.CategoryResponse(c.id, c.name, c.version, c.updatedAt) " +
+            "from Category c where c.id in :ids")
+    List<CategoryResponse> findResponsesByIdIn(Collection<Integer> ids);
 
 }
\ No newline at end of file
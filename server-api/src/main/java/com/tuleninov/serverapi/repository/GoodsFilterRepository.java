@@ -0,0 +1,43 @@
+package com.tuleninov.serverapi.repository;
+
+import com.tuleninov.serverapi.model.goods.GoodsFacetCount;
+import com.tuleninov.serverapi.model.goods.request.GoodsFilter;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Interface for the dynamic queries of the goods catalog filter.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface GoodsFilterRepository {
+
+    /**
+     * Find a slice of the goods that match the filter in response format without counting them.
+     *
+     * @param filter   the filter of the goods
+     * @param pageable abstract interface for pagination information
+     * @return the goods in response format with the information about the next slice
+     */
+    Slice<GoodsResponse> findResponseSlice(GoodsFilter filter, Pageable pageable);
+
+    /**
+     * Count the goods that match the filter by category and by price bucket in one grouped query.
+     *
+     * @param filter the filter of the goods
+     * @return the facet counts of the filter
+     */
+    GoodsFacetsResponse countFacets(GoodsFilter filter);
+
+    /**
+     * Count all goods by category and price bucket.
+     *
+     * @return the number of the goods of every category in every price bucket that has goods
+     */
+    List<GoodsFacetCount> countByCategoryAndPriceBucket();
+}
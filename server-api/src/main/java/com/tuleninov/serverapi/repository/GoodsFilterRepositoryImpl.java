@@ -0,0 +1,155 @@
+package com.tuleninov.serverapi.repository;
+
+import com.tuleninov.serverapi.model.category.Category;
+import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.goods.GoodsFacetCount;
+import com.tuleninov.serverapi.model.goods.GoodsPriceBuckets;
+import com.tuleninov.serverapi.model.goods.request.GoodsFilter;
+import com.tuleninov.serverapi.model.goods.response.GoodsCategoryFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsPriceFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the dynamic queries of the goods catalog filter.
+ * The goods are read with the Criteria API from the conditions of {@link GoodsSpecifications},
+ * the facets are counted by a native query, because JPQL has no grouping sets.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public class GoodsFilterRepositoryImpl implements GoodsFilterRepository {
+
+    private static final String PRICE_BUCKET = "width_bucket(g.price, cast(array[" +
+            Arrays.stream(GoodsPriceBuckets.BOUNDS).mapToObj(Double::toString).collect(Collectors.joining(", ")) +
+            "] as numeric[]))";
+
+    private final EntityManager entityManager;
+
+    public GoodsFilterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Find a slice of the goods that match the filter in response format without counting them.
+     * The goods are selected together with the names of their categories in a single join.
+     *
+     * @param filter   the filter of the goods
+     * @param pageable abstract interface for pagination information
+     * @return the goods in response format with the information about the next slice
+     */
+    @Override
+    public Slice<GoodsResponse> findResponseSlice(GoodsFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GoodsResponse> query = cb.createQuery(GoodsResponse.class);
+        Root<Goods> g = query.from(Goods.class);
+        Join<Goods, Category> c = g.join("category");
+
+        query.select(cb.construct(GoodsResponse.class,
+                g.get("id"), g.get("name"), c.get("id"), c.get("name"), g.get("price"), g.get("weight"),
+                g.get("description"), g.get("imageName"), g.get("version"), g.get("updatedAt"), c.get("updatedAt")));
+        Predicate where = GoodsSpecifications.matches(filter).toPredicate(g, query, cb);
+        if (where != null) query.where(where);
+        // the id makes the order of the goods with equal sort keys stable between the slices
+        Sort sort = pageable.getSort().and(Sort.by("id"));
+        query.orderBy(QueryUtils.toOrders(sort, g, cb));
+
+        // one extra row tells whether there is a next slice without counting
+        List<GoodsResponse> goods = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = goods.size() > pageable.getPageSize();
+        if (hasNext) goods = goods.subList(0, pageable.getPageSize());
+        return new SliceImpl<>(goods, pageable, hasNext);
+    }
+
+    /**
+     * Count the goods that match the filter by category and by price bucket in one grouped query.
+     * The weight filter applies to both facets, while the category facet ignores the category filter
+     * and the price facet ignores the price filter, so one scan of the goods feeds both grouping sets.
+     *
+     * @param filter the filter of the goods
+     * @return the facet counts of the filter
+     */
+    @Override
+    public GoodsFacetsResponse countFacets(GoodsFilter filter) {
+        var categoryCondition = new ArrayList<String>();
+        var priceCondition = new ArrayList<String>();
+        var weightCondition = new ArrayList<String>();
+        if (filter.hasCategories()) categoryCondition.add("g.category_id in (:categoryIds)");
+        if (filter.minPrice() != null) priceCondition.add("g.price >= cast(:minPrice as numeric)");
+        if (filter.maxPrice() != null) priceCondition.add("g.price <= cast(:maxPrice as numeric)");
+        if (filter.minWeight() != null) weightCondition.add("g.weight >= :minWeight");
+        if (filter.maxWeight() != null) weightCondition.add("g.weight <= :maxWeight");
+
+        Query query = entityManager.createNativeQuery(
+                "select grouping(g.category_id) as by_price, g.category_id, c.name, " + PRICE_BUCKET + " as bucket, " +
+                        "count(*) filter (where " + and(priceCondition) + ") as category_count, " +
+                        "count(*) filter (where " + and(categoryCondition) + ") as price_count " +
+                        "from goods g join categories c on c.category_id = g.category_id " +
+                        "where " + and(weightCondition) + " " +
+                        "group by grouping sets ((g.category_id, c.name), (" + PRICE_BUCKET + ")) " +
+                        "order by by_price, c.name, bucket");
+        if (filter.hasCategories()) query.setParameter("categoryIds", filter.categoryIds());
+        if (filter.minPrice() != null) query.setParameter("minPrice", filter.minPrice());
+        if (filter.maxPrice() != null) query.setParameter("maxPrice", filter.maxPrice());
+        if (filter.minWeight() != null) query.setParameter("minWeight", filter.minWeight());
+        if (filter.maxWeight() != null) query.setParameter("maxWeight", filter.maxWeight());
+
+        var categories = new ArrayList<GoodsCategoryFacet>();
+        var prices = new ArrayList<GoodsPriceFacet>();
+        for (Object result : query.getResultList()) {
+            Object[] row = (Object[]) result;
+            boolean byPrice = ((Number) row[0]).intValue() == 1;
+            long count = ((Number) row[byPrice ? 5 : 4]).longValue();
+            if (count == 0) continue;
+
+            if (byPrice) prices.add(GoodsPriceFacet.of(((Number) row[3]).intValue(), count));
+            else categories.add(new GoodsCategoryFacet(((Number) row[1]).intValue(), (String) row[2], count));
+        }
+        return new GoodsFacetsResponse(categories, prices);
+    }
+
+    /**
+     * Count all goods by category and price bucket.
+     *
+     * @return the number of the goods of every category in every price bucket that has goods
+     */
+    @Override
+    public List<GoodsFacetCount> countByCategoryAndPriceBucket() {
+        List<?> rows = entityManager.createNativeQuery(
+                "select g.category_id, c.name, " + PRICE_BUCKET + " as bucket, count(*) " +
+                        "from goods g join categories c on c.category_id = g.category_id " +
+                        "group by g.category_id, c.name, bucket").getResultList();
+        var counts = new ArrayList<GoodsFacetCount>(rows.size());
+        for (Object result : rows) {
+            Object[] row = (Object[]) result;
+            counts.add(new GoodsFacetCount(((Number) row[0]).intValue(), (String) row[1],
+                    ((Number) row[2]).intValue(), ((Number) row[3]).longValue()));
+        }
+        return counts;
+    }
+
+    private static String and(List<String> conditions) {
+        return conditions.isEmpty() ? "true" : String.join(" and ", conditions);
+    }
+}
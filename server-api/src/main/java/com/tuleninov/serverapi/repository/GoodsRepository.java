@@ -2,9 +2,30 @@ package com.tuleninov.serverapi.repository;
 
 import com.tuleninov.serverapi.model.category.Category;
 import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
+import com.tuleninov.serverapi.model.order.OrderedGoods;
+import com.tuleninov.serverapi.model.stock.response.StockResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Interface for working with the repository of Goods.
@@ -12,14 +33,176 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * @author Oleksandr Tuleninov
  * @version 01
  */
-public interface GoodsRepository extends JpaRepository<Goods, Integer> {
+public interface GoodsRepository extends JpaRepository<Goods, Integer>, GoodsFilterRepository {
+
+    /**
+     * Select the goods together with the name of its category in a single join,
+     * so that reading a page does not load the lazy category of every row.
+     */
+    String SELECT_RESPONSE = "select new com.tuleninov.serverapi.model.goods.response.GoodsResponse(" +
+            "g.id, g.name, c.id, c.name, g.price, g.weight, g.description, g.imageName, g.version, g.updatedAt, c.updatedAt) " +
+            "from Goods g join g.category c ";
 
     Page<Goods> findAllByCategory(Pageable pageable, Category category);
 
-    boolean existsByName(String name);
+    @Query(value = SELECT_RESPONSE,
+            countQuery = "select count(g) from Goods g")
+    Page<GoodsResponse> findAllResponses(Pageable pageable);
+
+    @Query(value = SELECT_RESPONSE + "where c.id = :categoryId",
+            countQuery = "select count(g) from Goods g where g.category.id = :categoryId")
+    Page<GoodsResponse> findAllResponsesByCategoryId(Pageable pageable, int categoryId);
+
+    /*
+     * Slices read one row more than the page size to know whether there is a next page,
+     * so unlike pages they do not run a count query.
+     */
+
+    @Query(SELECT_RESPONSE)
+    Slice<GoodsResponse> findResponseSlice(Pageable pageable);
+
+    @Query(SELECT_RESPONSE + "where c.id = :categoryId")
+    Slice<GoodsResponse> findResponseSliceByCategoryId(Pageable pageable, int categoryId);
+
+    /**
+     * Get the number of goods estimated by the planner statistics of Postgres.
+     * The value is negative while the table has never been analyzed.
+     */
+    @Query(value = "select cast(c.reltuples as bigint) from pg_class c " +
+            "where c.oid = to_regclass('goods')", nativeQuery = true)
+    long estimateCount();
+
+    /**
+     * Stream all goods in the order of their ids. Inside a transaction Postgres reads them through a cursor,
+     * a fetch at a time, and the projections are not kept by the persistence context,
+     * so the memory does not grow with the catalog.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_RESPONSE + "order by g.id")
+    Stream<GoodsResponse> streamAllResponses();
+
+    @Query(SELECT_RESPONSE + "where g.id = :id")
+    Optional<GoodsResponse> findResponseById(int id);
+
+    @Query(SELECT_RESPONSE)
+    List<GoodsResponse> findResponses(Pageable pageable);
+
+    @Query(SELECT_RESPONSE + "where g.id in :ids")
+    List<GoodsResponse> findAllResponsesByIdIn(Collection<Integer> ids);
+
+    /*
+     * Keyset pagination: each query seeks past the (sort key, id) of the last row of the previous page,
+     * so the index range scan starts right at the requested page instead of skipping all earlier rows.
+     */
+
+    @Query(value = "select cast(g.id as int) from goods g " +
+            "where g.id > :id order by g.id limit :limit", nativeQuery = true)
+    List<Integer> findIdsAfterId(int id, int limit);
+
+    @Query(value = "select cast(g.id as int) from goods g " +
+            "where (g.name, g.id) > (:name, :id) order by g.name, g.id limit :limit", nativeQuery = true)
+    List<Integer> findIdsAfterName(String name, int id, int limit);
+
+    @Query(value = "select cast(g.id as int) from goods g " +
+            "where (g.price, g.id) > (cast(:price as numeric), :id) " +
+            "order by g.price, g.id limit :limit", nativeQuery = true)
+    List<Integer> findIdsAfterPrice(String price, int id, int limit);
+
+    @Query(value = "select cast(g.id as int) from goods g " +
+            "where (g.price, g.id) < (cast(:price as numeric), :id) " +
+            "order by g.price desc, g.id desc limit :limit", nativeQuery = true)
+    List<Integer> findIdsBeforePrice(String price, int id, int limit);
 
+    // the price of the entity is a double, the seek by price needs the exact value of the column
+    @Query(value = "select g.price from goods g where g.id = :id", nativeQuery = true)
+    Optional<BigDecimal> findExactPriceById(int id);
+
+    /*
+     * Full-text search over the generated search_vector column, where the name weighs more than the description.
+     * The GIN index only finds the matching goods, ts_rank is computed for every match and the matches are sorted by it,
+     * so the queries return just the ids of a page and the goods themselves are loaded for that page alone.
+     */
+
+    @Query(value = "select cast(g.id as int) from goods g, websearch_to_tsquery('simple', :query) q " +
+            "where g.search_vector @@ q " +
+            "order by ts_rank(g.search_vector, q) desc, g.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Integer> searchIds(String query, int limit, long offset);
+
+    @Query(value = "select cast(g.id as int) from goods g, websearch_to_tsquery('simple', :query) q " +
+            "where g.search_vector @@ q and g.category_id = :categoryId " +
+            "order by ts_rank(g.search_vector, q) desc, g.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Integer> searchIdsByCategoryId(String query, int categoryId, int limit, long offset);
+
+    @Query("select new com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse(g.id, g.name) from Goods g")
+    List<GoodsSuggestResponse> findAllNames();
+
+    @Query("select g.id from Goods g where g.category.id = :categoryId")
+    List<Integer> findIdsByCategoryId(int categoryId);
+
+    /*
+     * Set-based uniqueness checks of the bulk import: one query finds which of many values are already taken.
+     * The descriptions are looked up by the digest that carries their unique index, see V8__goods_description_hash.sql,
+     * so the checks read the small index instead of comparing the whole texts.
+     */
+
+    @Query("select g.name from Goods g where g.name in :names")
+    List<String> findNamesIn(Collection<String> names);
+
+    @Query(value = "select g.description from goods g where g.description_hash in (:hashes)", nativeQuery = true)
+    List<String> findDescriptionsByHashIn(Collection<byte[]> hashes);
+
+    default List<String> findDescriptionsIn(Collection<String> descriptions) {
+        return findDescriptionsByHashIn(descriptions.stream().map(GoodsRepository::descriptionHash).toList());
+    }
+
+    @Query("select g.imageName from Goods g where g.imageName in :imageNames")
+    List<String> findImageNamesIn(Collection<String> imageNames);
+
+    @Query(value = "select exists(select 1 from goods g " +
+            "where g.description_hash = goods_description_hash(:description))", nativeQuery = true)
     boolean existsByDescription(String description);
 
-    boolean existsByImageName(String imageName);
+    /*
+     * The stock is taken and returned by single conditional updates: the row is locked only for the update itself,
+     * and a reservation that asks for more than is left changes nothing.
+     */
+
+    @Modifying
+    @Query("update Goods g set g.stock = g.stock - :quantity where g.id = :id and g.stock >= :quantity")
+    int takeStock(int id, int quantity);
+
+    @Modifying
+    @Query("update Goods g set g.stock = g.stock + :quantity where g.id = :id")
+    int returnStock(int id, int quantity);
+
+    @Modifying
+    @Query("update Goods g set g.stock = :stock where g.id = :id")
+    int updateStock(int id, int stock);
+
+    @Query("select g.stock from Goods g where g.id = :id")
+    Optional<Integer> findStockById(int id);
+
+    @Query("select new com.tuleninov.serverapi.model.order.OrderedGoods(g.id, g.name, g.price) " +
+            "from Goods g where g.id in :ids")
+    List<OrderedGoods> findOrderedGoodsByIdIn(Collection<Integer> ids);
+
+    @Query("select new com.tuleninov.serverapi.model.stock.response.StockResponse(g.id, g.stock) " +
+            "from Goods g where g.id in :ids")
+    List<StockResponse> findStocksByIdIn(Collection<Integer> ids);
 
+    /**
+     * Get the digest of the description as the goods_description_hash function of the database computes it.
+     *
+     * @param description the description of the goods
+     * @return the SHA-256 digest of the description in UTF-8
+     */
+    static byte[] descriptionHash(String description) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(description.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
 }
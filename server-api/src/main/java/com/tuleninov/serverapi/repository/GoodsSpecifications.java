@@ -0,0 +1,74 @@
+package com.tuleninov.serverapi.repository;
+
+import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.goods.request.GoodsFilter;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import java.math.BigDecimal;
+
+/**
+ * The conditions of the goods catalog filter.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class GoodsSpecifications {
+
+    private GoodsSpecifications() {
+    }
+
+    /**
+     * Get the condition that matches the goods of the filter.
+     *
+     * @param filter the filter of the goods
+     * @return the condition of all the parts of the filter
+     */
+    public static Specification<Goods> matches(GoodsFilter filter) {
+        return Specification.where(inCategories(filter))
+                .and(inPriceRange(filter))
+                .and(inWeightRange(filter));
+    }
+
+    /**
+     * Get the condition on the categories, or null when the filter has none.
+     */
+    public static Specification<Goods> inCategories(GoodsFilter filter) {
+        if (!filter.hasCategories()) return null;
+
+        // the id of the association is read from the foreign key column without a join
+        return (root, query, cb) -> root.get("category").get("id").in(filter.categoryIds());
+    }
+
+    /**
+     * Get the condition on the price, or null when the filter has none.
+     */
+    public static Specification<Goods> inPriceRange(GoodsFilter filter) {
+        Specification<Goods> from = filter.minPrice() == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.<BigDecimal>get("price"), numeric(cb, filter.minPrice()));
+        Specification<Goods> to = filter.maxPrice() == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.<BigDecimal>get("price"), numeric(cb, filter.maxPrice()));
+        return Specification.where(from).and(to);
+    }
+
+    /**
+     * Get the price as a decimal literal, which Postgres reads as the numeric type of the column.
+     * A double parameter would make Postgres convert the column to double instead,
+     * and then the indexes on the price could not be used.
+     */
+    private static Expression<BigDecimal> numeric(CriteriaBuilder cb, double price) {
+        return cb.literal(BigDecimal.valueOf(price));
+    }
+
+    /**
+     * Get the condition on the weight, or null when the filter has none.
+     */
+    public static Specification<Goods> inWeightRange(GoodsFilter filter) {
+        Specification<Goods> from = filter.minWeight() == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("weight"), filter.minWeight());
+        Specification<Goods> to = filter.maxWeight() == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("weight"), filter.maxWeight());
+        return Specification.where(from).and(to);
+    }
+}
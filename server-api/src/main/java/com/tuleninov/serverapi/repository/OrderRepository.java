@@ -0,0 +1,24 @@
+package com.tuleninov.serverapi.repository;
+
+import com.tuleninov.serverapi.model.order.CustomerOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+/**
+ * Interface for working with the repository of Order.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface OrderRepository extends JpaRepository<CustomerOrder, Long> {
+
+    @Query("select distinct o from CustomerOrder o left join fetch o.items " +
+            "where o.id = :id and o.userId = :userId")
+    Optional<CustomerOrder> findByIdAndUserId(long id, long userId);
+
+    @Query("select distinct o from CustomerOrder o left join fetch o.items " +
+            "where o.userId = :userId and o.idempotencyKey = :idempotencyKey")
+    Optional<CustomerOrder> findByUserIdAndIdempotencyKey(long userId, String idempotencyKey);
+}
@@ -14,21 +14,69 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
 
     /**
      * Find the token that matches the user.
+     * The table is partitioned by expire_at, so the time the token expires at, which the signed token carries
+     * to the second, narrows the search to the partition of the token.
      * */
     @Query("select rt from RefreshToken rt inner join fetch rt.user u " +
-            "where rt.value = :value and rt.expireAt > :when and u.status = :status")
-    Optional<RefreshToken> findIfValid(UUID value, OffsetDateTime when, UserStatus status);
+            "where rt.value = :value and rt.expireAt >= :expireFrom and rt.expireAt < :expireTo " +
+            "and rt.expireAt > :when and u.status = :status")
+    Optional<RefreshToken> findIfValid(UUID value, OffsetDateTime expireFrom, OffsetDateTime expireTo,
+                                       OffsetDateTime when, UserStatus status);
 
-    @Query("delete from RefreshToken rt where rt = :head or rt.next = :head")
+    /**
+     * Find the token whether it is valid or not, in the partition of the time it expires at.
+     * */
+    @Query("select rt from RefreshToken rt where rt.value = :value " +
+            "and rt.expireAt >= :expireFrom and rt.expireAt < :expireTo")
+    Optional<RefreshToken> findByValue(UUID value, OffsetDateTime expireFrom, OffsetDateTime expireTo);
+
+    /**
+     * Delete all tokens of the family that have not expired by the time,
+     * so the partitions of the expired tokens are not searched.
+     * */
+    @Query("delete from RefreshToken rt where rt.familyId = :familyId and rt.expireAt > :when")
     @Modifying
-    void deleteChain(RefreshToken head);
+    void deleteFamily(UUID familyId, OffsetDateTime when);
 
-    @Query("update RefreshToken rt set rt.next = :newHead where rt = :oldHead or rt.next = :oldHead")
+    /**
+     * Mark the token as used to issue the next one, in the partition of the token.
+     * */
+    @Query("update RefreshToken rt set rt.next = :next " +
+            "where rt = :token and rt.expireAt = :#{#token.expireAt}")
     @Modifying
-    void updateChain(RefreshToken oldHead, RefreshToken newHead);
+    void markRotated(RefreshToken token, RefreshToken next);
 
+    /**
+     * Take the lock of the pruning of the tokens until the end of the transaction, if no one holds it.
+     */
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('refresh_tokens_prune'))", nativeQuery = true)
+    boolean tryLockPruning();
+
+    /**
+     * Create the missing partitions for the tokens that expire from the time until the other one.
+     *
+     * @return the number of the created partitions
+     */
+    @Query(value = "select create_refresh_token_partitions(:since, :until)", nativeQuery = true)
+    int createPartitions(OffsetDateTime since, OffsetDateTime until);
+
+    /**
+     * Drop the partitions whose tokens all expired before the time.
+     *
+     * @return the number of the dropped partitions
+     */
+    @Query(value = "select drop_expired_refresh_token_partitions(:before)", nativeQuery = true)
+    int dropExpiredPartitions(OffsetDateTime before);
+
+    /**
+     * Delete a batch of the tokens of the users with the status.
+     *
+     * @return the number of the deleted tokens
+     */
     @Modifying
-    @Query(value = "call prune_refresh_tokens()", nativeQuery = true)
-    void pruneRefreshTokens();
+    @Query(value = "delete from refresh_tokens where value = any(array(" +
+            "select rt.value from refresh_tokens rt join users u on u.id = rt.user_id " +
+            "where u.status = :status limit :limit))", nativeQuery = true)
+    int deleteOfUsersWithStatus(int status, int limit);
 
 }
@@ -0,0 +1,28 @@
+package com.tuleninov.serverapi.repository;
+
+import com.tuleninov.serverapi.model.stock.StockRelease;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Interface for giving the goods of the expired reservations back to the stock.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface StockReleaseRepository {
+
+    /**
+     * Delete the reservations that have expired and give their goods back to the stock in one statement.
+     * The reservations that have been released or committed in the meantime, or that have not expired yet,
+     * are left as they are.
+     *
+     * @param ids the ids of the reservations
+     * @param now the current time
+     * @return the quantity given back to the stock of every goods
+     */
+    List<StockRelease> releaseExpired(Collection<UUID> ids, OffsetDateTime now);
+}
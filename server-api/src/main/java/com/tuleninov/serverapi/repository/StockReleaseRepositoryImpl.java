@@ -0,0 +1,63 @@
+package com.tuleninov.serverapi.repository;
+
+import com.tuleninov.serverapi.model.stock.StockRelease;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of giving the goods of the expired reservations back to the stock.
+ * The reservations are deleted and the stock is updated by a single native statement, because JPQL
+ * can neither return the deleted rows nor update from them.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public class StockReleaseRepositoryImpl implements StockReleaseRepository {
+
+    private final EntityManager entityManager;
+
+    public StockReleaseRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Delete the reservations that have expired and give their goods back to the stock in one statement.
+     * The ids are bound as a single array, so every batch runs the same statement.
+     *
+     * @param ids the ids of the reservations
+     * @param now the current time
+     * @return the quantity given back to the stock of every goods
+     */
+    @Override
+    @Transactional
+    public List<StockRelease> releaseExpired(Collection<UUID> ids, OffsetDateTime now) {
+        if (ids.isEmpty()) return List.of();
+
+        List<?> rows = entityManager.createNativeQuery(
+                        "with released as (" +
+                                "delete from stock_reservations r " +
+                                "where r.id = any(cast(:ids as uuid[])) and r.expire_at <= :now " +
+                                "returning r.goods_id, r.quantity), " +
+                                "totals as (select goods_id, sum(quantity) as quantity " +
+                                "from released group by goods_id) " +
+                                "update goods g set stock = g.stock + t.quantity from totals t " +
+                                "where g.id = t.goods_id " +
+                                "returning g.id, t.quantity")
+                .setParameter("ids", ids.stream().map(UUID::toString).collect(Collectors.joining(",", "{", "}")))
+                .setParameter("now", now)
+                .getResultList();
+        var released = new ArrayList<StockRelease>(rows.size());
+        for (Object result : rows) {
+            Object[] row = (Object[]) result;
+            released.add(new StockRelease(((Number) row[0]).intValue(), ((Number) row[1]).intValue()));
+        }
+        return released;
+    }
+}
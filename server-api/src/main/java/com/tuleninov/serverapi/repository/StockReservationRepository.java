@@ -0,0 +1,56 @@
+package com.tuleninov.serverapi.repository;
+
+import com.tuleninov.serverapi.model.stock.StockHold;
+import com.tuleninov.serverapi.model.stock.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the reservations of the stock.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID>, StockReleaseRepository {
+
+    /**
+     * Delete the reservation; of two concurrent deletes of the same reservation only one deletes the row.
+     *
+     * @param id the id of the reservation
+     * @return the number of the deleted rows, 1 or 0
+     */
+    @Modifying
+    @Query("delete from StockReservation r where r.id = :id")
+    int deleteReservationById(UUID id);
+
+    /**
+     * Delete the reservations; the number of the deleted rows is less than the number of the ids
+     * if some of the reservations have been released, committed or have expired.
+     *
+     * @param ids the ids of the reservations
+     * @return the number of the deleted rows
+     */
+    @Modifying
+    @Query("delete from StockReservation r where r.id in :ids")
+    int deleteReservationsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Count the reservations of the holder, taking the lock of its reservations until the end of the transaction,
+     * so the concurrent reservations of one holder are counted one after another.
+     *
+     * @param holder the caller that made the reservations
+     * @return the number of the reservations of the holder
+     */
+    @Query(value = "select count(*) " +
+            "from pg_advisory_xact_lock(hashtext('stock_reservations_' || :holder)), stock_reservations r " +
+            "where r.holder = :holder", nativeQuery = true)
+    long lockAndCountByHolder(String holder);
+
+    @Query("select new com.tuleninov.serverapi.model.stock.StockHold(r.id, r.expireAt) from StockReservation r")
+    List<StockHold> findAllHolds();
+}
@@ -14,12 +14,13 @@ public interface UserRepository extends JpaRepository<CustomUser, Long> {
 
     Optional<CustomUser> findByEmail(String email);
 
+    @Query("select u.id from CustomUser u where u.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
     Optional<CustomUser> findByEmailOrNickname(String email, String nickname);
 
     boolean existsByEmail(String email);
 
-    boolean existsByNickname(String nickname);
-
     void deleteByEmail(String email);
 
     @Query("update CustomUser u set u.status = :status where u.email = :email")
@@ -0,0 +1,31 @@
+package com.tuleninov.serverapi.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Helpers for the writes that rely on the constraints of the database instead of checking the data first.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Get the name of the constraint that the write violated, as the database reported it.
+     *
+     * @param e the exception of the write
+     * @return the name of the constraint, or an empty string if it is not known
+     */
+    public static String constraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,52 @@
+package com.tuleninov.serverapi.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for the in-memory state that has to follow the database only after a transaction commits.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Run the action after the current transaction commits, or at once outside of a transaction,
+     * so that the in-memory state never shows changes that were rolled back.
+     *
+     * @param action the action to run
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run the action if the current transaction rolls back, to undo the in-memory state that was changed
+     * ahead of the database. Outside of a transaction there is nothing to roll back and the action never runs.
+     *
+     * @param action the action to run
+     */
+    public static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) action.run();
+            }
+        });
+    }
+}
@@ -2,6 +2,8 @@ package com.tuleninov.serverapi.service.auth;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.tuleninov.serverapi.config.security.JWTVerification;
 import com.tuleninov.serverapi.config.security.SecurityConstants;
 import com.tuleninov.serverapi.config.security.properties.CustomSecurityProperties;
 import com.tuleninov.serverapi.exceptions.auth.InvalidRefreshTokenException;
@@ -20,7 +22,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -42,7 +46,10 @@ public class JWTAuthService implements AuthOperations {
 
     private final Algorithm algorithm;
 
+    private final JWTVerification jwtVerification;
+
     public JWTAuthService(CustomSecurityProperties securityProperties,
+                          JWTVerification jwtVerification,
                           RefreshTokenRepository refreshTokenRepository,
                           UserRepository userRepository) {
         this.refreshTokenRepository = refreshTokenRepository;
@@ -50,7 +57,8 @@ public class JWTAuthService implements AuthOperations {
         var jwtProperties = securityProperties.getJwt();
         this.jwtExpiration = jwtProperties.getAccessExpireIn();
         this.refreshExpiration = jwtProperties.getRefreshExpireIn();
-        this.algorithm = Algorithm.HMAC512(new String(jwtProperties.getSecret()).getBytes());
+        this.algorithm = jwtVerification.algorithm();
+        this.jwtVerification = jwtVerification;
     }
 
     /**
@@ -62,7 +70,7 @@ public class JWTAuthService implements AuthOperations {
     @Override
     @Transactional
     public AccessTokenResponse getToken(CustomUserDetails userDetails) {
-        RefreshToken newToken = issueRefreshToken(userDetails.getSource());
+        RefreshToken newToken = issueRefreshToken(userDetails.getSource(), UUID.randomUUID());
         return response(userDetails.getUsername(), userDetails.getAuthorities(), newToken);
     }
 
@@ -75,9 +83,13 @@ public class JWTAuthService implements AuthOperations {
     @Override
     @Transactional
     public AccessTokenResponse refreshToken(String refreshToken) throws InvalidRefreshTokenException {
+        RefreshTokenClaims claims = verifyRefreshToken(refreshToken);
+        var now = OffsetDateTime.now();
         RefreshToken storedToken = refreshTokenRepository.findIfValid(
-                verifyRefreshToken(refreshToken),
-                OffsetDateTime.now(),
+                claims.id(),
+                claims.expireFrom(),
+                claims.expireTo(),
+                now,
                 UserStatus.ACTIVE
         ).orElseThrow(InvalidRefreshTokenException::new);
 
@@ -85,12 +97,9 @@ public class JWTAuthService implements AuthOperations {
 
         CustomUser user = storedToken.getUser();
 
-        var nextToken = issueRefreshToken(user);
-
-        refreshTokenRepository.updateChain(storedToken, nextToken);
+        var nextToken = issueRefreshToken(user, storedToken.getFamilyId());
 
-        // call prune_refresh_tokens() after refreshing
-        refreshTokenRepository.pruneRefreshTokens();
+        refreshTokenRepository.markRotated(storedToken, nextToken);
 
         return response(user.getEmail(), user.getAuthorities().keySet(), nextToken);
     }
@@ -104,11 +113,13 @@ public class JWTAuthService implements AuthOperations {
     @Override
     @Transactional
     public void invalidateToken(String refreshToken, String ownerEmail) throws InvalidRefreshTokenException {
-        RefreshToken storedToken = refreshTokenRepository.findById(verifyRefreshToken(refreshToken))
-                .orElseThrow(InvalidRefreshTokenException::new);
+        RefreshTokenClaims claims = verifyRefreshToken(refreshToken);
+        RefreshToken storedToken = refreshTokenRepository.findByValue(
+                claims.id(), claims.expireFrom(), claims.expireTo()
+        ).orElseThrow(InvalidRefreshTokenException::new);
         checkOwner(storedToken, ownerEmail);
         checkIfRotated(storedToken);
-        refreshTokenRepository.deleteChain(storedToken);
+        refreshTokenRepository.deleteFamily(storedToken.getFamilyId(), OffsetDateTime.now());
     }
 
     /**
@@ -128,7 +139,7 @@ public class JWTAuthService implements AuthOperations {
             log.error(message, email);
             userRepository.changeStatusByEmail(email, UserStatus.SUSPENDED);
             // invalidate token
-            refreshTokenRepository.deleteChain(storedToken);
+            refreshTokenRepository.deleteFamily(storedToken.getFamilyId(), OffsetDateTime.now());
             throw new InvalidRefreshTokenException();
         }
     }
@@ -136,17 +147,17 @@ public class JWTAuthService implements AuthOperations {
     /**
      * Check that the token is new, etc. there were no tokens generated after it.
      * This is done to check for the possibility of loss (theft) of the token.
-     * If the token has "storedToken.getNext()", then we log an error and delete the entire token chain.
+     * If the token has "storedToken.getNext()", then we log an error and delete the entire token family.
      *
      * @param storedToken stored token
      */
     private void checkIfRotated(RefreshToken storedToken) throws InvalidRefreshTokenException {
-        // if an old token is used - we still want to invalidate whole chain in case the new one was stolen
+        // if an old token is used - we still want to invalidate whole family in case the new one was stolen
         if (storedToken.getNext() != null) {
             String message = "!! INVESTIGATE ASAP !! An old refresh token used for user {}, " +
-                    "signifying possible token theft! Invalidating the entire token chain.";
+                    "signifying possible token theft! Invalidating the entire token family.";
             log.error(message, storedToken.getUser().getEmail());
-            refreshTokenRepository.deleteChain(storedToken.getNext());
+            refreshTokenRepository.deleteFamily(storedToken.getFamilyId(), OffsetDateTime.now());
             throw new InvalidRefreshTokenException();
         }
     }
@@ -154,13 +165,16 @@ public class JWTAuthService implements AuthOperations {
     /**
      * Issue a new RefreshToken, which, unlike the JWT token,
      * has a unique id and will be stored in the database.
+     * A login starts a new family of the tokens, and every refresh adds the next token to it.
      *
-     * @param user user
+     * @param user     user
+     * @param familyId id of the family of the token
      * @return refresh token
      */
-    private RefreshToken issueRefreshToken(CustomUser user) {
+    private RefreshToken issueRefreshToken(CustomUser user, UUID familyId) {
         var refreshToken = new RefreshToken();
         var now = OffsetDateTime.now();
+        refreshToken.setFamilyId(familyId);
         refreshToken.setIssuedAt(now);
         refreshToken.setExpireAt(now.plus(refreshExpiration));
         refreshToken.setUser(user);
@@ -193,21 +207,36 @@ public class JWTAuthService implements AuthOperations {
      * Validate refresh token.
      *
      * @param refreshJWT refresh JWT
-     * @return UUID
+     * @return the id of the token and the time it expires at
      */
-    private UUID verifyRefreshToken(String refreshJWT) throws InvalidRefreshTokenException {
+    private RefreshTokenClaims verifyRefreshToken(String refreshJWT) throws InvalidRefreshTokenException {
         try {
-            String id = JWT.require(algorithm)
-                    .build()
-                    .verify(refreshJWT)
-                    .getId();
+            DecodedJWT decodedJWT = jwtVerification.verify(refreshJWT);
+            String id = decodedJWT.getId();
             Objects.requireNonNull(id, "jti must be present in refresh token");
-            return UUID.fromString(id);
+            Instant expiresAt = decodedJWT.getExpiresAtAsInstant();
+            Objects.requireNonNull(expiresAt, "exp must be present in refresh token");
+            return new RefreshTokenClaims(UUID.fromString(id), expiresAt.atOffset(ZoneOffset.UTC));
         } catch (Exception e) {
             throw new InvalidRefreshTokenException(e);
         }
     }
 
+    /**
+     * The id of the refresh token and the time it expires at, to the second as the signed token carries it.
+     * The stored time is within the second after it, which is where the token is searched.
+     */
+    private record RefreshTokenClaims(UUID id, OffsetDateTime expiresAt) {
+
+        private OffsetDateTime expireFrom() {
+            return expiresAt;
+        }
+
+        private OffsetDateTime expireTo() {
+            return expiresAt.plusSeconds(1);
+        }
+    }
+
     /**
      * Sign refresh token.
      * It has an id but no authorities.
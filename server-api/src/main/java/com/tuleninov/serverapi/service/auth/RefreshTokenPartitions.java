@@ -0,0 +1,108 @@
+package com.tuleninov.serverapi.service.auth;
+
+import com.tuleninov.serverapi.config.security.properties.CustomSecurityProperties;
+import com.tuleninov.serverapi.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Maintenance of the partitions of the refresh tokens, one for the tokens that expire within a day.
+ * The partitions are created ahead for every token that can be issued until the next runs,
+ * and a partition is dropped as a whole once all its tokens have expired,
+ * so the expired tokens are never deleted one by one.
+ * The functions of the database serialize the instances of the server on an advisory lock.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class RefreshTokenPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPartitions.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration refreshExpiration;
+
+    private final Duration ahead;
+
+    private final Counter created;
+
+    private final Counter dropped;
+
+    public RefreshTokenPartitions(RefreshTokenRepository refreshTokenRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  CustomSecurityProperties securityProperties,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${custom.security.refresh-partitions-ahead:P7D}") Duration ahead) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshExpiration = securityProperties.getJwt().getRefreshExpireIn();
+        this.ahead = ahead;
+        this.created = Counter.builder("refresh_tokens.partitions.created")
+                .description("The partitions of the refresh tokens created ahead")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("refresh_tokens.partitions.dropped")
+                .description("The partitions of the expired refresh tokens dropped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Create the partitions when the application starts, before any token is issued for the days
+     * that were not covered while it was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        maintain();
+    }
+
+    /**
+     * Create the partitions of the coming days and drop the ones that expired.
+     */
+    @Scheduled(initialDelayString = "${custom.security.refresh-partitions-maintenance:PT1H}",
+            fixedDelayString = "${custom.security.refresh-partitions-maintenance:PT1H}")
+    public void maintain() {
+        maintain(OffsetDateTime.now());
+    }
+
+    /**
+     * Create the partitions for the tokens issued until the time and some days later,
+     * and drop the partitions that expired before it.
+     *
+     * @param now the current time
+     */
+    public void maintain(OffsetDateTime now) {
+        int createdPartitions = inTransaction(() ->
+                refreshTokenRepository.createPartitions(now, now.plus(refreshExpiration).plus(ahead)));
+        int droppedPartitions = inTransaction(() -> refreshTokenRepository.dropExpiredPartitions(now));
+        created.increment(createdPartitions);
+        dropped.increment(droppedPartitions);
+        if (createdPartitions + droppedPartitions > 0) {
+            log.info("{} partitions of the refresh tokens have been created and {} expired ones dropped.",
+                    createdPartitions, droppedPartitions);
+        }
+    }
+
+    /**
+     * Run the function of the database in a transaction that may change the schema.
+     */
+    private int inTransaction(IntSupplier function) {
+        Integer result = transactionTemplate.execute(status -> function.getAsInt());
+        return result == null ? 0 : result;
+    }
+}
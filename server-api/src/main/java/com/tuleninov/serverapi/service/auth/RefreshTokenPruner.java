@@ -0,0 +1,109 @@
+package com.tuleninov.serverapi.service.auth;
+
+import com.tuleninov.serverapi.model.user.UserStatus;
+import com.tuleninov.serverapi.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Deletion of the refresh tokens that belong to the suspended users, in the background.
+ * The expired tokens go away with their partitions, see {@link RefreshTokenPartitions}.
+ * The tokens are deleted in batches of a bounded size, each in its own short transaction,
+ * so the pruning never holds the locks of many rows and the refresh of a token never waits for it.
+ * Every batch takes an advisory lock of Postgres, so only one instance of the server prunes at a time,
+ * and the others skip their turn.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class RefreshTokenPruner {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPruner.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Counter suspended;
+
+    private final Counter skipped;
+
+    private final Timer duration;
+
+    public RefreshTokenPruner(RefreshTokenRepository refreshTokenRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${custom.security.refresh-prune-batch:1000}") int batchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.suspended = Counter.builder("refresh_tokens.pruned")
+                .description("The refresh tokens deleted by the pruning")
+                .tag("reason", "suspended")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("refresh_tokens.prune.skipped")
+                .description("The runs of the pruning skipped while another instance held the lock")
+                .register(meterRegistry);
+        this.duration = Timer.builder("refresh_tokens.prune")
+                .description("The time of a run of the pruning")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delete the tokens of the suspended users.
+     *
+     * @return the number of the deleted tokens
+     */
+    @Scheduled(initialDelayString = "${custom.security.refresh-prune-interval:PT5M}",
+            fixedDelayString = "${custom.security.refresh-prune-interval:PT5M}")
+    public long prune() {
+        return duration.record(() -> {
+            Long deleted = pruneAll(suspended, () -> refreshTokenRepository.deleteOfUsersWithStatus(
+                    UserStatus.SUSPENDED.ordinal(), batchSize));
+            if (deleted == null) return skip();
+
+            if (deleted > 0) {
+                log.info("{} refresh tokens of the suspended users have been pruned.", deleted);
+            }
+            return deleted;
+        });
+    }
+
+    private long skip() {
+        skipped.increment();
+        log.debug("Refresh tokens are pruned by another instance, this run is skipped.");
+        return 0;
+    }
+
+    /**
+     * Delete the batches until one of them is not full.
+     * Another instance may take the lock between the batches, then it goes on with the rest.
+     *
+     * @return the number of the deleted tokens, or null if another instance held the lock from the start
+     */
+    private Long pruneAll(Counter counter, IntSupplier batch) {
+        long total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status ->
+                    refreshTokenRepository.tryLockPruning() ? batch.getAsInt() : null);
+            if (deleted == null) return total == 0 ? null : total;
+
+            total += deleted;
+            counter.increment(deleted);
+            if (deleted < batchSize) return total;
+        }
+    }
+}
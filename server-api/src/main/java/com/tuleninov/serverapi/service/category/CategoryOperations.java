@@ -1,9 +1,11 @@
 package com.tuleninov.serverapi.service.category;
 
 import com.tuleninov.serverapi.model.category.request.SaveCategoryRequest;
+import com.tuleninov.serverapi.model.category.response.CategoryListSnapshot;
 import com.tuleninov.serverapi.model.category.response.CategoryResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +34,14 @@ public interface CategoryOperations {
      */
     Page<CategoryResponse> list(Pageable pageable);
 
+    /**
+     * Find a slice of categories from database in response format without counting all categories.
+     *
+     * @param pageable      abstract interface for pagination information
+     * @return              the categories from database in response format with the information about the next slice
+     */
+    Slice<CategoryResponse> slice(Pageable pageable);
+
     /**
      * Find all categories from database in response format.
      *
@@ -39,6 +49,13 @@ public interface CategoryOperations {
      */
     List<CategoryResponse> categoriesList();
 
+    /**
+     * Get all categories from database in response format with the entity tag of the list.
+     *
+     * @return              all categories from database in response format with the tag of the list
+     */
+    CategoryListSnapshot categoriesSnapshot();
+
     /**
      * Find the category by id from the database in response format.
      *
@@ -48,12 +65,13 @@ public interface CategoryOperations {
     Optional<CategoryResponse> findById(int id);
 
     /**
-     * Update the category in the database.
+     * Update the category in the database unless it has changed since the client read it.
      *
      * @param id            id of category
      * @param request       request with category parameters
+     * @param version       the version of the category the client read, or null to merge whatever version it has
      */
-    CategoryResponse mergeById(int id, SaveCategoryRequest request);
+    CategoryResponse mergeById(int id, SaveCategoryRequest request, Long version);
 
     /**
      * Delete the category in the database.
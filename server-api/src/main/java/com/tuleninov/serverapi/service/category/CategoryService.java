@@ -3,14 +3,30 @@ package com.tuleninov.serverapi.service.category;
 import com.tuleninov.serverapi.exceptions.category.CategoryExceptions;
 import com.tuleninov.serverapi.model.category.Category;
 import com.tuleninov.serverapi.model.category.request.SaveCategoryRequest;
+import com.tuleninov.serverapi.model.category.response.CategoryListSnapshot;
 import com.tuleninov.serverapi.model.category.response.CategoryResponse;
 import com.tuleninov.serverapi.repository.CategoryRepository;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.service.goods.GoodsFacetCounters;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import static com.tuleninov.serverapi.config.CacheConfig.GOODS_CACHE;
+import static com.tuleninov.serverapi.service.ConstraintViolations.constraintName;
+import static com.tuleninov.serverapi.service.TransactionCallbacks.afterCommit;
+
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -24,8 +40,34 @@ public class CategoryService implements CategoryOperations {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    private final GoodsRepository goodsRepository;
+
+    private final GoodsNameIndex goodsNameIndex;
+
+    private final GoodsFacetCounters goodsFacetCounters;
+
+    private final Cache goodsCache;
+
+    /**
+     * The list of all categories, built on the first read after a change.
+     */
+    private volatile CategoryListSnapshot listSnapshot;
+
+    /**
+     * The number of the committed changes of the categories, guarded by this service.
+     */
+    private long listGeneration;
+
+    public CategoryService(CategoryRepository categoryRepository,
+                           GoodsRepository goodsRepository,
+                           GoodsNameIndex goodsNameIndex,
+                           GoodsFacetCounters goodsFacetCounters,
+                           CacheManager cacheManager) {
         this.categoryRepository = categoryRepository;
+        this.goodsRepository = goodsRepository;
+        this.goodsNameIndex = goodsNameIndex;
+        this.goodsFacetCounters = goodsFacetCounters;
+        this.goodsCache = Objects.requireNonNull(cacheManager.getCache(GOODS_CACHE));
     }
 
     /**
@@ -37,7 +79,7 @@ public class CategoryService implements CategoryOperations {
     @Override
     @Transactional
     public CategoryResponse create(SaveCategoryRequest request) {
-        validateUniqueFields(request);
+        invalidateListSnapshot();
         return CategoryResponse.fromCategory(save(request));
     }
 
@@ -54,6 +96,19 @@ public class CategoryService implements CategoryOperations {
                 .map(CategoryResponse::fromCategory);
     }
 
+    /**
+     * Find a slice of categories from database in response format without counting all categories.
+     *
+     * @param pageable abstract interface for pagination information
+     * @return the categories from database in response format with the information about the next slice
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CategoryResponse> slice(Pageable pageable) {
+        return categoryRepository.findAllBy(pageable)
+                .map(CategoryResponse::fromCategory);
+    }
+
     /**
      * Find all categories from database in response format.
      *
@@ -62,10 +117,34 @@ public class CategoryService implements CategoryOperations {
     @Override
     @Transactional(readOnly = true)
     public List<CategoryResponse> categoriesList() {
-        return categoryRepository.findAll()
+        return categoriesSnapshot().categories();
+    }
+
+    /**
+     * Get the list of all categories with its entity tag.
+     * The list is read from the database only after the categories have changed.
+     *
+     * @return all categories in the order of their ids with the tag of the list
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CategoryListSnapshot categoriesSnapshot() {
+        CategoryListSnapshot snapshot = listSnapshot;
+        if (snapshot != null) return snapshot;
+
+        long generation;
+        synchronized (this) {
+            generation = listGeneration;
+        }
+        snapshot = CategoryListSnapshot.of(categoryRepository.findAll(Sort.by("id"))
                 .stream()
                 .map(CategoryResponse::fromCategory)
-                .toList();
+                .toList());
+        synchronized (this) {
+            // a change committed while the list was read makes this list stale, so it is served but not kept
+            if (generation == listGeneration) listSnapshot = snapshot;
+        }
+        return snapshot;
     }
 
     /**
@@ -82,17 +161,23 @@ public class CategoryService implements CategoryOperations {
     }
 
     /**
-     * Merge the category by id in the database.
+     * Merge the category by id in the database unless it has changed since the client read it.
      *
      * @param id      id of category
      * @param request request with category parameters
+     * @param version the version of the category the client read, or null to merge whatever version it has
      * @return the category that was merged in response format
      */
     @Override
     @Transactional
-    public CategoryResponse mergeById(int id, SaveCategoryRequest request) {
+    public CategoryResponse mergeById(int id, SaveCategoryRequest request, Long version) {
         Category category = getCategory(id);
-        return CategoryResponse.fromCategory(merge(category, request));
+        if (version != null && version != category.getVersion()) throw CategoryExceptions.versionConflict(id);
+
+        merge(category, request);
+        invalidateListSnapshot();
+        goodsFacetCounters.renameCategory(id, category.getName());
+        return CategoryResponse.fromCategory(category);
     }
 
     /**
@@ -106,21 +191,27 @@ public class CategoryService implements CategoryOperations {
     public Optional<CategoryResponse> deleteById(int id) {
         if (!categoryRepository.existsById(id)) throw CategoryExceptions.categoryNotFound(id);
 
+        // the database deletes the goods of the category in cascade, so drop their names and cache too
+        List<Integer> goodsIds = goodsRepository.findIdsByCategoryId(id);
+        goodsNameIndex.removeAll(goodsIds);
+        goodsIds.forEach(goodsCache::evict);
+        goodsFacetCounters.removeCategory(id);
         Optional<Category> category = categoryRepository.findById(id);
         category.ifPresent(categoryRepository::delete);
+        invalidateListSnapshot();
         return category.map(CategoryResponse::fromCategory);
     }
 
     /**
-     * Validate category`s fields.
-     *
-     * @param request request with category`s fields
+     * Drop the list of all categories after the current transaction commits.
      */
-    private void validateUniqueFields(SaveCategoryRequest request) {
-        String name = request.name();
-        if (categoryRepository.existsByName(name)) {
-            throw CategoryExceptions.duplicateName(name);
-        }
+    private void invalidateListSnapshot() {
+        afterCommit(() -> {
+            synchronized (this) {
+                listGeneration++;
+                listSnapshot = null;
+            }
+        });
     }
 
     /**
@@ -132,8 +223,27 @@ public class CategoryService implements CategoryOperations {
     private Category save(SaveCategoryRequest request) {
         var category = new Category();
         category.setName(request.name());
-        categoryRepository.save(category);
-        return category;
+        return saveAndFlush(category);
+    }
+
+    /**
+     * Write the category to the database at once, so a taken name is reported by its unique constraint
+     * and a concurrent change by the version within the same statement.
+     *
+     * @param category the category to write
+     * @return the written category
+     */
+    private Category saveAndFlush(Category category) {
+        try {
+            return categoryRepository.saveAndFlush(category);
+        } catch (DataIntegrityViolationException e) {
+            if ("categories_name_key".equals(constraintName(e))) {
+                throw CategoryExceptions.duplicateName(category.getName());
+            }
+            throw e;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw CategoryExceptions.versionConflict(category.getId());
+        }
     }
 
     /**
@@ -157,8 +267,11 @@ public class CategoryService implements CategoryOperations {
     private Category merge(Category category, SaveCategoryRequest request) {
         String name = request.name();
         if (name != null && !name.equals(category.getName())) {
-            if (categoryRepository.existsByName(name)) throw CategoryExceptions.duplicateName(name);
             category.setName(name);
+            category.setUpdatedAt(OffsetDateTime.now());
+            saveAndFlush(category);
+            // the cached goods carry the name of their category
+            goodsRepository.findIdsByCategoryId(category.getId()).forEach(goodsCache::evict);
         }
         return category;
     }
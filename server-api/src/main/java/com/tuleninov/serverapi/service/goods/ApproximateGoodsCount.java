@@ -0,0 +1,55 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cached approximate number of the goods for the pagers that show a page count.
+ * The value is taken from the planner statistics of Postgres and refreshed in the background,
+ * so reading it never scans the goods table.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class ApproximateGoodsCount {
+
+    private static final long UNKNOWN = -1;
+
+    private final GoodsRepository goodsRepository;
+
+    private volatile long count = UNKNOWN;
+
+    public ApproximateGoodsCount(GoodsRepository goodsRepository) {
+        this.goodsRepository = goodsRepository;
+    }
+
+    /**
+     * Get the approximate number of the goods.
+     *
+     * @return the cached number of the goods
+     */
+    public long get() {
+        long cached = count;
+        return cached == UNKNOWN ? refresh() : cached;
+    }
+
+    /**
+     * Read the number of the goods from the planner statistics again.
+     * Until the table has been analyzed the statistics are empty, then the goods are counted exactly
+     * only the first time, and the count is kept until autovacuum analyzes the table.
+     *
+     * @return the new number of the goods
+     */
+    @Scheduled(fixedDelayString = "${custom.catalog.approximate-count-refresh:PT1M}")
+    public synchronized long refresh() {
+        long estimate = goodsRepository.estimateCount();
+        if (estimate >= 0) {
+            count = estimate;
+        } else if (count == UNKNOWN) {
+            count = goodsRepository.count();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,167 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.tuleninov.serverapi.exceptions.goods.GoodsExceptions;
+import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reader of the goods from CSV as described in RFC 4180.
+ * The first line names the columns, which are the fields of the goods request in any order and case.
+ * A field in double quotes may hold commas, line breaks and doubled double quotes.
+ */
+final class CsvGoodsImportReader implements GoodsImportReader {
+
+    private static final List<String> COLUMNS =
+            List.of("name", "categoryId", "price", "weight", "description", "imageName");
+
+    private final BufferedReader reader;
+
+    /**
+     * The position of every column of {@link #COLUMNS} in a record.
+     */
+    private final int[] positions;
+    private int headerSize;
+    private long line;
+
+    CsvGoodsImportReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        this.positions = readHeader();
+    }
+
+    /**
+     * Read the header and find the positions of the columns.
+     *
+     * @return the positions of the columns, or null if the body is empty
+     */
+    private int[] readHeader() throws IOException {
+        Record header = readRecord();
+        if (header == null) return null;
+        if (header.error() != null) throw GoodsExceptions.invalidImport("the CSV header " + header.error());
+
+        Map<String, Integer> byName = new HashMap<>();
+        List<String> fields = header.fields();
+        for (int i = 0; i < fields.size(); i++) {
+            byName.put(fields.get(i).strip().toLowerCase(Locale.ROOT), i);
+        }
+        headerSize = fields.size();
+
+        var found = new int[COLUMNS.size()];
+        var missing = new ArrayList<String>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Integer position = byName.get(COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (position == null) missing.add(COLUMNS.get(i));
+            else found[i] = position;
+        }
+        if (!missing.isEmpty()) throw GoodsExceptions.invalidImport("the CSV header has no columns " + missing);
+        return found;
+    }
+
+    @Override
+    public GoodsImportRow next() throws IOException {
+        if (positions == null) return null;
+
+        while (true) {
+            long start = line + 1;
+            Record record = readRecord();
+            if (record == null) return null;
+            if (record.error() != null) return GoodsImportRow.failed(start, "the record " + record.error());
+
+            List<String> fields = record.fields();
+            if (fields.size() == 1 && fields.get(0).isEmpty()) continue;
+            if (fields.size() != headerSize) {
+                return GoodsImportRow.failed(start,
+                        "the record has " + fields.size() + " fields, the header has " + headerSize);
+            }
+            return toRow(start, fields);
+        }
+    }
+
+    private GoodsImportRow toRow(long start, List<String> fields) {
+        String categoryId = field(fields, 1);
+        String price = field(fields, 2);
+        String weight = field(fields, 3);
+        try {
+            return GoodsImportRow.of(start, new SaveGoodsRequest(
+                    field(fields, 0),
+                    Integer.parseInt(categoryId.strip()),
+                    Double.parseDouble(price.strip()),
+                    Integer.parseInt(weight.strip()),
+                    field(fields, 4),
+                    field(fields, 5)));
+        } catch (NumberFormatException e) {
+            return GoodsImportRow.failed(start, "the record has a number that is not valid: categoryId '"
+                    + categoryId + "', price '" + price + "', weight '" + weight + "'");
+        }
+    }
+
+    private String field(List<String> fields, int column) {
+        return fields.get(positions[column]);
+    }
+
+    /**
+     * Read the fields of the next record.
+     *
+     * @return the record, or null at the end of the body
+     */
+    private Record readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    return new Record(fields, "has a quoted field that is not closed");
+                } else if (c == '"') {
+                    c = reader.read();
+                    if (c == '"') {
+                        field.append('"');
+                        c = reader.read();
+                    } else {
+                        quoted = false;
+                    }
+                    continue;
+                }
+                if (c == '\n') line++;
+                field.append((char) c);
+            } else if (c == -1 || c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return new Record(fields, null);
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * The fields of a record, or the reason why the record could not be read.
+     */
+    private record Record(List<String> fields, String error) {
+    }
+}
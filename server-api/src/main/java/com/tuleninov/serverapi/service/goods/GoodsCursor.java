@@ -0,0 +1,73 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.tuleninov.serverapi.model.goods.GoodsScrollOrder;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last goods of a keyset page: the sort order, the value of the sort key and the id.
+ * Clients receive it as an opaque URL-safe string and send it back to get the next page.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+record GoodsCursor(GoodsScrollOrder order, String key, int id) {
+
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * Create the cursor that points to the given goods.
+     * The price of the response is a double that may differ from the numeric column,
+     * so the orders by price take the exact price of the goods instead.
+     *
+     * @param order the sort order of the page
+     * @param goods the last goods of the page
+     * @param price the exact price of the goods, needed only for the orders by price
+     * @return the cursor after the goods
+     */
+    static GoodsCursor after(GoodsScrollOrder order, GoodsResponse goods, BigDecimal price) {
+        String key = switch (order) {
+            case ID -> "";
+            case NAME -> goods.name();
+            case PRICE, PRICE_DESC -> price.toPlainString();
+        };
+        return new GoodsCursor(order, key, goods.id());
+    }
+
+    /**
+     * Decode the cursor from its opaque representation.
+     *
+     * @param value the encoded cursor
+     * @return the cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    static GoodsCursor decode(String value) {
+        String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int orderEnd = decoded.indexOf(SEPARATOR);
+        int idEnd = decoded.indexOf(SEPARATOR, orderEnd + 1);
+        if (orderEnd < 0 || idEnd < 0) throw new IllegalArgumentException("Malformed cursor");
+
+        var order = GoodsScrollOrder.valueOf(decoded.substring(0, orderEnd));
+        int id = Integer.parseInt(decoded.substring(orderEnd + 1, idEnd));
+        String key = decoded.substring(idEnd + 1);
+        if (order == GoodsScrollOrder.PRICE || order == GoodsScrollOrder.PRICE_DESC) {
+            // the key is bound into SQL as numeric, so reject anything else here
+            new BigDecimal(key);
+        }
+        return new GoodsCursor(order, key, id);
+    }
+
+    /**
+     * Encode the cursor to its opaque representation.
+     *
+     * @return the encoded cursor
+     */
+    String encode() {
+        String value = order.name() + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
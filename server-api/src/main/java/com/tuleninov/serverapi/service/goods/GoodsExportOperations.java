@@ -0,0 +1,25 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Interface for the bulk export of Goods.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface GoodsExportOperations {
+
+    /**
+     * Write all goods with the names of their categories as they are at the start of the export.
+     * The body can be imported back in the same format.
+     *
+     * @param format        the format of the body
+     * @param body          the stream to write the body to in UTF-8
+     * @throws IOException  if the body cannot be written
+     */
+    void exportGoods(GoodsDataFormat format, OutputStream body) throws IOException;
+}
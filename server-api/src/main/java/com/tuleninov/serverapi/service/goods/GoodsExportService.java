@@ -0,0 +1,120 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service class for the bulk export of Goods.
+ * The goods are written while they are read from the database cursor, so the memory stays flat
+ * whatever the size of the catalog. The whole export reads one snapshot of the database,
+ * so the goods changed during a long export are exported as they were at its start.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Service
+public class GoodsExportService implements GoodsExportOperations {
+
+    private static final Logger log = LoggerFactory.getLogger(GoodsExportService.class);
+
+    /**
+     * The CSV columns, the import takes the goods fields among them by name.
+     */
+    private static final String CSV_HEADER = "id,name,categoryId,categoryName,price,weight,description,imageName";
+
+    private final GoodsRepository goodsRepository;
+
+    private final ObjectWriter objectWriter;
+
+    public GoodsExportService(GoodsRepository goodsRepository, ObjectMapper objectMapper) {
+        this.goodsRepository = goodsRepository;
+        this.objectWriter = objectMapper.writerFor(GoodsResponse.class);
+    }
+
+    /**
+     * Write all goods with the names of their categories as they are at the start of the export.
+     *
+     * @param format the format of the body
+     * @param body   the stream to write the body to in UTF-8
+     * @throws IOException if the body cannot be written
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportGoods(GoodsDataFormat format, OutputStream body) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+        if (format == GoodsDataFormat.CSV) writer.write(CSV_HEADER + "\r\n");
+
+        long count = 0;
+        try (Stream<GoodsResponse> goods = goodsRepository.streamAllResponses()) {
+            Iterator<GoodsResponse> iterator = goods.iterator();
+            while (iterator.hasNext()) {
+                GoodsResponse entry = iterator.next();
+                switch (format) {
+                    case NDJSON -> writeJson(writer, entry);
+                    case CSV -> writeCsv(writer, entry);
+                }
+                count++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Goods export has written {} goods.", count);
+    }
+
+    private void writeJson(Writer writer, GoodsResponse goods) throws IOException {
+        writer.write(objectWriter.writeValueAsString(goods));
+        writer.write('\n');
+    }
+
+    private static void writeCsv(Writer writer, GoodsResponse goods) throws IOException {
+        writer.write(Integer.toString(goods.id()));
+        writer.write(',');
+        writeCsvField(writer, goods.name());
+        writer.write(',');
+        writer.write(Integer.toString(goods.categoryId()));
+        writer.write(',');
+        writeCsvField(writer, goods.categoryName());
+        writer.write(',');
+        writer.write(Double.toString(goods.price()));
+        writer.write(',');
+        writer.write(Integer.toString(goods.weight()));
+        writer.write(',');
+        writeCsvField(writer, goods.description());
+        writer.write(',');
+        writeCsvField(writer, goods.imageName());
+        writer.write("\r\n");
+    }
+
+    /**
+     * Write the text field, in double quotes if it has a comma, a double quote or a line break.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) return;
+        if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,276 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.tuleninov.serverapi.model.goods.GoodsFacetCount;
+import com.tuleninov.serverapi.model.goods.GoodsPriceBuckets;
+import com.tuleninov.serverapi.model.goods.response.GoodsCategoryFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsPriceFacet;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tuleninov.serverapi.service.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory numbers of all goods by category and by price bucket for the facets of the catalog index page.
+ * Every change of the goods moves the counters after its transaction commits, so reading the facets
+ * never queries the database. The counters are rebuilt from the database in the background
+ * to repair any drift, for example after the goods were changed by another instance of the server.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class GoodsFacetCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(GoodsFacetCounters.class);
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final GoodsRepository goodsRepository;
+
+    private volatile Snapshot snapshot = Snapshot.of(Map.of());
+
+    /**
+     * The number of the changes applied to the counters, guarded by this object.
+     */
+    private long generation;
+
+    public GoodsFacetCounters(GoodsRepository goodsRepository) {
+        this.goodsRepository = goodsRepository;
+    }
+
+    /**
+     * Build the counters from the database when the application starts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild the counters from the database.
+     * A count that raced with a change of the goods may already hold that change or not,
+     * so it is thrown away and taken again.
+     */
+    @Scheduled(initialDelayString = "${custom.catalog.facet-counters-reconcile:PT10M}",
+            fixedDelayString = "${custom.catalog.facet-counters-reconcile:PT10M}")
+    public void reconcile() {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long started;
+            synchronized (this) {
+                started = generation;
+            }
+            List<GoodsFacetCount> counts = goodsRepository.countByCategoryAndPriceBucket();
+
+            Map<Integer, CategoryCounts> categories = new HashMap<>();
+            for (GoodsFacetCount count : counts) {
+                categories.computeIfAbsent(count.categoryId(), id -> new CategoryCounts(count.categoryName()))
+                        .byBucket[count.bucket()] = count.count();
+            }
+            Snapshot counted = Snapshot.of(categories);
+            synchronized (this) {
+                if (generation != started) continue;
+
+                if (!counted.facets.equals(snapshot.facets)) {
+                    log.info("Goods facet counters have been reconciled with the database: {}", counted.facets);
+                }
+                generation++;
+                snapshot = counted;
+                return;
+            }
+        }
+        log.info("Goods facet counters were changed during every reconciliation attempt, they are kept as is.");
+    }
+
+    /**
+     * Get the numbers of all goods by category and by price bucket.
+     *
+     * @return the facets without the categories and the buckets that have no goods
+     */
+    public GoodsFacetsResponse facets() {
+        return snapshot.facets;
+    }
+
+    /**
+     * Count the new goods.
+     *
+     * @param goods the category and the price of every new goods
+     */
+    public void addAll(Collection<Entry> goods) {
+        if (goods.isEmpty()) return;
+
+        afterCommit(() -> apply(List.of(), goods));
+    }
+
+    /**
+     * Count the new goods.
+     *
+     * @param goods the category and the price of the goods
+     */
+    public void add(Entry goods) {
+        afterCommit(() -> apply(List.of(), List.of(goods)));
+    }
+
+    /**
+     * Move the changed goods from its old category and price bucket to the new ones.
+     *
+     * @param before the category and the price of the goods before the change
+     * @param after  the category and the price of the goods after the change
+     */
+    public void replace(Entry before, Entry after) {
+        if (before.equals(after)) return;
+
+        afterCommit(() -> apply(List.of(before), List.of(after)));
+    }
+
+    /**
+     * Stop counting the removed goods.
+     *
+     * @param goods the category and the price of the goods
+     */
+    public void remove(Entry goods) {
+        afterCommit(() -> apply(List.of(goods), List.of()));
+    }
+
+    /**
+     * Change the name of the category shown with its facet.
+     *
+     * @param categoryId   the id of the category
+     * @param categoryName the new name of the category
+     */
+    public void renameCategory(int categoryId, String categoryName) {
+        afterCommit(() -> {
+            synchronized (this) {
+                CategoryCounts current = snapshot.categories.get(categoryId);
+                if (current == null) return;
+
+                Map<Integer, CategoryCounts> categories = new HashMap<>(snapshot.categories);
+                categories.put(categoryId, current.renamed(categoryName));
+                install(categories);
+            }
+        });
+    }
+
+    /**
+     * Stop counting the category together with all its goods.
+     *
+     * @param categoryId the id of the category
+     */
+    public void removeCategory(int categoryId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (!snapshot.categories.containsKey(categoryId)) return;
+
+                Map<Integer, CategoryCounts> categories = new HashMap<>(snapshot.categories);
+                categories.remove(categoryId);
+                install(categories);
+            }
+        });
+    }
+
+    private synchronized void apply(Collection<Entry> removed, Collection<Entry> added) {
+        Map<Integer, CategoryCounts> categories = new HashMap<>(snapshot.categories);
+        // every changed category is copied once, so the published snapshot is never modified
+        Map<Integer, CategoryCounts> copied = new HashMap<>();
+        for (Entry goods : removed) {
+            CategoryCounts counts = copied.computeIfAbsent(goods.categoryId(), id -> {
+                CategoryCounts current = categories.get(id);
+                return current == null ? null : current.copy();
+            });
+            if (counts == null) continue;
+
+            int bucket = GoodsPriceBuckets.of(goods.price());
+            counts.byBucket[bucket] = Math.max(0, counts.byBucket[bucket] - 1);
+        }
+        for (Entry goods : added) {
+            CategoryCounts counts = copied.computeIfAbsent(goods.categoryId(), id -> {
+                CategoryCounts current = categories.get(id);
+                return current == null ? new CategoryCounts(goods.categoryName()) : current.copy();
+            });
+            counts.byBucket[GoodsPriceBuckets.of(goods.price())]++;
+        }
+        categories.putAll(copied);
+        install(categories);
+    }
+
+    private void install(Map<Integer, CategoryCounts> categories) {
+        generation++;
+        snapshot = Snapshot.of(categories);
+    }
+
+    /**
+     * The category and the price of a goods, the name of the category is needed only for the added goods.
+     */
+    public record Entry(int categoryId, String categoryName, double price) {
+    }
+
+    /**
+     * The numbers of the goods of a category by price bucket.
+     */
+    private static final class CategoryCounts {
+
+        private final String name;
+        private final long[] byBucket;
+
+        private CategoryCounts(String name) {
+            this(name, new long[GoodsPriceBuckets.COUNT]);
+        }
+
+        private CategoryCounts(String name, long[] byBucket) {
+            this.name = name;
+            this.byBucket = byBucket;
+        }
+
+        private CategoryCounts copy() {
+            return new CategoryCounts(name, byBucket.clone());
+        }
+
+        private CategoryCounts renamed(String newName) {
+            return new CategoryCounts(newName, byBucket);
+        }
+
+        private long total() {
+            long total = 0;
+            for (long count : byBucket) total += count;
+            return total;
+        }
+    }
+
+    /**
+     * Immutable counters with the facets built from them, so that reading the facets costs nothing.
+     */
+    private record Snapshot(Map<Integer, CategoryCounts> categories, GoodsFacetsResponse facets) {
+
+        private static Snapshot of(Map<Integer, CategoryCounts> categories) {
+            var categoryFacets = new ArrayList<GoodsCategoryFacet>();
+            var byBucket = new long[GoodsPriceBuckets.COUNT];
+            categories.forEach((id, counts) -> {
+                long total = counts.total();
+                if (total > 0) categoryFacets.add(new GoodsCategoryFacet(id, counts.name, total));
+                for (int bucket = 0; bucket < byBucket.length; bucket++) {
+                    byBucket[bucket] += counts.byBucket[bucket];
+                }
+            });
+            categoryFacets.sort(Comparator.comparing(GoodsCategoryFacet::categoryName)
+                    .thenComparingInt(GoodsCategoryFacet::categoryId));
+
+            var priceFacets = new ArrayList<GoodsPriceFacet>();
+            for (int bucket = 0; bucket < byBucket.length; bucket++) {
+                if (byBucket[bucket] > 0) priceFacets.add(GoodsPriceFacet.of(bucket, byBucket[bucket]));
+            }
+            return new Snapshot(categories, new GoodsFacetsResponse(List.copyOf(categoryFacets), List.copyOf(priceFacets)));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+import com.tuleninov.serverapi.model.goods.response.GoodsImportResponse;
+
+import java.io.InputStream;
+
+/**
+ * Interface for the bulk import of Goods.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface GoodsImportOperations {
+
+    /**
+     * Import the goods from the body while it is being read.
+     * The goods that are not valid or already taken are reported and do not stop the import.
+     *
+     * @param format        the format of the body
+     * @param body          the body with the goods requests in UTF-8
+     * @return              the numbers of the imported and the failed goods with the reasons of the failures
+     */
+    GoodsImportResponse importGoods(GoodsDataFormat format, InputStream body);
+}
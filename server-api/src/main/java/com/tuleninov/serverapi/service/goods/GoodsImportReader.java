@@ -0,0 +1,52 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader of the goods from the body of the bulk import, one goods at a time,
+ * so that the body is never held in memory as a whole.
+ */
+interface GoodsImportReader extends Closeable {
+
+    /**
+     * Read the next goods.
+     * A goods that cannot be read is returned with the error, and the reading goes on with the next one.
+     *
+     * @return the next goods, or null at the end of the body
+     * @throws IOException if the body cannot be read
+     */
+    GoodsImportRow next() throws IOException;
+
+    /**
+     * Get the number of the lines read so far.
+     *
+     * @return the number of the last line that was read
+     */
+    long line();
+
+    /**
+     * Open the reader of the body in the format.
+     *
+     * @param format       the format of the body
+     * @param body         the body in UTF-8
+     * @param objectMapper the mapper of the JSON rows
+     * @return the reader of the goods
+     * @throws IOException if the body cannot be read
+     */
+    static GoodsImportReader open(GoodsDataFormat format, InputStream body, ObjectMapper objectMapper)
+            throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return switch (format) {
+            case NDJSON -> new NdjsonGoodsImportReader(reader, objectMapper);
+            case CSV -> new CsvGoodsImportReader(reader);
+        };
+    }
+}
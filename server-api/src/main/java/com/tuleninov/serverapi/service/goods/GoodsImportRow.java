@@ -0,0 +1,23 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+
+/**
+ * Record for a goods read from the body of the bulk import.
+ *
+ * @param line    the line of the body where the goods starts
+ * @param request the goods, null if it could not be read
+ * @param error   the reason why the goods could not be read, null if it was read
+ */
+record GoodsImportRow(long line,
+                      SaveGoodsRequest request,
+                      String error) {
+
+    static GoodsImportRow of(long line, SaveGoodsRequest request) {
+        return new GoodsImportRow(line, request, null);
+    }
+
+    static GoodsImportRow failed(long line, String error) {
+        return new GoodsImportRow(line, null, error);
+    }
+}
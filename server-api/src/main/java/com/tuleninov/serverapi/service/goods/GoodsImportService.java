@@ -0,0 +1,259 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuleninov.serverapi.exceptions.category.CategoryExceptions;
+import com.tuleninov.serverapi.exceptions.goods.GoodsExceptions;
+import com.tuleninov.serverapi.model.category.response.CategoryResponse;
+import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+import com.tuleninov.serverapi.model.goods.response.GoodsImportError;
+import com.tuleninov.serverapi.model.goods.response.GoodsImportResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
+import com.tuleninov.serverapi.repository.CategoryRepository;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for the bulk import of Goods.
+ * The goods are read from the body in chunks. Every chunk is checked with one query per unique column
+ * instead of one query per goods, and is saved in its own transaction with batched inserts,
+ * so a chunk that fails does not roll back the chunks before it. The chunks that have been saved
+ * are seen by the checks of the next ones, so the goods repeated in the body are found too.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Service
+public class GoodsImportService implements GoodsImportOperations {
+
+    private static final Logger log = LoggerFactory.getLogger(GoodsImportService.class);
+
+    /**
+     * The number of the goods checked and saved together.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * The number of the failures reported with their reasons, the rest are only counted.
+     */
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final GoodsRepository goodsRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final GoodsNameIndex goodsNameIndex;
+
+    private final GoodsFacetCounters goodsFacetCounters;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public GoodsImportService(GoodsRepository goodsRepository,
+                              CategoryRepository categoryRepository,
+                              GoodsNameIndex goodsNameIndex,
+                              GoodsFacetCounters goodsFacetCounters,
+                              ObjectMapper objectMapper,
+                              Validator validator,
+                              PlatformTransactionManager transactionManager) {
+        this.goodsRepository = goodsRepository;
+        this.categoryRepository = categoryRepository;
+        this.goodsNameIndex = goodsNameIndex;
+        this.goodsFacetCounters = goodsFacetCounters;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import the goods from the body while it is being read.
+     *
+     * @param format the format of the body
+     * @param body   the body with the goods requests in UTF-8
+     * @return the numbers of the imported and the failed goods with the reasons of the failures
+     */
+    @Override
+    public GoodsImportResponse importGoods(GoodsDataFormat format, InputStream body) {
+        var report = new Report();
+        try (GoodsImportReader reader = openReader(format, body)) {
+            var chunk = new ArrayList<GoodsImportRow>(CHUNK_SIZE);
+            try {
+                GoodsImportRow row;
+                while ((row = reader.next()) != null) {
+                    chunk.add(row);
+                    if (chunk.size() < CHUNK_SIZE) continue;
+
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            } catch (IOException e) {
+                // the goods saved so far stay saved, so report where the body broke instead of failing the request
+                report.fail(reader.line() + 1, "the rest of the body could not be read: " + e.getMessage());
+            }
+            importChunk(chunk, report);
+        } catch (IOException e) {
+            log.warn("Goods import body could not be closed.", e);
+        } finally {
+            goodsNameIndex.putAll(report.names);
+        }
+        log.info("Goods import has saved {} goods, {} goods failed.", report.names.size(), report.failed);
+        return report.toResponse();
+    }
+
+    private GoodsImportReader openReader(GoodsDataFormat format, InputStream body) {
+        try {
+            return GoodsImportReader.open(format, body, objectMapper);
+        } catch (IOException e) {
+            throw GoodsExceptions.invalidImport("the body could not be read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check the chunk of goods and save the goods that pass the checks.
+     *
+     * @param rows   the goods read from the body
+     * @param report the report of the import
+     */
+    private void importChunk(List<GoodsImportRow> rows, Report report) {
+        List<GoodsImportRow> valid = new ArrayList<>(rows.size());
+        for (GoodsImportRow row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) report.fail(row.line(), error);
+            else valid.add(row);
+        }
+        if (valid.isEmpty()) return;
+
+        Map<Integer, String> categoryNames = categoryRepository.findResponsesByIdIn(collect(valid, SaveGoodsRequest::categoryId))
+                .stream().collect(Collectors.toMap(CategoryResponse::id, CategoryResponse::name));
+        Set<String> names = new HashSet<>(goodsRepository.findNamesIn(collect(valid, SaveGoodsRequest::name)));
+        Set<String> descriptions = new HashSet<>(goodsRepository.findDescriptionsIn(collect(valid, SaveGoodsRequest::description)));
+        Set<String> imageNames = new HashSet<>(goodsRepository.findImageNamesIn(collect(valid, SaveGoodsRequest::imageName)));
+
+        List<GoodsImportRow> accepted = new ArrayList<>(valid.size());
+        for (GoodsImportRow row : valid) {
+            SaveGoodsRequest request = row.request();
+            String error;
+            if (!categoryNames.containsKey(request.categoryId())) {
+                error = CategoryExceptions.categoryNotFound(request.categoryId()).getReason();
+            } else if (names.contains(request.name())) {
+                error = GoodsExceptions.duplicateName(request.name()).getReason();
+            } else if (descriptions.contains(request.description())) {
+                error = GoodsExceptions.duplicateDescription(request.description()).getReason();
+            } else if (imageNames.contains(request.imageName())) {
+                error = GoodsExceptions.duplicateImageName(request.imageName()).getReason();
+            } else {
+                // the later goods of the chunk with the same values are duplicates of this one
+                names.add(request.name());
+                descriptions.add(request.description());
+                imageNames.add(request.imageName());
+                accepted.add(row);
+                continue;
+            }
+            report.fail(row.line(), error);
+        }
+        if (accepted.isEmpty()) return;
+
+        try {
+            List<Goods> saved = transactionTemplate.execute(status -> save(accepted, categoryNames));
+            saved.forEach(goods -> report.names.add(new GoodsSuggestResponse(goods.getId(), goods.getName())));
+        } catch (DataIntegrityViolationException e) {
+            // goods with the same values were saved by someone else after the checks of the chunk
+            log.warn("Goods import chunk conflicts with concurrent changes.", e);
+            accepted.forEach(row -> report.fail(row.line(), "the goods conflicts with goods saved at the same time"));
+        }
+    }
+
+    /**
+     * Validate the goods request like the request body of a single goods.
+     *
+     * @param request the goods request
+     * @return the reasons why the goods is not valid, or null if it is valid
+     */
+    private String validate(SaveGoodsRequest request) {
+        Set<ConstraintViolation<SaveGoodsRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        // the column is not nullable, but the single goods request does not check it either
+        return request.imageName() == null ? "the image name of goods is mandatory" : null;
+    }
+
+    /**
+     * Save the goods, the inserts are sent in batches when the transaction commits.
+     *
+     * @param rows          the checked goods
+     * @param categoryNames the names of the categories of the goods by id
+     * @return the saved goods
+     */
+    private List<Goods> save(List<GoodsImportRow> rows, Map<Integer, String> categoryNames) {
+        var goods = new ArrayList<Goods>(rows.size());
+        var facets = new ArrayList<GoodsFacetCounters.Entry>(rows.size());
+        for (GoodsImportRow row : rows) {
+            SaveGoodsRequest request = row.request();
+            var entry = new Goods();
+            entry.setName(request.name());
+            entry.setCategory(categoryRepository.getReferenceById(request.categoryId()));
+            entry.setPrice(request.price());
+            entry.setWeight(request.weight());
+            entry.setDescription(request.description());
+            entry.setImageName(request.imageName());
+            goods.add(entry);
+            facets.add(new GoodsFacetCounters.Entry(
+                    request.categoryId(), categoryNames.get(request.categoryId()), request.price()));
+        }
+        goodsFacetCounters.addAll(facets);
+        return goodsRepository.saveAll(goods);
+    }
+
+    private static <T> Set<T> collect(List<GoodsImportRow> rows, Function<SaveGoodsRequest, T> field) {
+        return rows.stream()
+                .map(row -> field.apply(row.request()))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * The progress of the import.
+     */
+    private static final class Report {
+
+        private final List<GoodsSuggestResponse> names = new ArrayList<>();
+        private final List<GoodsImportError> errors = new ArrayList<>();
+        private int failed;
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new GoodsImportError(line, message));
+        }
+
+        private GoodsImportResponse toResponse() {
+            // the checks of a chunk find the failures out of order
+            errors.sort(Comparator.comparingLong(GoodsImportError::line));
+            return new GoodsImportResponse(names.size(), failed, errors);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static com.tuleninov.serverapi.service.TransactionCallbacks.afterCommit;
+
+/**
+ * In-memory prefix index of the goods names for the suggestions while the user types.
+ * The normalized names are kept in a sorted array, so a lookup is a binary search followed by a short scan
+ * and allocates nothing but the result list. Writers replace the whole snapshot, so readers never lock.
+ * Changes made inside a transaction are applied only after it commits.
+ * The changes that come while the index is loaded are applied once more on top of the loaded names,
+ * so a change that committed after the names were read is never lost.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class GoodsNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GoodsNameIndex.class);
+
+    private final GoodsRepository goodsRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * The changes applied while the index is loaded, guarded by this object; null when it is not loaded.
+     */
+    private List<Runnable> changesWhileLoading;
+
+    public GoodsNameIndex(GoodsRepository goodsRepository) {
+        this.goodsRepository = goodsRepository;
+    }
+
+    /**
+     * Build the index from all goods in the database when the application starts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            changesWhileLoading = new ArrayList<>();
+        }
+        try {
+            List<GoodsSuggestResponse> names = goodsRepository.findAllNames();
+            synchronized (this) {
+                List<Runnable> changes = changesWhileLoading;
+                changesWhileLoading = null;
+                replaceAll(names);
+                // the names may already hold some of the changes, applying them again changes nothing
+                changes.forEach(Runnable::run);
+            }
+            log.info("Goods name index has been built from {} goods.", names.size());
+        } finally {
+            synchronized (this) {
+                changesWhileLoading = null;
+            }
+        }
+    }
+
+    /**
+     * Replace the content of the index.
+     *
+     * @param names the id and the name of every goods
+     */
+    public synchronized void replaceAll(Collection<GoodsSuggestResponse> names) {
+        snapshot = Snapshot.of(names.toArray(GoodsSuggestResponse[]::new));
+    }
+
+    /**
+     * Add the goods to the index or change its name.
+     *
+     * @param id   the id of the goods
+     * @param name the name of the goods
+     */
+    public void put(int id, String name) {
+        afterCommit(() -> doPut(id, name));
+    }
+
+    /**
+     * Add many goods to the index at once or change their names.
+     * The index is copied once for all of them, which makes it much cheaper than putting them one by one.
+     *
+     * @param goods the id and the name of every goods
+     */
+    public void putAll(Collection<GoodsSuggestResponse> goods) {
+        if (goods.isEmpty()) return;
+
+        afterCommit(() -> doPutAll(goods));
+    }
+
+    /**
+     * Remove the goods from the index.
+     *
+     * @param ids the ids of the goods
+     */
+    public void removeAll(Collection<Integer> ids) {
+        if (ids.isEmpty()) return;
+
+        afterCommit(() -> doRemoveAll(ids));
+    }
+
+    private synchronized void doPut(int id, String name) {
+        recordWhileLoading(() -> doPut(id, name));
+        Snapshot current = snapshot.without(id);
+        String key = normalize(name);
+        int position = current.positionOf(key, id);
+
+        int length = current.keys.length;
+        var entries = new GoodsSuggestResponse[length + 1];
+        var keys = new String[length + 1];
+        System.arraycopy(current.entries, 0, entries, 0, position);
+        System.arraycopy(current.keys, 0, keys, 0, position);
+        entries[position] = new GoodsSuggestResponse(id, name);
+        keys[position] = key;
+        System.arraycopy(current.entries, position, entries, position + 1, length - position);
+        System.arraycopy(current.keys, position, keys, position + 1, length - position);
+        snapshot = new Snapshot(entries, keys);
+    }
+
+    private synchronized void doPutAll(Collection<GoodsSuggestResponse> goods) {
+        recordWhileLoading(() -> doPutAll(goods));
+        Set<Integer> ids = new HashSet<>();
+        goods.forEach(entry -> ids.add(entry.id()));
+        Snapshot current = snapshot;
+        Snapshot added = Snapshot.of(goods.toArray(GoodsSuggestResponse[]::new));
+
+        // merge the sorted new entries into the sorted current ones, leaving out the old names of the same goods
+        int length = current.keys.length + added.keys.length;
+        var entries = new ArrayList<GoodsSuggestResponse>(length);
+        var keys = new ArrayList<String>(length);
+        int i = 0;
+        int j = 0;
+        while (i < current.keys.length || j < added.keys.length) {
+            if (i < current.keys.length && ids.contains(current.entries[i].id())) {
+                i++;
+            } else if (j == added.keys.length
+                    || i < current.keys.length && compare(current, i, added, j) < 0) {
+                entries.add(current.entries[i]);
+                keys.add(current.keys[i++]);
+            } else {
+                entries.add(added.entries[j]);
+                keys.add(added.keys[j++]);
+            }
+        }
+        snapshot = new Snapshot(entries.toArray(GoodsSuggestResponse[]::new), keys.toArray(String[]::new));
+    }
+
+    private void recordWhileLoading(Runnable change) {
+        if (changesWhileLoading != null) changesWhileLoading.add(change);
+    }
+
+    private static int compare(Snapshot first, int i, Snapshot second, int j) {
+        int byKey = first.keys[i].compareTo(second.keys[j]);
+        return byKey != 0 ? byKey : Integer.compare(first.entries[i].id(), second.entries[j].id());
+    }
+
+    private synchronized void doRemoveAll(Collection<Integer> ids) {
+        recordWhileLoading(() -> doRemoveAll(ids));
+        Set<Integer> removed = new HashSet<>(ids);
+        Snapshot current = snapshot;
+        var entries = new ArrayList<GoodsSuggestResponse>(current.entries.length);
+        var keys = new ArrayList<String>(current.keys.length);
+        for (int i = 0; i < current.entries.length; i++) {
+            if (removed.contains(current.entries[i].id())) continue;
+            entries.add(current.entries[i]);
+            keys.add(current.keys[i]);
+        }
+        snapshot = new Snapshot(entries.toArray(GoodsSuggestResponse[]::new), keys.toArray(String[]::new));
+    }
+
+    /**
+     * Find the goods whose names start with the prefix, ignoring the case, in the order of the names.
+     *
+     * @param prefix the beginning of the name
+     * @param limit  the maximum number of the goods
+     * @return the goods with the matching names
+     */
+    public List<GoodsSuggestResponse> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) return List.of();
+
+        Snapshot current = snapshot;
+        String[] keys = current.keys;
+        int from = lowerBound(keys, key);
+        int to = Math.min(keys.length, from + limit);
+
+        var found = new ArrayList<GoodsSuggestResponse>(Math.max(0, to - from));
+        for (int i = from; i < to && keys[i].startsWith(key); i++) {
+            found.add(current.entries[i]);
+        }
+        return found;
+    }
+
+    /**
+     * Get the number of the goods in the index.
+     *
+     * @return the number of the goods
+     */
+    public int size() {
+        return snapshot.keys.length;
+    }
+
+    /**
+     * Find the first position whose key is not less than the given one.
+     */
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    static String normalize(String name) {
+        return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable sorted content of the index: the entries and their normalized names at the same positions.
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(new GoodsSuggestResponse[0], new String[0]);
+
+        private final GoodsSuggestResponse[] entries;
+        private final String[] keys;
+
+        private Snapshot(GoodsSuggestResponse[] entries, String[] keys) {
+            this.entries = entries;
+            this.keys = keys;
+        }
+
+        private static Snapshot of(GoodsSuggestResponse[] entries) {
+            // normalize every name once instead of in every comparison
+            Keyed[] keyed = new Keyed[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                keyed[i] = new Keyed(normalize(entries[i].name()), entries[i]);
+            }
+            Arrays.sort(keyed, Comparator.comparing(Keyed::key)
+                    .thenComparingInt(entry -> entry.entry().id()));
+
+            var sortedEntries = new GoodsSuggestResponse[keyed.length];
+            var keys = new String[keyed.length];
+            for (int i = 0; i < keyed.length; i++) {
+                sortedEntries[i] = keyed[i].entry();
+                keys[i] = keyed[i].key();
+            }
+            return new Snapshot(sortedEntries, keys);
+        }
+
+        /**
+         * Find the position of the entry with the given id, or the position where it belongs.
+         */
+        private int positionOf(String key, int id) {
+            int position = lowerBound(keys, key);
+            while (position < keys.length && keys[position].equals(key) && entries[position].id() < id) {
+                position++;
+            }
+            return position;
+        }
+
+        /**
+         * Get the snapshot without the entry with the given id.
+         */
+        private Snapshot without(int id) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].id() != id) continue;
+
+                var restEntries = new GoodsSuggestResponse[entries.length - 1];
+                var restKeys = new String[keys.length - 1];
+                System.arraycopy(entries, 0, restEntries, 0, i);
+                System.arraycopy(keys, 0, restKeys, 0, i);
+                System.arraycopy(entries, i + 1, restEntries, i, entries.length - i - 1);
+                System.arraycopy(keys, i + 1, restKeys, i, keys.length - i - 1);
+                return new Snapshot(restEntries, restKeys);
+            }
+            return this;
+        }
+
+        private record Keyed(String key, GoodsSuggestResponse entry) {
+        }
+    }
+}
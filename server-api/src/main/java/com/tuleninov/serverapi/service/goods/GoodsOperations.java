@@ -1,10 +1,18 @@
 package com.tuleninov.serverapi.service.goods;
 
+import com.tuleninov.serverapi.model.goods.GoodsScrollOrder;
+import com.tuleninov.serverapi.model.goods.request.GoodsFilter;
 import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsFilterResponse;
 import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsScrollResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -40,6 +48,75 @@ public interface GoodsOperations {
      */
     Page<GoodsResponse> findAllByCategoryId(Pageable pageable, int id);
 
+    /**
+     * Find a slice of goods in the database in response format without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    Slice<GoodsResponse> slice(Pageable pageable);
+
+    /**
+     * Find a slice of goods by category id in the database in response format without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param id       the id of the category
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    Slice<GoodsResponse> sliceByCategoryId(Pageable pageable, int id);
+
+    /**
+     * Get the approximate number of all goods, which may lag behind the database.
+     *
+     * @return the approximate number of goods
+     */
+    long approximateCount();
+
+    /**
+     * Find the goods that match the search query in response format, the most relevant first.
+     *
+     * @param query      the search query in the web search syntax
+     * @param categoryId the id of the category to search in, or null to search in all categories
+     * @param pageable   abstract interface for pagination information, the sort is ignored
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    Slice<GoodsResponse> search(String query, Integer categoryId, Pageable pageable);
+
+    /**
+     * Find a slice of the goods that match the filter in response format with the facet counts of the filter.
+     *
+     * @param filter   the filter of the goods
+     * @param pageable abstract interface for pagination information
+     * @return the goods from the database in response format with the facet counts
+     */
+    GoodsFilterResponse filter(GoodsFilter filter, Pageable pageable);
+
+    /**
+     * Get the numbers of all goods by category and by price bucket without querying the database.
+     *
+     * @return the facets of the whole catalog
+     */
+    GoodsFacetsResponse facets();
+
+    /**
+     * Find the goods whose names start with the prefix for the suggestions while the user types.
+     *
+     * @param prefix the beginning of the name, the case is ignored
+     * @param limit  the maximum number of the goods
+     * @return the goods with the matching names in the order of the names
+     */
+    List<GoodsSuggestResponse> suggest(String prefix, int limit);
+
+    /**
+     * Find the goods page that follows the cursor using keyset pagination.
+     *
+     * @param after the cursor of the previous page, or null for the first page
+     * @param order the sort order of the goods, ignored when the cursor is given
+     * @param size  the number of goods on the page
+     * @return the goods from the database in response format with the cursor of the next page
+     */
+    GoodsScrollResponse scroll(String after, GoodsScrollOrder order, int size);
+
     /**
      * Find the goods by id in the database in response format.
      *
@@ -49,12 +126,13 @@ public interface GoodsOperations {
     Optional<GoodsResponse> findById(int id);
 
     /**
-     * Merge the goods in the database.
+     * Merge the goods in the database unless it has changed since the client read it.
      *
      * @param id      the id of the goods
      * @param request the request with goods parameters
+     * @param version the version of the goods the client read, or null to merge whatever version it has
      */
-    GoodsResponse mergeById(int id, SaveGoodsRequest request);
+    GoodsResponse mergeById(int id, SaveGoodsRequest request, Long version);
 
     /**
      * Delete the goods in the database.
@@ -2,21 +2,45 @@ package com.tuleninov.serverapi.service.goods;
 
 import com.tuleninov.serverapi.exceptions.category.CategoryExceptions;
 import com.tuleninov.serverapi.exceptions.goods.GoodsExceptions;
+import com.tuleninov.serverapi.model.SliceResponse;
 import com.tuleninov.serverapi.model.category.Category;
 import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.goods.GoodsScrollOrder;
+import com.tuleninov.serverapi.model.goods.request.GoodsFilter;
 import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsFilterResponse;
 import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsScrollResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
 import com.tuleninov.serverapi.repository.CategoryRepository;
 import com.tuleninov.serverapi.repository.GoodsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static com.tuleninov.serverapi.config.CacheConfig.GOODS_CACHE;
 import static com.tuleninov.serverapi.exceptions.category.CategoryExceptions.categoryNotFound;
+import static com.tuleninov.serverapi.service.ConstraintViolations.constraintName;
 
 /**
  * Service class for Goods.
@@ -27,13 +51,30 @@ import static com.tuleninov.serverapi.exceptions.category.CategoryExceptions.cat
 @Service
 public class GoodsService implements GoodsOperations {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
+    private static final int MAX_SUGGEST_LIMIT = 50;
+
     private final GoodsRepository goodsRepository;
 
     private final CategoryRepository categoryRepository;
 
-    public GoodsService(GoodsRepository goodsRepository, CategoryRepository categoryRepository) {
+    private final ApproximateGoodsCount approximateGoodsCount;
+
+    private final GoodsNameIndex goodsNameIndex;
+
+    private final GoodsFacetCounters goodsFacetCounters;
+
+    public GoodsService(GoodsRepository goodsRepository,
+                        CategoryRepository categoryRepository,
+                        ApproximateGoodsCount approximateGoodsCount,
+                        GoodsNameIndex goodsNameIndex,
+                        GoodsFacetCounters goodsFacetCounters) {
         this.goodsRepository = goodsRepository;
         this.categoryRepository = categoryRepository;
+        this.approximateGoodsCount = approximateGoodsCount;
+        this.goodsNameIndex = goodsNameIndex;
+        this.goodsFacetCounters = goodsFacetCounters;
     }
 
     /**
@@ -45,8 +86,10 @@ public class GoodsService implements GoodsOperations {
     @Override
     @Transactional
     public GoodsResponse create(SaveGoodsRequest request) {
-        validateUniqueFields(request);
-        return GoodsResponse.fromGoods(save(request));
+        Goods goods = save(request);
+        goodsNameIndex.put(goods.getId(), goods.getName());
+        goodsFacetCounters.add(facetEntry(goods));
+        return GoodsResponse.fromGoods(goods);
     }
 
     /**
@@ -58,8 +101,7 @@ public class GoodsService implements GoodsOperations {
     @Override
     @Transactional(readOnly = true)
     public Page<GoodsResponse> list(Pageable pageable) {
-        return goodsRepository.findAll(pageable)
-                .map(GoodsResponse::fromGoods);
+        return goodsRepository.findAllResponses(pageable);
     }
 
     /**
@@ -72,36 +114,198 @@ public class GoodsService implements GoodsOperations {
     @Override
     @Transactional(readOnly = true)
     public Page<GoodsResponse> findAllByCategoryId(Pageable pageable, int id) {
-        Category category = getCategory(id);
+        if (!categoryRepository.existsById(id)) throw CategoryExceptions.categoryNotFound(id);
+
+        return goodsRepository.findAllResponsesByCategoryId(pageable, id);
+    }
+
+    /**
+     * Find a slice of goods in the database in response format without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<GoodsResponse> slice(Pageable pageable) {
+        return goodsRepository.findResponseSlice(pageable);
+    }
 
-        return goodsRepository.findAllByCategory(pageable, category)
-                .map(GoodsResponse::fromGoods);
+    /**
+     * Find a slice of goods by category id in the database in response format without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param id       the id of the category
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<GoodsResponse> sliceByCategoryId(Pageable pageable, int id) {
+        if (!categoryRepository.existsById(id)) throw CategoryExceptions.categoryNotFound(id);
+
+        return goodsRepository.findResponseSliceByCategoryId(pageable, id);
+    }
+
+    /**
+     * Get the approximate number of all goods, which may lag behind the database.
+     *
+     * @return the approximate number of goods
+     */
+    @Override
+    public long approximateCount() {
+        return approximateGoodsCount.get();
+    }
+
+    /**
+     * Find the goods that match the search query in response format, the most relevant first.
+     *
+     * @param query      the search query in the web search syntax
+     * @param categoryId the id of the category to search in, or null to search in all categories
+     * @param pageable   abstract interface for pagination information, the sort is ignored
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<GoodsResponse> search(String query, Integer categoryId, Pageable pageable) {
+        if (query == null || query.isBlank()) throw GoodsExceptions.blankSearchQuery();
+        if (categoryId != null && !categoryRepository.existsById(categoryId))
+            throw CategoryExceptions.categoryNotFound(categoryId);
+
+        // one extra row tells whether there is a next slice without counting
+        int limit = pageable.getPageSize() + 1;
+        List<Integer> ids = categoryId == null
+                ? goodsRepository.searchIds(query, limit, pageable.getOffset())
+                : goodsRepository.searchIdsByCategoryId(query, categoryId, limit, pageable.getOffset());
+
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        if (hasNext) ids = ids.subList(0, pageable.getPageSize());
+        return new SliceImpl<>(findResponsesInOrder(ids), pageable, hasNext);
+    }
+
+    /**
+     * Find a slice of the goods that match the filter in response format with the facet counts of the filter.
+     * The facets of an empty filter are the counters kept in memory, the facets of any other filter
+     * are read in the same transaction as the goods, so the counts agree with the goods.
+     *
+     * @param filter   the filter of the goods
+     * @param pageable abstract interface for pagination information
+     * @return the goods from the database in response format with the facet counts
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GoodsFilterResponse filter(GoodsFilter filter, Pageable pageable) {
+        validateFilter(filter);
+
+        return new GoodsFilterResponse(
+                SliceResponse.fromSlice(goodsRepository.findResponseSlice(filter, pageable)),
+                filter.isEmpty() ? goodsFacetCounters.facets() : goodsRepository.countFacets(filter));
+    }
+
+    /**
+     * Get the numbers of all goods by category and by price bucket from the counters kept in memory.
+     *
+     * @return the facets of the whole catalog
+     */
+    @Override
+    public GoodsFacetsResponse facets() {
+        return goodsFacetCounters.facets();
+    }
+
+    /**
+     * Find the goods whose names start with the prefix for the suggestions while the user types.
+     *
+     * @param prefix the beginning of the name, the case is ignored
+     * @param limit  the maximum number of the goods
+     * @return the goods with the matching names in the order of the names
+     */
+    @Override
+    public List<GoodsSuggestResponse> suggest(String prefix, int limit) {
+        return goodsNameIndex.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGEST_LIMIT)));
+    }
+
+    /**
+     * Find the goods page that follows the cursor using keyset pagination.
+     *
+     * @param after the cursor of the previous page, or null for the first page
+     * @param order the sort order of the goods, ignored when the cursor is given
+     * @param size  the number of goods on the page
+     * @return the goods from the database in response format with the cursor of the next page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GoodsScrollResponse scroll(String after, GoodsScrollOrder order, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        // one extra row tells whether there is a next page without counting
+        int limit = pageSize + 1;
+
+        List<GoodsResponse> goods;
+        if (after == null || after.isEmpty()) {
+            goods = goodsRepository.findResponses(PageRequest.of(0, limit, scrollSort(order)));
+        } else {
+            GoodsCursor cursor = decodeCursor(after);
+            order = cursor.order();
+            goods = findResponsesInOrder(seekIds(cursor, limit));
+        }
+
+        boolean hasNext = goods.size() > pageSize;
+        if (hasNext) goods = goods.subList(0, pageSize);
+        String next = null;
+        if (hasNext) {
+            GoodsResponse last = goods.get(goods.size() - 1);
+            next = GoodsCursor.after(order, last, exactPrice(order, last)).encode();
+        }
+        return new GoodsScrollResponse(goods, pageSize, hasNext, next);
+    }
+
+    /**
+     * Find the exact price of the goods for the cursor of the orders by price.
+     *
+     * @param order the sort order of the page
+     * @param goods the last goods of the page
+     * @return the price from the numeric column, or null for the other orders
+     */
+    private BigDecimal exactPrice(GoodsScrollOrder order, GoodsResponse goods) {
+        if (order != GoodsScrollOrder.PRICE && order != GoodsScrollOrder.PRICE_DESC) return null;
+
+        // the goods deleted since the page was read keeps the price of the page
+        return goodsRepository.findExactPriceById(goods.id())
+                .orElseGet(() -> BigDecimal.valueOf(goods.price()));
     }
 
     /**
      * Find the goods by id in the database in response format.
+     * The goods is cached until it or its category changes.
      *
      * @param id the id of the goods
      * @return the goods from database in response format
      */
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = GOODS_CACHE, key = "#id", unless = "#result == null")
     public Optional<GoodsResponse> findById(int id) {
-        return goodsRepository.findById(id)
-                .map(GoodsResponse::fromGoods);
+        return goodsRepository.findResponseById(id);
     }
 
     /**
-     * Merge the goods in the database.
+     * Merge the goods in the database unless it has changed since the client read it.
+     * The update is made only if the row still has the version that was read, so a merge that
+     * a concurrent one has overtaken is refused too.
      *
      * @param id      the id of the goods
      * @param request the request with goods parameters
+     * @param version the version of the goods the client read, or null to merge whatever version it has
      */
     @Override
     @Transactional
-    public GoodsResponse mergeById(int id, SaveGoodsRequest request) {
+    @CacheEvict(cacheNames = GOODS_CACHE, key = "#id")
+    public GoodsResponse mergeById(int id, SaveGoodsRequest request, Long version) {
         Goods goods = getGoods(id);
-        return GoodsResponse.fromGoods(merge(goods, request));
+        if (version != null && version != goods.getVersion()) throw GoodsExceptions.versionConflict(id);
+        GoodsFacetCounters.Entry before = facetEntry(goods);
+        merge(goods, request);
+        goodsNameIndex.put(goods.getId(), goods.getName());
+        goodsFacetCounters.replace(before, facetEntry(goods));
+        return GoodsResponse.fromGoods(goods);
     }
 
     /**
@@ -112,30 +316,104 @@ public class GoodsService implements GoodsOperations {
      */
     @Override
     @Transactional
+    @CacheEvict(cacheNames = GOODS_CACHE, key = "#id")
     public Optional<GoodsResponse> deleteById(int id) {
         if (!goodsRepository.existsById(id)) throw GoodsExceptions.goodsNotFound(id);
 
         Optional<Goods> goods = goodsRepository.findById(id);
-        goods.ifPresent(goodsRepository::delete);
+        goods.ifPresent(entry -> {
+            goodsRepository.delete(entry);
+            goodsFacetCounters.remove(facetEntry(entry));
+        });
+        goodsNameIndex.removeAll(List.of(id));
         return goods.map(GoodsResponse::fromGoods);
     }
 
     /**
-     * Validate goods`s fields.
+     * Get the category and the price of the goods for the facet counters.
      *
-     * @param request request with goods`s fields
+     * @param goods the goods from the database
+     * @return the entry of the facet counters
      */
-    private void validateUniqueFields(SaveGoodsRequest request) {
-        String name = request.name();
-        if (goodsRepository.existsByName(name)) {
-            throw GoodsExceptions.duplicateName(name);
-        }
-        String imageName = request.imageName();
-        if (goodsRepository.existsByImageName(imageName)) {
-            throw GoodsExceptions.duplicateImageName(imageName);
+    private static GoodsFacetCounters.Entry facetEntry(Goods goods) {
+        Category category = goods.getCategory();
+        return new GoodsFacetCounters.Entry(category.getId(), category.getName(), goods.getPrice());
+    }
+
+    /**
+     * Validate the ranges of the filter.
+     *
+     * @param filter the filter of the goods
+     */
+    private void validateFilter(GoodsFilter filter) {
+        if (filter.minPrice() != null && filter.maxPrice() != null && filter.minPrice() > filter.maxPrice())
+            throw GoodsExceptions.invalidFilter("minPrice is greater than maxPrice");
+        if (filter.minWeight() != null && filter.maxWeight() != null && filter.minWeight() > filter.maxWeight())
+            throw GoodsExceptions.invalidFilter("minWeight is greater than maxWeight");
+    }
+
+    /**
+     * Get the sort of the first keyset page, it must match the order of the seek queries.
+     *
+     * @param order the sort order of the goods
+     * @return the sort by the key and the id of the goods
+     */
+    private Sort scrollSort(GoodsScrollOrder order) {
+        return switch (order) {
+            case ID -> Sort.by("id");
+            case NAME -> Sort.by("name", "id");
+            case PRICE -> Sort.by("price", "id");
+            case PRICE_DESC -> Sort.by(Sort.Direction.DESC, "price", "id");
+        };
+    }
+
+    /**
+     * Decode the keyset cursor.
+     *
+     * @param after the encoded cursor
+     * @return the cursor
+     */
+    private GoodsCursor decodeCursor(String after) {
+        try {
+            return GoodsCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw GoodsExceptions.invalidCursor(after);
         }
     }
 
+    /**
+     * Find the ids of the goods that follow the cursor.
+     *
+     * @param cursor the cursor of the previous page
+     * @param limit  the maximum number of ids
+     * @return the ids in the order of the cursor
+     */
+    private List<Integer> seekIds(GoodsCursor cursor, int limit) {
+        return switch (cursor.order()) {
+            case ID -> goodsRepository.findIdsAfterId(cursor.id(), limit);
+            case NAME -> goodsRepository.findIdsAfterName(cursor.key(), cursor.id(), limit);
+            case PRICE -> goodsRepository.findIdsAfterPrice(cursor.key(), cursor.id(), limit);
+            case PRICE_DESC -> goodsRepository.findIdsBeforePrice(cursor.key(), cursor.id(), limit);
+        };
+    }
+
+    /**
+     * Find the goods by ids in response format keeping the order of the ids.
+     *
+     * @param ids the ids of the goods
+     * @return the goods in response format
+     */
+    private List<GoodsResponse> findResponsesInOrder(List<Integer> ids) {
+        if (ids.isEmpty()) return List.of();
+
+        Map<Integer, GoodsResponse> byId = goodsRepository.findAllResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(GoodsResponse::id, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     /**
      * Save the goods in the database.
      *
@@ -153,8 +431,29 @@ public class GoodsService implements GoodsOperations {
         goods.setWeight(request.weight());
         goods.setDescription(request.description());
         goods.setImageName(request.imageName());
-        goodsRepository.save(goods);
-        return goods;
+        return saveAndFlush(goods);
+    }
+
+    /**
+     * Write the goods to the database at once, so a taken name, description or image name
+     * is reported by its unique constraint and a concurrent change by the version within the same statement.
+     *
+     * @param goods the goods to write
+     * @return the written goods
+     */
+    private Goods saveAndFlush(Goods goods) {
+        try {
+            return goodsRepository.saveAndFlush(goods);
+        } catch (DataIntegrityViolationException e) {
+            throw switch (constraintName(e)) {
+                case "goods_name_key" -> GoodsExceptions.duplicateName(goods.getName());
+                case "goods_description_hash_key" -> GoodsExceptions.duplicateDescription(goods.getDescription());
+                case "goods_image_name_key" -> GoodsExceptions.duplicateImageName(goods.getImageName());
+                default -> e;
+            };
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw GoodsExceptions.versionConflict(goods.getId());
+        }
     }
 
     /**
@@ -189,7 +488,6 @@ public class GoodsService implements GoodsOperations {
     private Goods merge(Goods goods, SaveGoodsRequest request) {
         String name = request.name();
         if (name != null && !name.equals(goods.getName())) {
-            if (goodsRepository.existsByName(name)) throw GoodsExceptions.duplicateName(name);
             goods.setName(name);
         }
         Category category = getCategory(request.categoryId());
@@ -206,17 +504,15 @@ public class GoodsService implements GoodsOperations {
         }
         String description = request.description();
         if (description != null && !description.equals(goods.getDescription())) {
-            if (goodsRepository.existsByDescription(description))
-                throw GoodsExceptions.duplicateDescription(description);
             goods.setDescription(request.description());
         }
         String imageName = request.imageName();
         if (imageName != null && !imageName.equals(goods.getImageName())) {
-            if (goodsRepository.existsByImageName(imageName))
-                throw GoodsExceptions.duplicateImageName(imageName);
             goods.setImageName(request.imageName());
         }
+        // stamp the change now rather than on flush, so the response already has the new version
+        goods.setUpdatedAt(OffsetDateTime.now());
 
-        return goods;
+        return saveAndFlush(goods);
     }
 }
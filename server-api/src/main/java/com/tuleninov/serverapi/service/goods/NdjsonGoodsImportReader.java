@@ -0,0 +1,53 @@
+package com.tuleninov.serverapi.service.goods;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reader of the goods from NDJSON, where every non-blank line is one goods request in JSON.
+ */
+final class NdjsonGoodsImportReader implements GoodsImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long line;
+
+    NdjsonGoodsImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectReader = objectMapper.readerFor(SaveGoodsRequest.class);
+    }
+
+    @Override
+    public GoodsImportRow next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+
+            try {
+                SaveGoodsRequest request = objectReader.readValue(text);
+                return request == null
+                        ? GoodsImportRow.failed(line, "the line is not a JSON object")
+                        : GoodsImportRow.of(line, request);
+            } catch (JsonProcessingException e) {
+                return GoodsImportRow.failed(line, "the line is not valid JSON: " + e.getOriginalMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
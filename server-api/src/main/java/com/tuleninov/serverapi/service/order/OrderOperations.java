@@ -0,0 +1,37 @@
+package com.tuleninov.serverapi.service.order;
+
+import com.tuleninov.serverapi.model.order.request.CreateOrderRequest;
+import com.tuleninov.serverapi.model.order.response.OrderResponse;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Interface for the orders of the users.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface OrderOperations {
+
+    /**
+     * Place the order of the user from the reservations of the cart.
+     *
+     * @param email          the email of the user
+     * @param cartId         the cart the shop has held the goods for, or null if the user has held them
+     * @param request        request with the reservations and the contacts
+     * @param idempotencyKey the key of the checkout, a repeated checkout with the same key gets the same order;
+     *                       null if the checkout has no key
+     * @return the order in response format
+     */
+    OrderResponse create(String email, UUID cartId, CreateOrderRequest request, String idempotencyKey);
+
+    /**
+     * Find the order of the user by id.
+     *
+     * @param email         the email of the user
+     * @param id            the id of the order
+     * @return              the order in response format
+     */
+    Optional<OrderResponse> findById(String email, long id);
+}
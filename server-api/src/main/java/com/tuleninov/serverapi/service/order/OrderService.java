@@ -0,0 +1,193 @@
+package com.tuleninov.serverapi.service.order;
+
+import com.tuleninov.serverapi.model.order.CustomerOrder;
+import com.tuleninov.serverapi.model.order.OrderItem;
+import com.tuleninov.serverapi.model.order.OrderedGoods;
+import com.tuleninov.serverapi.model.order.request.CreateOrderRequest;
+import com.tuleninov.serverapi.model.order.response.OrderResponse;
+import com.tuleninov.serverapi.model.stock.StockReservation;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.repository.OrderRepository;
+import com.tuleninov.serverapi.repository.StockReservationRepository;
+import com.tuleninov.serverapi.repository.UserRepository;
+import com.tuleninov.serverapi.service.stock.StockHolds;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.tuleninov.serverapi.CartConstants.CART_HOLDER_PREFIX;
+import static com.tuleninov.serverapi.IdempotencyConstants.MAX_KEY_LENGTH;
+import static com.tuleninov.serverapi.exceptions.idempotency.IdempotencyExceptions.invalidKey;
+import static com.tuleninov.serverapi.exceptions.order.OrderExceptions.reservationsExpired;
+import static com.tuleninov.serverapi.exceptions.user.UserExceptions.userNotFound;
+import static com.tuleninov.serverapi.service.ConstraintViolations.constraintName;
+
+/**
+ * Service class for the orders.
+ * An order is placed from the reservations of the cart, so the goods have already been taken from the stock:
+ * the checkout copies the names and the current prices of the goods into the lines of the order,
+ * inserts the order and its lines in one batch and commits the reservations, all in one transaction
+ * of a few statements that takes no lock on the goods.
+ * Only the reservations of the user or of the cart that the user presents are taken into the order.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Service
+public class OrderService implements OrderOperations {
+
+    private static final String IDEMPOTENCY_KEY_CONSTRAINT = "orders_user_idempotency_key";
+
+    private final OrderRepository orderRepository;
+
+    private final UserRepository userRepository;
+
+    private final GoodsRepository goodsRepository;
+
+    private final StockReservationRepository reservationRepository;
+
+    private final StockHolds stockHolds;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderService(OrderRepository orderRepository,
+                        UserRepository userRepository,
+                        GoodsRepository goodsRepository,
+                        StockReservationRepository reservationRepository,
+                        StockHolds stockHolds,
+                        PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.goodsRepository = goodsRepository;
+        this.reservationRepository = reservationRepository;
+        this.stockHolds = stockHolds;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Place the order of the user from the reservations of the cart.
+     * The order is inserted before the reservations are committed, so of two concurrent checkouts with the same
+     * key the second one waits for the first on the unique key and then gets the order of the first one.
+     * A duplicate that comes just after the first one committed finds the reservations gone,
+     * so it looks for the order of the key once more before it reports them as expired.
+     * A reservation of another holder is reported as expired as well, as if it was not found.
+     *
+     * @param email          the email of the user
+     * @param cartId         the cart the shop has held the goods for, or null
+     * @param request        request with the reservations and the contacts
+     * @param idempotencyKey the key of the checkout, or null
+     * @return the order in response format
+     */
+    @Override
+    public OrderResponse create(String email, UUID cartId, CreateOrderRequest request, String idempotencyKey) {
+        if (idempotencyKey != null
+                && (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH)) {
+            throw invalidKey(idempotencyKey);
+        }
+        long userId = userRepository.findIdByEmail(email).orElseThrow(() -> userNotFound(email));
+        Set<String> holders = cartId == null ? Set.of(email) : Set.of(email, CART_HOLDER_PREFIX + cartId);
+
+        if (idempotencyKey != null) {
+            Optional<OrderResponse> placed = findPlaced(userId, idempotencyKey);
+            if (placed.isPresent()) return placed.get();
+        }
+        try {
+            return transactionTemplate.execute(status -> place(userId, holders, request, idempotencyKey));
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey != null && IDEMPOTENCY_KEY_CONSTRAINT.equals(constraintName(e))) {
+                return findPlaced(userId, idempotencyKey).orElseThrow(() -> e);
+            }
+            throw e;
+        } catch (ResponseStatusException e) {
+            if (idempotencyKey != null) return findPlaced(userId, idempotencyKey).orElseThrow(() -> e);
+            throw e;
+        }
+    }
+
+    private OrderResponse place(long userId, Set<String> holders, CreateOrderRequest request, String idempotencyKey) {
+        Set<UUID> reservationIds = new LinkedHashSet<>(request.reservationIds());
+        Map<UUID, StockReservation> reservations = reservationRepository.findAllById(reservationIds).stream()
+                .filter(reservation -> holders.contains(reservation.getHolder()))
+                .collect(Collectors.toMap(StockReservation::getId, Function.identity()));
+        if (reservations.size() != reservationIds.size()) throw reservationsExpired();
+
+        // the goods reserved more than once make a single line, in the order of the cart
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (UUID id : reservationIds) {
+            StockReservation reservation = reservations.get(id);
+            quantities.merge(reservation.getGoodsId(), reservation.getQuantity(), Integer::sum);
+        }
+        Map<Integer, OrderedGoods> goods = goodsRepository.findOrderedGoodsByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(OrderedGoods::id, Function.identity()));
+
+        var order = new CustomerOrder();
+        order.setUserId(userId);
+        order.setIdempotencyKey(idempotencyKey);
+        order.setFirstName(request.firstName());
+        order.setLastName(request.lastName());
+        order.setEmail(request.email());
+        order.setPhone(request.phone());
+        order.setAddress(request.address());
+        order.setComment(request.comment());
+        // the database keeps microseconds, so a repeated checkout reads back the same time
+        order.setCreatedAt(OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS));
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<Integer, Integer> quantity : quantities.entrySet()) {
+            OrderedGoods ordered = goods.get(quantity.getKey());
+            // the goods was deleted together with its reservations after they were read
+            if (ordered == null) throw reservationsExpired();
+
+            var item = new OrderItem();
+            item.setGoodsId(ordered.id());
+            item.setName(ordered.name());
+            item.setPrice(ordered.price());
+            item.setQuantity(quantity.getValue());
+            order.addItem(item);
+            total = total.add(BigDecimal.valueOf(ordered.price()).multiply(BigDecimal.valueOf(quantity.getValue())));
+        }
+        order.setTotal(total.doubleValue());
+        orderRepository.saveAndFlush(order);
+
+        // a reservation that expired or was released since it was read is not deleted here
+        if (reservationRepository.deleteReservationsByIdIn(reservationIds) != reservationIds.size()) {
+            throw reservationsExpired();
+        }
+        stockHolds.cancelAll(reservationIds);
+
+        return OrderResponse.fromOrder(order);
+    }
+
+    private Optional<OrderResponse> findPlaced(long userId, String idempotencyKey) {
+        return orderRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                .map(OrderResponse::fromOrder);
+    }
+
+    /**
+     * Find the order of the user by id.
+     *
+     * @param email the email of the user
+     * @param id    the id of the order
+     * @return the order in response format
+     */
+    @Override
+    public Optional<OrderResponse> findById(String email, long id) {
+        long userId = userRepository.findIdByEmail(email).orElseThrow(() -> userNotFound(email));
+        return orderRepository.findByIdAndUserId(id, userId)
+                .map(OrderResponse::fromOrder);
+    }
+}
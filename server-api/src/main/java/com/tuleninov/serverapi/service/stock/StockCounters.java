@@ -0,0 +1,135 @@
+package com.tuleninov.serverapi.service.stock;
+
+import com.tuleninov.serverapi.model.stock.response.StockResponse;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.tuleninov.serverapi.exceptions.goods.GoodsExceptions.goodsNotFound;
+
+/**
+ * In-memory counters of the stock of the goods that were reserved, in front of the stock in the database.
+ * A reservation takes the quantity from the counter of its goods first, so when a popular goods is sold out
+ * the reservations are refused without touching the database at all, and every goods has a counter of its own,
+ * so the reservations of different goods never contend with each other.
+ * The counters may be ahead of the database but the database has the last word: a counter that is too high
+ * only lets the conditional update refuse the reservation, a counter that is too low is repaired
+ * by the reconciliation in the background.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class StockCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(StockCounters.class);
+
+    private static final int RECONCILE_CHUNK = 1000;
+
+    private final GoodsRepository goodsRepository;
+
+    private final ConcurrentMap<Integer, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    public StockCounters(GoodsRepository goodsRepository) {
+        this.goodsRepository = goodsRepository;
+    }
+
+    /**
+     * Take the quantity from the counter of the goods if there is enough of it.
+     * The counter is read from the database the first time the goods is reserved.
+     *
+     * @param goodsId  the id of the goods
+     * @param quantity the quantity to take
+     * @return true if the quantity has been taken, false if there is not enough stock
+     */
+    public boolean tryTake(int goodsId, int quantity) {
+        AtomicInteger counter = counter(goodsId);
+        int current;
+        do {
+            current = counter.get();
+            if (current < quantity) return false;
+        } while (!counter.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    /**
+     * Give the quantity back to the counter of the goods, if the goods has one.
+     *
+     * @param goodsId  the id of the goods
+     * @param quantity the quantity to give back
+     */
+    public void add(int goodsId, int quantity) {
+        AtomicInteger counter = counters.get(goodsId);
+        if (counter != null) counter.addAndGet(quantity);
+    }
+
+    /**
+     * Set the counter of the goods to the stock read from the database, if the goods has a counter.
+     *
+     * @param goodsId the id of the goods
+     * @param stock   the stock of the goods
+     */
+    public void set(int goodsId, int stock) {
+        AtomicInteger counter = counters.get(goodsId);
+        if (counter != null) counter.set(stock);
+    }
+
+    /**
+     * Drop the counter of the goods that no longer exists.
+     *
+     * @param goodsId the id of the goods
+     */
+    public void forget(int goodsId) {
+        counters.remove(goodsId);
+    }
+
+    /**
+     * Get the number of the goods that have a counter.
+     *
+     * @return the number of the counters
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Set every counter to the stock in the database and drop the counters of the deleted goods.
+     * The counters move on while the stock is read, so a counter is only as fresh as the last reconciliation.
+     */
+    @Scheduled(initialDelayString = "${custom.stock.counters-reconcile:PT1M}",
+            fixedDelayString = "${custom.stock.counters-reconcile:PT1M}")
+    public void reconcile() {
+        List<Integer> ids = new ArrayList<>(counters.keySet());
+        int dropped = 0;
+        for (int from = 0; from < ids.size(); from += RECONCILE_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + RECONCILE_CHUNK));
+            Set<Integer> found = new HashSet<>();
+            for (StockResponse stock : goodsRepository.findStocksByIdIn(chunk)) {
+                found.add(stock.goodsId());
+                set(stock.goodsId(), stock.stock());
+            }
+            for (Integer id : chunk) {
+                if (!found.contains(id) && counters.remove(id) != null) dropped++;
+            }
+        }
+        if (dropped > 0) log.info("Stock counters of {} deleted goods have been dropped.", dropped);
+    }
+
+    private AtomicInteger counter(int goodsId) {
+        AtomicInteger counter = counters.get(goodsId);
+        if (counter != null) return counter;
+
+        int stock = goodsRepository.findStockById(goodsId).orElseThrow(() -> goodsNotFound(goodsId));
+        return counters.computeIfAbsent(goodsId, id -> new AtomicInteger(stock));
+    }
+}
@@ -0,0 +1,162 @@
+package com.tuleninov.serverapi.service.stock;
+
+import com.tuleninov.serverapi.model.stock.StockHold;
+import com.tuleninov.serverapi.model.stock.StockRelease;
+import com.tuleninov.serverapi.repository.StockReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static com.tuleninov.serverapi.service.TransactionCallbacks.afterCommit;
+
+/**
+ * Expiry of the reservations of the stock that were never released or committed, for example of abandoned carts.
+ * Every reservation is a hold in a {@link TimingWheel}, so the expired ones are found without scanning the table,
+ * and they are given back to the stock in batches of a single statement each.
+ * The wheel is rebuilt from the database when the application starts, so no hold is lost by a restart.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class StockHolds {
+
+    private static final Logger log = LoggerFactory.getLogger(StockHolds.class);
+
+    private static final int RELEASE_BATCH = 500;
+
+    private final StockReservationRepository reservationRepository;
+
+    private final StockCounters stockCounters;
+
+    private final Duration ttl;
+
+    private final TimingWheel<UUID> wheel;
+
+    public StockHolds(StockReservationRepository reservationRepository,
+                      StockCounters stockCounters,
+                      @Value("${custom.stock.hold-ttl:PT15M}") Duration ttl,
+                      @Value("${custom.stock.hold-tick:PT1S}") Duration tick) {
+        this.reservationRepository = reservationRepository;
+        this.stockCounters = stockCounters;
+        this.ttl = ttl;
+        this.wheel = new TimingWheel<>(tick, System.currentTimeMillis());
+    }
+
+    /**
+     * Get the time a reservation is held for.
+     *
+     * @return the time to live of a reservation
+     */
+    public Duration ttl() {
+        return ttl;
+    }
+
+    /**
+     * Hold the reservation until it expires, once the current transaction commits.
+     *
+     * @param id       the id of the reservation
+     * @param expireAt the time when the reservation expires
+     */
+    public void hold(UUID id, OffsetDateTime expireAt) {
+        afterCommit(() -> schedule(id, expireAt));
+    }
+
+    /**
+     * Stop holding the reservation that was released or committed, once the current transaction commits.
+     *
+     * @param id the id of the reservation
+     */
+    public void cancel(UUID id) {
+        afterCommit(() -> {
+            synchronized (this) {
+                wheel.cancel(id);
+            }
+        });
+    }
+
+    /**
+     * Stop holding the reservations that were committed, once the current transaction commits.
+     *
+     * @param ids the ids of the reservations
+     */
+    public void cancelAll(Collection<UUID> ids) {
+        afterCommit(() -> {
+            synchronized (this) {
+                ids.forEach(wheel::cancel);
+            }
+        });
+    }
+
+    /**
+     * Get the number of the held reservations.
+     *
+     * @return the number of the holds
+     */
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    /**
+     * Hold all reservations of the database when the application starts.
+     * The reservations that expired while the application was down are released by the next tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<StockHold> holds = reservationRepository.findAllHolds();
+        holds.forEach(hold -> schedule(hold.id(), hold.expireAt()));
+        log.info("{} stock holds have been recovered from the database.", holds.size());
+    }
+
+    /**
+     * Release the reservations that have expired by now.
+     */
+    @Scheduled(initialDelayString = "${custom.stock.hold-tick:PT1S}",
+            fixedDelayString = "${custom.stock.hold-tick:PT1S}")
+    public void expire() {
+        expire(Instant.now());
+    }
+
+    /**
+     * Release the reservations that have expired by the given time.
+     * A batch that fails is held again and retried by the next tick.
+     *
+     * @param now the current time
+     */
+    public void expire(Instant now) {
+        List<UUID> expired;
+        synchronized (this) {
+            expired = wheel.advance(now.toEpochMilli());
+        }
+        OffsetDateTime releasedAt = now.atOffset(ZoneOffset.UTC);
+        for (int from = 0; from < expired.size(); from += RELEASE_BATCH) {
+            List<UUID> batch = expired.subList(from, Math.min(expired.size(), from + RELEASE_BATCH));
+            try {
+                for (StockRelease release : reservationRepository.releaseExpired(batch, releasedAt)) {
+                    stockCounters.add(release.goodsId(), release.quantity());
+                }
+            } catch (RuntimeException e) {
+                log.warn("{} expired stock holds could not be released, they will be retried.", batch.size(), e);
+                synchronized (this) {
+                    batch.forEach(id -> wheel.schedule(id, now.toEpochMilli()));
+                }
+            }
+        }
+    }
+
+    private synchronized void schedule(UUID id, OffsetDateTime expireAt) {
+        wheel.schedule(id, expireAt.toInstant().toEpochMilli());
+    }
+}
@@ -0,0 +1,62 @@
+package com.tuleninov.serverapi.service.stock;
+
+import com.tuleninov.serverapi.model.stock.request.ReserveStockRequest;
+import com.tuleninov.serverapi.model.stock.request.SaveStockRequest;
+import com.tuleninov.serverapi.model.stock.response.StockReservationResponse;
+import com.tuleninov.serverapi.model.stock.response.StockResponse;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Interface for the stock of the Goods and its reservations.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public interface StockOperations {
+
+    /**
+     * Take the goods from the stock and keep them for the reservation of the holder.
+     *
+     * @param holder        the user or the cart that holds the goods
+     * @param request       request with the goods and the quantity
+     * @return              the reservation in response format
+     */
+    StockReservationResponse reserve(String holder, ReserveStockRequest request);
+
+    /**
+     * Give the reserved goods back to the stock.
+     *
+     * @param id            the id of the reservation
+     * @param holder        the user or the cart that releases the reservation
+     * @param admin         whether the caller is an admin, an admin releases the reservations of any holder
+     * @return              the released reservation in response format
+     */
+    StockReservationResponse release(UUID id, String holder, boolean admin);
+
+    /**
+     * Close the reservation for good, the reserved goods are not given back to the stock.
+     *
+     * @param id            the id of the reservation
+     * @return              the committed reservation in response format
+     */
+    StockReservationResponse commit(UUID id);
+
+    /**
+     * Find the stock of the goods.
+     *
+     * @param goodsId       the id of the goods
+     * @return              the stock of the goods in response format
+     */
+    Optional<StockResponse> findStock(int goodsId);
+
+    /**
+     * Set the stock of the goods.
+     *
+     * @param goodsId       the id of the goods
+     * @param request       request with the stock
+     * @return              the stock of the goods in response format
+     */
+    StockResponse setStock(int goodsId, SaveStockRequest request);
+}
@@ -0,0 +1,183 @@
+package com.tuleninov.serverapi.service.stock;
+
+import com.tuleninov.serverapi.model.stock.StockReservation;
+import com.tuleninov.serverapi.model.stock.request.ReserveStockRequest;
+import com.tuleninov.serverapi.model.stock.request.SaveStockRequest;
+import com.tuleninov.serverapi.model.stock.response.StockReservationResponse;
+import com.tuleninov.serverapi.model.stock.response.StockResponse;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.tuleninov.serverapi.exceptions.goods.GoodsExceptions.goodsNotFound;
+import static com.tuleninov.serverapi.exceptions.stock.StockExceptions.outOfStock;
+import static com.tuleninov.serverapi.exceptions.stock.StockExceptions.reservationNotFound;
+import static com.tuleninov.serverapi.exceptions.stock.StockExceptions.tooManyHolds;
+import static com.tuleninov.serverapi.service.TransactionCallbacks.afterCommit;
+import static com.tuleninov.serverapi.service.TransactionCallbacks.afterRollback;
+
+/**
+ * Service class for the stock of the Goods.
+ * The stock is never read and then written: a reservation takes it with a single conditional update,
+ * which keeps the row locked only for the rest of its own short transaction and changes nothing
+ * if there is not enough stock, so concurrent reservations can never oversell the goods.
+ * Every holder, a user or a cart that the shop holds for its guest, holds a limited number of reservations.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Service
+public class StockService implements StockOperations {
+
+    private final GoodsRepository goodsRepository;
+
+    private final StockReservationRepository reservationRepository;
+
+    private final StockCounters stockCounters;
+
+    private final StockHolds stockHolds;
+
+    private final int maxHolds;
+
+    public StockService(GoodsRepository goodsRepository,
+                        StockReservationRepository reservationRepository,
+                        StockCounters stockCounters,
+                        StockHolds stockHolds,
+                        @Value("${custom.stock.max-holds:20}") int maxHolds) {
+        this.goodsRepository = goodsRepository;
+        this.reservationRepository = reservationRepository;
+        this.stockCounters = stockCounters;
+        this.stockHolds = stockHolds;
+        this.maxHolds = maxHolds;
+    }
+
+    /**
+     * Take the goods from the stock and keep them for the reservation.
+     * The quantity is taken from the in-memory counter first and given back to it if the transaction rolls back.
+     * The reservation is held for a limited time and given back to the stock when it expires.
+     * The holds of the holder are counted under its lock, so its concurrent reservations never exceed the limit.
+     *
+     * @param holder  the user or the cart that holds the goods
+     * @param request request with the goods and the quantity
+     * @return the reservation in response format
+     */
+    @Override
+    @Transactional
+    public StockReservationResponse reserve(String holder, ReserveStockRequest request) {
+        int goodsId = request.goodsId();
+        int quantity = request.quantity();
+
+        if (reservationRepository.lockAndCountByHolder(holder) >= maxHolds) {
+            throw tooManyHolds(holder, maxHolds);
+        }
+
+        if (!stockCounters.tryTake(goodsId, quantity)) throw outOfStock(goodsId, quantity);
+        afterRollback(() -> stockCounters.add(goodsId, quantity));
+
+        if (goodsRepository.takeStock(goodsId, quantity) == 0) {
+            int stock = goodsRepository.findStockById(goodsId).orElseThrow(() -> {
+                stockCounters.forget(goodsId);
+                return goodsNotFound(goodsId);
+            });
+            // the counter was ahead of the database, it gets the stock that was actually there
+            afterRollback(() -> stockCounters.set(goodsId, stock));
+            throw outOfStock(goodsId, quantity);
+        }
+
+        var now = OffsetDateTime.now();
+        var reservation = new StockReservation();
+        reservation.setGoodsId(goodsId);
+        reservation.setQuantity(quantity);
+        reservation.setHolder(holder);
+        reservation.setCreatedAt(now);
+        reservation.setExpireAt(now.plus(stockHolds.ttl()));
+        reservationRepository.save(reservation);
+        stockHolds.hold(reservation.getId(), reservation.getExpireAt());
+
+        return StockReservationResponse.fromReservation(reservation);
+    }
+
+    /**
+     * Give the reserved goods back to the stock.
+     * Of two concurrent releases of the same reservation only the one that deletes it gives the goods back.
+     * The reservation of another holder is not found, unless the caller is an admin.
+     *
+     * @param id     the id of the reservation
+     * @param holder the user or the cart that releases the reservation
+     * @param admin  whether the caller is an admin
+     * @return the released reservation in response format
+     */
+    @Override
+    @Transactional
+    public StockReservationResponse release(UUID id, String holder, boolean admin) {
+        StockReservation reservation = reservationRepository.findById(id)
+                .filter(found -> admin || found.getHolder().equals(holder))
+                .orElseThrow(() -> reservationNotFound(id));
+        close(reservation);
+        int goodsId = reservation.getGoodsId();
+        int quantity = reservation.getQuantity();
+
+        goodsRepository.returnStock(goodsId, quantity);
+        afterCommit(() -> stockCounters.add(goodsId, quantity));
+
+        return StockReservationResponse.fromReservation(reservation);
+    }
+
+    /**
+     * Close the reservation for good, the reserved goods are not given back to the stock.
+     *
+     * @param id the id of the reservation
+     * @return the committed reservation in response format
+     */
+    @Override
+    @Transactional
+    public StockReservationResponse commit(UUID id) {
+        StockReservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> reservationNotFound(id));
+        close(reservation);
+
+        return StockReservationResponse.fromReservation(reservation);
+    }
+
+    private void close(StockReservation reservation) {
+        UUID id = reservation.getId();
+        if (reservationRepository.deleteReservationById(id) == 0) throw reservationNotFound(id);
+        stockHolds.cancel(id);
+    }
+
+    /**
+     * Find the stock of the goods.
+     *
+     * @param goodsId the id of the goods
+     * @return the stock of the goods in response format
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StockResponse> findStock(int goodsId) {
+        return goodsRepository.findStockById(goodsId).map(stock -> new StockResponse(goodsId, stock));
+    }
+
+    /**
+     * Set the stock of the goods.
+     * The goods that are reserved at the moment are not part of the stock, so they are not counted in it.
+     *
+     * @param goodsId the id of the goods
+     * @param request request with the stock
+     * @return the stock of the goods in response format
+     */
+    @Override
+    @Transactional
+    public StockResponse setStock(int goodsId, SaveStockRequest request) {
+        int stock = request.stock();
+        if (goodsRepository.updateStock(goodsId, stock) == 0) throw goodsNotFound(goodsId);
+        afterCommit(() -> stockCounters.set(goodsId, stock));
+
+        return new StockResponse(goodsId, stock);
+    }
+}
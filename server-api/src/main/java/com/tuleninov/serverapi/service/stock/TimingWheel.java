@@ -0,0 +1,184 @@
+package com.tuleninov.serverapi.service.stock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel of the keys that expire at a given time.
+ * Every level has 64 slots and every slot of a level spans all 64 slots of the level below it,
+ * so a key is scheduled and cancelled in constant time whatever its deadline is, and advancing the wheel
+ * by one tick only touches the slot that is due plus, once in 64 ticks, the slot of the level above it
+ * whose keys are moved down. The times are in milliseconds and the deadlines are rounded up to the tick,
+ * so a key never expires early.
+ * The wheel is not thread-safe, the owner guards it.
+ *
+ * @param <K> the type of the keys
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public final class TimingWheel<K> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE - 1 + BITS - 1) / BITS;
+
+    /**
+     * The bucket of the keys whose deadline has already passed when they were scheduled or moved down.
+     */
+    private static final int DUE = LEVELS * SLOTS;
+
+    private final long tickMillis;
+
+    /**
+     * The first entry of every slot of every level, and of the due bucket at the end.
+     */
+    private final Entry<K>[] buckets;
+
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tick, long nowMillis) {
+        if (tick.toMillis() <= 0) throw new IllegalArgumentException("the tick should be at least 1 ms: " + tick);
+
+        this.tickMillis = tick.toMillis();
+        this.buckets = (Entry<K>[]) new Entry[DUE + 1];
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Schedule the key to expire at the deadline, or move it there if it is already scheduled.
+     *
+     * @param key            the key
+     * @param deadlineMillis the time when the key expires
+     */
+    public void schedule(K key, long deadlineMillis) {
+        cancel(key);
+
+        long tick = Math.floorDiv(deadlineMillis, tickMillis);
+        if (Math.floorMod(deadlineMillis, tickMillis) != 0) tick++;
+        var entry = new Entry<>(key, tick);
+        entries.put(key, entry);
+        place(entry);
+    }
+
+    /**
+     * Remove the key from the wheel.
+     *
+     * @param key the key
+     * @return true if the key was scheduled
+     */
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) return false;
+
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Move the wheel to the given time and take out the keys that have expired by then.
+     *
+     * @param nowMillis the current time
+     * @return the expired keys
+     */
+    public List<K> advance(long nowMillis) {
+        var expired = new ArrayList<K>();
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            drain((int) (currentTick & MASK), expired);
+        }
+        drain(DUE, expired);
+        return expired;
+    }
+
+    /**
+     * Get the number of the scheduled keys.
+     *
+     * @return the number of the keys
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Move the keys of the slots that the current tick has reached on the upper levels down to the lower ones.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) return;
+
+            int bucket = level * SLOTS + (int) ((currentTick >>> (BITS * level)) & MASK);
+            Entry<K> entry = buckets[bucket];
+            buckets[bucket] = null;
+            while (entry != null) {
+                Entry<K> next = entry.next;
+                entry.previous = null;
+                entry.next = null;
+                place(entry);
+                entry = next;
+            }
+        }
+    }
+
+    /**
+     * Put the entry on the highest level where its tick differs from the current one,
+     * into the slot of its tick on that level.
+     */
+    private void place(Entry<K> entry) {
+        if (entry.tick <= currentTick) {
+            link(entry, DUE);
+            return;
+        }
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(entry.tick ^ currentTick)) / BITS;
+        link(entry, level * SLOTS + (int) ((entry.tick >>> (BITS * level)) & MASK));
+    }
+
+    private void drain(int bucket, List<K> expired) {
+        Entry<K> entry = buckets[bucket];
+        buckets[bucket] = null;
+        while (entry != null) {
+            entries.remove(entry.key);
+            expired.add(entry.key);
+            entry = entry.next;
+        }
+    }
+
+    private void link(Entry<K> entry, int bucket) {
+        Entry<K> first = buckets[bucket];
+        entry.bucket = bucket;
+        entry.next = first;
+        if (first != null) first.previous = entry;
+        buckets[bucket] = entry;
+    }
+
+    private void unlink(Entry<K> entry) {
+        if (entry.previous != null) entry.previous.next = entry.next;
+        else buckets[entry.bucket] = entry.next;
+        if (entry.next != null) entry.next.previous = entry.previous;
+    }
+
+    /**
+     * The scheduled key in the doubly linked list of its bucket.
+     */
+    private static final class Entry<K> {
+
+        private final K key;
+        private final long tick;
+        private int bucket;
+        private Entry<K> previous;
+        private Entry<K> next;
+
+        private Entry(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
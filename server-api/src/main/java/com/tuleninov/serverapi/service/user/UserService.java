@@ -14,6 +14,7 @@ import com.tuleninov.serverapi.model.user.response.PasswordResponse;
 import com.tuleninov.serverapi.model.user.response.UserResponse;
 import com.tuleninov.serverapi.repository.AuthorityRepository;
 import com.tuleninov.serverapi.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -30,6 +31,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.tuleninov.serverapi.service.ConstraintViolations.constraintName;
+
 /**
  * The UserService for UserController.
  */
@@ -160,7 +163,6 @@ public class UserService implements UserDetailsService, UserOperations {
     @Override
     @Transactional
     public UserResponse create(SaveUserRequest request, String code) {
-        validateUniqueFields(request);
         return UserResponse.fromUser(save(request, getRegularUserAuthorities(), code));
     }
 
@@ -174,7 +176,6 @@ public class UserService implements UserDetailsService, UserOperations {
     @Override
     @Transactional
     public UserResponse createAdmin(SaveUserRequest request, String code) {
-        validateUniqueFields(request);
         return UserResponse.fromUser(save(request, getAdminAuthorities(), code));
     }
 
@@ -274,13 +275,10 @@ public class UserService implements UserDetailsService, UserOperations {
                 newUser.setEmail(email);
                 return newUser;
             });
-            if (!nickname.equals(user.getNickname())) {
-                if (userRepository.existsByNickname(nickname)) throw UserExceptions.duplicateNickname(nickname);
-                user.setNickname(nickname);
-            }
+            user.setNickname(nickname);
             user.setPassword(passwordEncoder.encode(request.password()));
             user.getAuthorities().putAll(authorities);
-            userRepository.save(user);
+            saveAndFlush(user);
         }
     }
 
@@ -360,15 +358,13 @@ public class UserService implements UserDetailsService, UserOperations {
     private CustomUser merge(CustomUser user, MergeUserRequest request) {
         String email = request.email();
         if (email != null && !email.equals(user.getEmail())) {
-            if (userRepository.existsByEmail(email)) throw UserExceptions.duplicateEmail(email);
             user.setEmail(email);
         }
         String nickname = request.nickname();
         if (nickname != null && !nickname.equals(user.getNickname())) {
-            if (userRepository.existsByNickname(nickname)) throw UserExceptions.duplicateNickname(nickname);
             user.setNickname(nickname);
         }
-        return user;
+        return saveAndFlush(user);
     }
 
     /**
@@ -388,8 +384,26 @@ public class UserService implements UserDetailsService, UserOperations {
         user.setCreatedAt(OffsetDateTime.now());
         user.getAuthorities().putAll(authorities);
         user.setActivationCode(code);
-        userRepository.save(user);
-        return user;
+        return saveAndFlush(user);
+    }
+
+    /**
+     * Write the user to the database at once, so a taken email or nickname is reported
+     * by its unique index within the same statement.
+     *
+     * @param user the user to write
+     * @return the written user
+     */
+    private CustomUser saveAndFlush(CustomUser user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw switch (constraintName(e)) {
+                case "users_email_uindex" -> UserExceptions.duplicateEmail(user.getEmail());
+                case "users_nickname_uindex" -> UserExceptions.duplicateNickname(user.getNickname());
+                default -> e;
+            };
+        }
     }
 
     /**
@@ -446,22 +460,6 @@ public class UserService implements UserDetailsService, UserOperations {
         return authorities;
     }
 
-    /**
-     * Validate user`s fields.
-     *
-     * @param request request with user`s fields
-     */
-    private void validateUniqueFields(SaveUserRequest request) {
-        String email = request.email();
-        if (userRepository.existsByEmail(email)) {
-            throw UserExceptions.duplicateEmail(email);
-        }
-        String nickname = request.nickname();
-        if (userRepository.existsByNickname(nickname)) {
-            throw UserExceptions.duplicateNickname(nickname);
-        }
-    }
-
     /**
      * Check if is the last admin in the database.
      *
@@ -0,0 +1,6 @@
+-- the version of a row grows with every change, so a merge made from a stale copy of the row is refused
+alter table categories
+    add column version bigint not null default 0;
+
+alter table goods
+    add column version bigint not null default 0;
@@ -0,0 +1,18 @@
+-- the number of the goods that can still be reserved; every reservation takes it with a conditional update,
+-- and the check is the last line that keeps the stock from being oversold
+alter table goods
+    add column stock int not null default 0,
+    add constraint goods_stock_check check (stock >= 0);
+
+-- the goods taken from the stock until the reservation is released back or committed by an order
+create table stock_reservations
+(
+    id         uuid        not null primary key,
+    goods_id   bigint      not null,
+    quantity   int         not null check (quantity > 0),
+    created_at timestamptz not null,
+    constraint stock_reservations_goods_fk foreign key (goods_id)
+        references goods (id) on delete cascade
+);
+
+create index stock_reservations_goods_id_index on stock_reservations (goods_id);
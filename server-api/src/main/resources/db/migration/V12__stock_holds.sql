@@ -0,0 +1,9 @@
+-- a reservation is a hold that the server releases by itself once it expires
+alter table stock_reservations
+    add column expire_at timestamptz;
+
+update stock_reservations
+set expire_at = created_at + interval '15 minutes';
+
+alter table stock_reservations
+    alter column expire_at set not null;
@@ -0,0 +1,39 @@
+-- an order keeps the names and the prices of its goods as they were at checkout;
+-- a repeated checkout with the same idempotency key of the user finds the order that was already placed
+create table orders
+(
+    id              bigserial   not null primary key,
+    user_id         bigint      not null,
+    idempotency_key text,
+    first_name      text        not null,
+    last_name       text        not null,
+    email           text        not null,
+    phone           text        not null,
+    address         text        not null,
+    comment         text,
+    total           decimal     not null,
+    created_at      timestamptz not null,
+    constraint orders_user_fk foreign key (user_id)
+        references users (id) on delete cascade,
+    constraint orders_user_idempotency_key unique (user_id, idempotency_key)
+);
+
+create table order_items
+(
+    id       bigserial not null primary key,
+    order_id bigint    not null,
+    goods_id bigint,
+    name     text      not null,
+    price    decimal   not null,
+    quantity int       not null check (quantity > 0),
+    constraint order_items_order_fk foreign key (order_id)
+        references orders (id) on delete cascade,
+    constraint order_items_goods_fk foreign key (goods_id)
+        references goods (id) on delete set null
+);
+
+create index order_items_order_id_index on order_items (order_id);
+
+-- the ids are reserved in blocks of 50 like the goods ids, so the lines of an order are inserted in one batch
+alter sequence orders_id_seq increment by 50;
+alter sequence order_items_id_seq increment by 50;
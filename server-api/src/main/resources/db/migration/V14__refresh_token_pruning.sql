@@ -0,0 +1,5 @@
+-- the tokens are pruned in the background in small batches, found by these indexes instead of a scan of the table
+create index refresh_tokens_expire_at_index on refresh_tokens (expire_at);
+create index refresh_tokens_user_id_index on refresh_tokens (user_id);
+
+drop procedure prune_refresh_tokens();
@@ -0,0 +1,83 @@
+-- the tokens are partitioned by the day they expire, so the expired ones go away with their whole partition
+-- instead of the deletes of single rows and the vacuum after them;
+-- a partitioned table has no unique key without the expire_at column, so the chain keeps next without a foreign key
+alter table refresh_tokens
+    rename to refresh_tokens_unpartitioned;
+alter index refresh_tokens_pkey rename to refresh_tokens_unpartitioned_pkey;
+drop index refresh_tokens_expire_at_index;
+drop index refresh_tokens_user_id_index;
+
+create table refresh_tokens
+(
+    value     uuid        not null,
+    user_id   bigint      not null,
+    issued_at timestamptz not null,
+    expire_at timestamptz not null,
+    next      uuid,
+    constraint refresh_tokens_pkey primary key (value, expire_at),
+    constraint refresh_tokens_user_fk foreign key (user_id)
+        references users (id) on delete cascade
+) partition by range (expire_at);
+
+create index refresh_tokens_user_id_index on refresh_tokens (user_id);
+
+-- a partition holds the tokens that expire within a day in UTC and is named refresh_tokens_yyyymmdd
+create function create_refresh_token_partitions(since timestamptz, until timestamptz) returns integer
+    language plpgsql
+as
+$$
+declare
+    day     date := (since at time zone 'UTC')::date;
+    name    text;
+    created integer := 0;
+begin
+    perform pg_advisory_xact_lock(hashtext('refresh_tokens_partitions'));
+    while day <= (until at time zone 'UTC')::date
+        loop
+            name := 'refresh_tokens_' || to_char(day, 'YYYYMMDD');
+            if to_regclass(name) is null then
+                execute format('create table %I partition of refresh_tokens for values from (%L) to (%L)',
+                               name, day::timestamp at time zone 'UTC', (day + 1)::timestamp at time zone 'UTC');
+                created := created + 1;
+            end if;
+            day := day + 1;
+        end loop;
+    return created;
+end
+$$;
+
+-- a partition is dropped once every token in it has expired before the time
+create function drop_expired_refresh_token_partitions(before timestamptz) returns integer
+    language plpgsql
+as
+$$
+declare
+    partition record;
+    dropped   integer := 0;
+begin
+    perform pg_advisory_xact_lock(hashtext('refresh_tokens_partitions'));
+    for partition in
+        select c.relname
+        from pg_inherits i
+                 join pg_class c on c.oid = i.inhrelid
+        where i.inhparent = 'refresh_tokens'::regclass
+          and c.relname ~ '^refresh_tokens_[0-9]{8}$'
+          and (to_date(right(c.relname, 8), 'YYYYMMDD') + 1)::timestamp at time zone 'UTC' <= before
+        loop
+            execute format('drop table %I', partition.relname);
+            dropped := dropped + 1;
+        end loop;
+    return dropped;
+end
+$$;
+
+select create_refresh_token_partitions(current_timestamp,
+                                       greatest(current_timestamp + interval '30 days',
+                                                (select max(expire_at) from refresh_tokens_unpartitioned)));
+
+insert into refresh_tokens (value, user_id, issued_at, expire_at, next)
+select value, user_id, issued_at, expire_at, next
+from refresh_tokens_unpartitioned
+where expire_at > current_timestamp;
+
+drop table refresh_tokens_unpartitioned;
@@ -0,0 +1,13 @@
+-- the tokens issued for one login form a family: a refresh adds a token to the family and marks the used one,
+-- and a reused token invalidates the whole family by one indexed delete;
+-- the tokens before the head of a chain all point to the head, which starts the family
+alter table refresh_tokens
+    add column family_id uuid;
+
+update refresh_tokens
+set family_id = coalesce(next, value);
+
+alter table refresh_tokens
+    alter column family_id set not null;
+
+create index refresh_tokens_family_id_index on refresh_tokens (family_id);
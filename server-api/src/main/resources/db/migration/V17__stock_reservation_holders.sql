@@ -0,0 +1,9 @@
+-- a reservation belongs to the caller that made it, the number of the holds of a caller is limited;
+-- the holds made before are left to expire without a holder
+alter table stock_reservations
+    add column holder text not null default '';
+
+alter table stock_reservations
+    alter column holder drop default;
+
+create index stock_reservations_holder_index on stock_reservations (holder);
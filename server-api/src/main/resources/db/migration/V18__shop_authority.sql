@@ -0,0 +1,5 @@
+-- the account of the shop holds the goods for the carts of the sessions of ui-web, each cart is a holder of its own;
+-- the role is granted to a regular account by hand, the account of the shop is not an admin:
+-- insert into user_authorities (user_id, authority_id) select id, 2 from users where email = '<the account of the shop>';
+insert into authorities (id, value)
+values (2, 'ROLE_SHOP');
@@ -0,0 +1 @@
+create index goods_price_id_index on goods (price, id);
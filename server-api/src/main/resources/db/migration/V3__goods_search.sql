@@ -0,0 +1,11 @@
+alter table goods
+    add column search_vector tsvector
+        generated always as (
+            setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+        ) stored;
+
+create index goods_search_vector_index on goods using gin (search_vector);
+
+-- lets the category filter of the search and of the catalog skip the goods of other categories
+create index goods_category_id_index on goods (category_id);
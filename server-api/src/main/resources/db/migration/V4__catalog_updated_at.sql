@@ -0,0 +1,6 @@
+-- the time of the last change of a row, the catalog endpoints derive their entity tags and Last-Modified from it
+alter table categories
+    add column updated_at timestamptz not null default now();
+
+alter table goods
+    add column updated_at timestamptz not null default now();
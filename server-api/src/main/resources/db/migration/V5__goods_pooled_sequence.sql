@@ -0,0 +1,4 @@
+-- Hibernate reserves the goods ids in blocks of 50 from the sequence instead of reading them back after
+-- every insert, so the bulk import can batch its inserts. Every nextval starts a new block, so the plain SQL
+-- inserts that still take their id from the column default never get an id of a reserved block.
+alter sequence goods_id_seq increment by 50;
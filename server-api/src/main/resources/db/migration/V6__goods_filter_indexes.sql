@@ -0,0 +1,8 @@
+-- the catalog filter narrows the goods by category first and then by a price or a weight range,
+-- so each range gets an index led by the category; the id keeps the order stable inside equal prices
+create index goods_category_id_price_index on goods (category_id, price, id);
+create index goods_category_id_weight_index on goods (category_id, weight);
+create index goods_weight_index on goods (weight);
+
+-- the leading column of the new indexes serves the lookups by category alone
+drop index goods_category_id_index;
@@ -0,0 +1,8 @@
+-- every property the pageable endpoints may sort by is backed by an index, see @SortableBy
+
+-- the goods of a category sorted by id or by name; the price and the weight are covered by V6
+create index goods_category_id_id_index on goods (category_id, id);
+create index goods_category_id_name_index on goods (category_id, name);
+
+-- the users sorted by the time of registration; the email and the nickname have unique indexes
+create index users_created_at_index on users (created_at);
@@ -0,0 +1,23 @@
+-- the unique index over the whole description grew with the text, the digest is 32 bytes whatever the length;
+-- the uniqueness checks look the descriptions up through the same function, so they read the small index.
+-- convert_to is only stable because of the client encoding, but the database encoding never changes,
+-- so the digest of a text is always the same
+create function goods_description_hash(description text) returns bytea
+    language sql
+    immutable
+    strict
+    parallel safe
+as
+$$
+select sha256(convert_to(description, 'UTF8'))
+$$;
+
+alter table goods
+    add column description_hash bytea not null
+        generated always as (goods_description_hash(description)) stored;
+
+alter table goods
+    add constraint goods_description_hash_key unique (description_hash);
+
+alter table goods
+    drop constraint goods_description_key;
@@ -0,0 +1,4 @@
+-- the writes rely on the unique constraints and report a taken value by the name of its constraint,
+-- so every column keeps exactly one unique index: the ones of the inline constraints, named *_key
+drop index category_name_index;
+drop index goods_name_index;
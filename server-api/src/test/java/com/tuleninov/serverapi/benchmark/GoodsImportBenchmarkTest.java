@@ -0,0 +1,108 @@
+package com.tuleninov.serverapi.benchmark;
+
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+import com.tuleninov.serverapi.model.goods.response.GoodsImportResponse;
+import com.tuleninov.serverapi.service.goods.GoodsImportOperations;
+import com.tuleninov.serverapi.service.goods.GoodsImportService;
+import com.tuleninov.serverapi.service.goods.GoodsFacetCounters;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of the bulk goods import of NDJSON.
+ * Run it with {@code mvn test -pl server-api -Dtest=GoodsImportBenchmarkTest -Dbenchmark=true},
+ * the number of the goods and the minimal throughput can be changed with
+ * {@code -Dbenchmark.goods} and {@code -Dbenchmark.rowsPerSecond}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({GoodsImportService.class, GoodsNameIndex.class, GoodsFacetCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class GoodsImportBenchmarkTest {
+
+    private static final int GOODS_COUNT = Integer.getInteger("benchmark.goods", 200_000);
+    private static final long MIN_ROWS_PER_SECOND = Long.getLong("benchmark.rowsPerSecond", 50_000);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private GoodsImportOperations goodsImportOperations;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private byte[] body;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into categories (name) values ('Benchmark')");
+        int categoryId = jdbcTemplate.queryForObject("select cast(min(category_id) as int) from categories", Integer.class);
+
+        var content = new StringBuilder();
+        for (int i = 0; i < GOODS_COUNT; i++) {
+            content.append("{\"name\":\"Goods ").append(i)
+                    .append("\",\"categoryId\":").append(categoryId)
+                    .append(",\"price\":").append(1 + i % 500)
+                    .append(",\"weight\":").append(100 + i % 900)
+                    .append(",\"description\":\"Description of the goods number ").append(i)
+                    .append("\",\"imageName\":\"image").append(i).append(".png\"}\n");
+        }
+        body = content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("truncate goods, categories");
+    }
+
+    @Test
+    void testImportThroughput() {
+        long start = System.nanoTime();
+        GoodsImportResponse response = goodsImportOperations.importGoods(
+                GoodsDataFormat.NDJSON, new ByteArrayInputStream(body));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        double rowsPerSecond = GOODS_COUNT / seconds;
+        System.out.printf("Benchmark goods import of %d goods: %.1f s, %.0f rows/s%n",
+                GOODS_COUNT, seconds, rowsPerSecond);
+
+        assertEquals(GOODS_COUNT, response.imported());
+        assertTrue(rowsPerSecond >= MIN_ROWS_PER_SECOND,
+                rowsPerSecond + " rows/s is under the minimum of " + MIN_ROWS_PER_SECOND + " rows/s");
+    }
+}
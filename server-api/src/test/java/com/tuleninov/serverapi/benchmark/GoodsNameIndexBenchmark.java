@@ -0,0 +1,85 @@
+package com.tuleninov.serverapi.benchmark;
+
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the goods name suggestions over a million synthetic names.
+ * Run the main method with the test classpath, e.g. from the IDE, after {@code mvn test-compile -pl server-api}.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class GoodsNameIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "cheese", "milk", "butter", "yogurt", "cream", "bread", "apple", "pear", "plum", "cherry",
+            "tomato", "potato", "onion", "garlic", "carrot", "pepper", "honey", "coffee", "juice", "salmon"
+    };
+
+    @Param("1000000")
+    private int goodsCount;
+
+    private GoodsNameIndex goodsNameIndex;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var random = new Random(42);
+        List<GoodsSuggestResponse> names = new ArrayList<>(goodsCount);
+        for (int i = 0; i < goodsCount; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            names.add(new GoodsSuggestResponse(i, name));
+        }
+        GoodsRepository goodsRepository = Mockito.mock(GoodsRepository.class);
+        Mockito.when(goodsRepository.findAllNames()).thenReturn(names);
+        goodsNameIndex = new GoodsNameIndex(goodsRepository);
+        goodsNameIndex.load();
+
+        // prefixes from one letter, which matches many names, to a whole name, which matches one
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = names.get(random.nextInt(goodsCount)).name();
+            prefixes[i] = name.substring(0, 1 + random.nextInt(name.length()));
+        }
+    }
+
+    @Benchmark
+    public List<GoodsSuggestResponse> suggest() {
+        String prefix = prefixes[next++ & (prefixes.length - 1)];
+        return goodsNameIndex.suggest(prefix, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GoodsNameIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
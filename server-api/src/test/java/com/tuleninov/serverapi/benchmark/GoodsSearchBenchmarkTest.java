@@ -0,0 +1,143 @@
+package com.tuleninov.serverapi.benchmark;
+
+import com.tuleninov.serverapi.service.goods.ApproximateGoodsCount;
+import com.tuleninov.serverapi.service.goods.GoodsFacetCounters;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import com.tuleninov.serverapi.service.goods.GoodsOperations;
+import com.tuleninov.serverapi.service.goods.GoodsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency of the full-text goods search over a synthetic catalog.
+ * Run it with {@code mvn test -pl server-api -Dtest=GoodsSearchBenchmarkTest -Dbenchmark=true},
+ * the size of the catalog and the p99 budget can be changed with
+ * {@code -Dbenchmark.goods} and {@code -Dbenchmark.p99Millis}.
+ * The catalog is committed and vacuumed before measuring, as it would be in production,
+ * so the test does not run in a rolled back transaction and deletes the catalog afterwards.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({GoodsService.class, ApproximateGoodsCount.class, GoodsNameIndex.class, GoodsFacetCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class GoodsSearchBenchmarkTest {
+
+    private static final int GOODS_COUNT = Integer.getInteger("benchmark.goods", 1_000_000);
+    private static final long P99_BUDGET_MILLIS = Long.getLong("benchmark.p99Millis", 500);
+    private static final int WARMUP_QUERIES = 100;
+    private static final int MEASURED_QUERIES = 1_000;
+    private static final int CATEGORY_COUNT = 100;
+
+    private static final String[] WORDS = {
+            "cheese", "milk", "butter", "yogurt", "cream", "bread", "roll", "bun", "apple", "pear",
+            "plum", "cherry", "grape", "lemon", "orange", "banana", "tomato", "potato", "onion", "garlic",
+            "carrot", "pepper", "salt", "sugar", "honey", "jam", "tea", "coffee", "juice", "water",
+            "beef", "pork", "chicken", "turkey", "salmon", "tuna", "shrimp", "rice", "pasta", "flour",
+            "oat", "corn", "bean", "pea", "nut", "almond", "walnut", "raisin", "chocolate", "candy",
+            "cookie", "cake", "pie", "soup", "sauce", "oil", "vinegar", "mustard", "ketchup", "spice",
+            "fresh", "organic", "smoked", "frozen"
+    };
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private GoodsOperations goodsOperations;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into categories (name) " +
+                "select 'Category ' || c from generate_series(1, ?) c", CATEGORY_COUNT);
+        // every goods gets two words in the name and three in the description, so a word matches about 8% of them
+        jdbcTemplate.update("with words as (select ?::text[] as w), " +
+                        "first as (select min(category_id) as id from categories) " +
+                        "insert into goods (name, category_id, price, weight, description, image_name) " +
+                        "select w[1 + i % 64] || ' ' || w[1 + (i / 64) % 64] || ' ' || i, " +
+                        "first.id + i % ?, 1 + i % 500, 100 + i % 900, " +
+                        "w[1 + (i * 7) % 64] || ' ' || w[1 + (i * 13) % 64] || ' ' || w[1 + (i * 31) % 64] || ' #' || i, " +
+                        "'image' || i || '.png' " +
+                        "from generate_series(1, ?) i, words, first",
+                WORDS, CATEGORY_COUNT, GOODS_COUNT);
+        jdbcTemplate.execute("vacuum analyze goods");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("truncate goods, categories");
+    }
+
+    @Test
+    void testSearchP99Latency() {
+        var random = new Random(42);
+        int firstCategory = jdbcTemplate.queryForObject("select cast(min(category_id) as int) from categories", Integer.class);
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) search(random, firstCategory);
+
+        long[] nanos = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long start = System.nanoTime();
+            search(random, firstCategory);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        double p50 = percentileMillis(nanos, 0.50);
+        double p95 = percentileMillis(nanos, 0.95);
+        double p99 = percentileMillis(nanos, 0.99);
+        System.out.printf("Benchmark goods search over %d goods: p50 %.2f ms, p95 %.2f ms, p99 %.2f ms%n",
+                GOODS_COUNT, p50, p95, p99);
+
+        assertTrue(p99 <= P99_BUDGET_MILLIS, "p99 " + p99 + " ms is over the budget of " + P99_BUDGET_MILLIS + " ms");
+    }
+
+    /**
+     * Run one search of a random kind: a single word, two words, or a single word in a category.
+     */
+    private void search(Random random, int firstCategory) {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        switch (random.nextInt(3)) {
+            case 0 -> goodsOperations.search(word, null, PageRequest.of(random.nextInt(5), 20));
+            case 1 -> goodsOperations.search(word + " " + WORDS[random.nextInt(WORDS.length)], null,
+                    PageRequest.of(0, 20));
+            default -> goodsOperations.search(word, firstCategory + random.nextInt(CATEGORY_COUNT),
+                    PageRequest.of(0, 20));
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.tuleninov.serverapi.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.tuleninov.serverapi.config.security.JWTVerification;
+import com.tuleninov.serverapi.config.security.SecurityConstants;
+import com.tuleninov.serverapi.config.security.filters.JWTAuthorizationFilter;
+import com.tuleninov.serverapi.config.security.properties.CustomSecurityProperties;
+import com.tuleninov.serverapi.config.security.properties.JWTProperties;
+import com.tuleninov.serverapi.model.user.KnownAuthority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of the authentication of a request by its access token in the authorization filter.
+ * {@code verifierPerRequest} is the filter as it was, building the verifier and decoding the claims every time,
+ * {@code sharedVerifier} verifies every request with the shared verifier,
+ * {@code verifiedCache} takes the sessions that have already been verified from the cache.
+ * Run the main method with the test classpath, e.g. from the IDE, after {@code mvn test-compile -pl server-api}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JWTAuthorizationFilterBenchmark {
+
+    private static final String SECRET = "eitu9aichae7eitee9XiciweishohW3pieshaifasosai5xie9Oomobulohyu8iT";
+
+    /**
+     * The number of the sessions whose tokens come in turn.
+     */
+    @Param("1024")
+    private int sessions;
+
+    private Algorithm algorithm;
+    private JWTAuthorizationFilter sharedVerifierFilter;
+    private JWTAuthorizationFilter verifiedCacheFilter;
+    private MockHttpServletRequest[] requests;
+    private String[] tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sharedVerifierFilter = filter(0);
+        verifiedCacheFilter = filter(10_000);
+        algorithm = Algorithm.HMAC512(SECRET.getBytes());
+
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(30));
+        requests = new MockHttpServletRequest[sessions];
+        tokens = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            tokens[i] = JWT.create()
+                    .withSubject("user" + i + "@gmail.com")
+                    .withIssuedAt(Instant.now())
+                    .withExpiresAt(expiresAt)
+                    .withArrayClaim(SecurityConstants.AUTHORITIES_CLAIM, new String[]{"ROLE_USER"})
+                    .sign(algorithm);
+            requests[i] = new MockHttpServletRequest("GET", "/api/v1/goods/1");
+            requests[i].addHeader(HttpHeaders.AUTHORIZATION, SecurityConstants.AUTH_TOKEN_PREFIX + tokens[i]);
+        }
+    }
+
+    private static JWTAuthorizationFilter filter(int verifiedCacheSize) {
+        var jwtProperties = new JWTProperties();
+        jwtProperties.setSecret(SECRET.toCharArray());
+        jwtProperties.setVerifiedCacheSize(verifiedCacheSize);
+        var securityProperties = new CustomSecurityProperties();
+        securityProperties.setJwt(jwtProperties);
+        return new JWTAuthorizationFilter(authentication -> authentication, new JWTVerification(securityProperties));
+    }
+
+    @Benchmark
+    public Authentication verifierPerRequest() {
+        String token = tokens[next++ & (sessions - 1)];
+        DecodedJWT decodedJWT = JWT.require(algorithm).build().verify(token);
+        Set<KnownAuthority> authorities = decodedJWT.getClaim(SecurityConstants.AUTHORITIES_CLAIM)
+                .asList(String.class).stream()
+                .map(KnownAuthority::valueOf)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(KnownAuthority.class)));
+        return new UsernamePasswordAuthenticationToken(decodedJWT.getSubject(), null, authorities);
+    }
+
+    @Benchmark
+    public Authentication sharedVerifier() throws ServletException, IOException {
+        return authenticate(sharedVerifierFilter);
+    }
+
+    @Benchmark
+    public Authentication verifiedCache() throws ServletException, IOException {
+        return authenticate(verifiedCacheFilter);
+    }
+
+    private Authentication authenticate(JWTAuthorizationFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = requests[next++ & (sessions - 1)];
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JWTAuthorizationFilterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
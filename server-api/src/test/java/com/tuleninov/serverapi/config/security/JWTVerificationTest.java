@@ -0,0 +1,204 @@
+package com.tuleninov.serverapi.config.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.tuleninov.serverapi.config.security.properties.CustomSecurityProperties;
+import com.tuleninov.serverapi.config.security.properties.JWTKeyProperties;
+import com.tuleninov.serverapi.config.security.properties.JWTProperties;
+import com.tuleninov.serverapi.model.auth.response.JWKResponse;
+import com.tuleninov.serverapi.model.user.KnownAuthority;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JWTVerificationTest {
+
+    private static final String SECRET = "eitu9aichae7eitee9XiciweishohW3pieshaifasosai5xie9Oomobulohyu8iT";
+
+    static CustomSecurityProperties securityProperties(int verifiedCacheSize) {
+        var jwtProperties = new JWTProperties();
+        jwtProperties.setSecret(SECRET.toCharArray());
+        jwtProperties.setAccessExpireIn(Duration.ofMinutes(10));
+        jwtProperties.setRefreshExpireIn(Duration.ofDays(3));
+        jwtProperties.setVerifiedCacheSize(verifiedCacheSize);
+        var securityProperties = new CustomSecurityProperties();
+        securityProperties.setJwt(jwtProperties);
+        return securityProperties;
+    }
+
+    static String accessToken(Algorithm algorithm, Instant expiresAt) {
+        return JWT.create()
+                .withSubject("user@gmail.com")
+                .withIssuedAt(expiresAt.minus(Duration.ofMinutes(10)))
+                .withExpiresAt(expiresAt)
+                .withArrayClaim(SecurityConstants.AUTHORITIES_CLAIM, new String[]{"ROLE_USER", "ROLE_ADMIN"})
+                .sign(algorithm);
+    }
+
+    @Test
+    void testVerifiedTokenIsCachedUntilItExpires() {
+        var jwtVerification = new JWTVerification(securityProperties(100));
+        String token = accessToken(jwtVerification.algorithm(), Instant.now().plus(Duration.ofMinutes(10)));
+
+        UsernamePasswordAuthenticationToken first = jwtVerification.authenticate(token);
+        UsernamePasswordAuthenticationToken second = jwtVerification.authenticate(token);
+
+        assertEquals("user@gmail.com", first.getPrincipal());
+        assertEquals(Set.of(KnownAuthority.ROLE_USER, KnownAuthority.ROLE_ADMIN), Set.copyOf(first.getAuthorities()));
+        // the claims are cached, but every request gets its own authentication
+        assertNotSame(first, second);
+        assertEquals(first.getPrincipal(), second.getPrincipal());
+        assertEquals(Set.copyOf(first.getAuthorities()), Set.copyOf(second.getAuthorities()));
+        assertEquals(1, jwtVerification.cachedSize());
+    }
+
+    @Test
+    void testInvalidTokensAreNotCached() {
+        var jwtVerification = new JWTVerification(securityProperties(100));
+        String expired = accessToken(jwtVerification.algorithm(), Instant.now().minus(Duration.ofMinutes(1)));
+        String forged = accessToken(Algorithm.HMAC512("another secret"), Instant.now().plus(Duration.ofMinutes(10)));
+
+        assertNull(jwtVerification.authenticate(expired));
+        assertNull(jwtVerification.authenticate(forged));
+        assertNull(jwtVerification.authenticate("not a token"));
+        assertEquals(0, jwtVerification.cachedSize());
+    }
+
+    @Test
+    void testTokenWithUnknownAuthorityIsInvalid() {
+        var jwtVerification = new JWTVerification(securityProperties(100));
+        String token = JWT.create()
+                .withSubject("user@gmail.com")
+                .withExpiresAt(Instant.now().plus(Duration.ofMinutes(10)))
+                .withArrayClaim(SecurityConstants.AUTHORITIES_CLAIM, new String[]{"ROLE_USER", "ROLE_MANAGER"})
+                .sign(jwtVerification.algorithm());
+
+        assertNull(jwtVerification.authenticate(token));
+        assertEquals(0, jwtVerification.cachedSize());
+    }
+
+    @Test
+    void testCacheCanBeTurnedOff() {
+        var jwtVerification = new JWTVerification(securityProperties(0));
+        String token = accessToken(jwtVerification.algorithm(), Instant.now().plus(Duration.ofMinutes(10)));
+
+        UsernamePasswordAuthenticationToken first = jwtVerification.authenticate(token);
+
+        assertEquals("user@gmail.com", first.getPrincipal());
+        assertNotSame(first, jwtVerification.authenticate(token));
+        assertEquals(0, jwtVerification.cachedSize());
+    }
+
+    @Test
+    void testES256TokensVerifyWithPublishedKey() throws GeneralSecurityException {
+        KeyPair keyPair = generateKeyPair();
+        var jwtVerification = new JWTVerification(es256Properties(List.of(key("2024-01", keyPair, true))));
+        String token = accessToken(jwtVerification.algorithm(), Instant.now().plus(Duration.ofMinutes(10)));
+
+        assertEquals("2024-01", JWT.decode(token).getKeyId());
+        assertEquals("user@gmail.com", jwtVerification.authenticate(token).getPrincipal());
+
+        List<JWKResponse> keys = jwtVerification.publicKeys();
+        assertEquals(1, keys.size());
+        JWKResponse jwk = keys.get(0);
+        assertEquals("2024-01", jwk.kid());
+        assertEquals(43, jwk.x().length());
+        assertEquals(43, jwk.y().length());
+
+        // a service that has only the published key verifies the token by itself
+        ECPublicKey publicKey = fromJwk(jwk);
+        assertEquals(keyPair.getPublic(), publicKey);
+        JWT.require(Algorithm.ECDSA256(publicKey, null)).build().verify(token);
+    }
+
+    @Test
+    void testRotatedKeyVerifiesTokensItSigned() throws GeneralSecurityException {
+        KeyPair oldKeyPair = generateKeyPair();
+        KeyPair newKeyPair = generateKeyPair();
+        var before = new JWTVerification(es256Properties(List.of(key("old", oldKeyPair, true))));
+        String oldToken = accessToken(before.algorithm(), Instant.now().plus(Duration.ofMinutes(10)));
+
+        var rotated = new JWTVerification(es256Properties(List.of(
+                key("new", newKeyPair, true), key("old", oldKeyPair, false))));
+        String newToken = accessToken(rotated.algorithm(), Instant.now().plus(Duration.ofMinutes(10)));
+
+        assertEquals("new", JWT.decode(newToken).getKeyId());
+        assertEquals("user@gmail.com", rotated.authenticate(oldToken).getPrincipal());
+        assertEquals("user@gmail.com", rotated.authenticate(newToken).getPrincipal());
+        assertEquals(2, rotated.publicKeys().size());
+
+        var retired = new JWTVerification(es256Properties(List.of(key("new", newKeyPair, true))));
+        assertNull(retired.authenticate(oldToken));
+        assertThrows(SignatureVerificationException.class, () -> retired.verify(oldToken));
+    }
+
+    @Test
+    void testES256WithoutKeysFailsUnlessGenerationIsAllowed() {
+        CustomSecurityProperties securityProperties = es256Properties(List.of());
+        assertThrows(IllegalStateException.class, () -> new JWTVerification(securityProperties));
+
+        securityProperties.getJwt().setGenerateKeys(true);
+        var jwtVerification = new JWTVerification(securityProperties);
+        String token = accessToken(jwtVerification.algorithm(), Instant.now().plus(Duration.ofMinutes(10)));
+
+        assertEquals(1, jwtVerification.publicKeys().size());
+        assertEquals("user@gmail.com", jwtVerification.authenticate(token).getPrincipal());
+    }
+
+    @Test
+    void testSecretKeepsKeysPrivate() {
+        assertEquals(List.of(), new JWTVerification(securityProperties(100)).publicKeys());
+    }
+
+    private static CustomSecurityProperties es256Properties(List<JWTKeyProperties> keys) {
+        CustomSecurityProperties securityProperties = securityProperties(100);
+        securityProperties.getJwt().setAlgorithm(JWTProperties.SigningAlgorithm.ES256);
+        securityProperties.getJwt().setKeys(keys);
+        return securityProperties;
+    }
+
+    private static JWTKeyProperties key(String id, KeyPair keyPair, boolean signs) {
+        var key = new JWTKeyProperties();
+        key.setId(id);
+        key.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        if (signs) key.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        return key;
+    }
+
+    private static KeyPair generateKeyPair() throws GeneralSecurityException {
+        var generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static ECPublicKey fromJwk(JWKResponse jwk) throws GeneralSecurityException {
+        var decoder = Base64.getUrlDecoder();
+        var point = new ECPoint(new BigInteger(1, decoder.decode(jwk.x())), new BigInteger(1, decoder.decode(jwk.y())));
+        var parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        return (ECPublicKey) KeyFactory.getInstance("EC")
+                .generatePublic(new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+    }
+}
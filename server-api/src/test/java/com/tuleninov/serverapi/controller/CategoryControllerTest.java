@@ -0,0 +1,81 @@
+package com.tuleninov.serverapi.controller;
+
+import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.controller.category.CategoryController;
+import com.tuleninov.serverapi.model.category.response.CategoryListSnapshot;
+import com.tuleninov.serverapi.model.category.response.CategoryResponse;
+import com.tuleninov.serverapi.service.category.CategoryOperations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CategoryControllerTest {
+
+    private static final OffsetDateTime UPDATED_AT = OffsetDateTime.parse("2024-01-03T07:46:28.796Z");
+
+    private MockMvc mvc;
+    private CategoryListSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = CategoryListSnapshot.of(List.of(
+                new CategoryResponse(1, "Cheese", 0, UPDATED_AT),
+                new CategoryResponse(2, "Milk", 0, UPDATED_AT)));
+        CategoryOperations categoryOperations = mock(CategoryOperations.class);
+        when(categoryOperations.categoriesSnapshot()).thenReturn(snapshot);
+        mvc = MockMvcBuilders
+                .standaloneSetup(new CategoryController(categoryOperations))
+                .build();
+    }
+
+    @Test
+    void testGetListCategoriesWithEtag() throws Exception {
+        mvc
+                .perform(get(Routes.CATEGORIES + "/list"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.etag()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("""
+                        [{"id": 1, "name": "Cheese"}, {"id": 2, "name": "Milk"}]
+                        """));
+    }
+
+    @Test
+    void testGetListCategoriesNotModified() throws Exception {
+        mvc
+                .perform(get(Routes.CATEGORIES + "/list")
+                        .header(HttpHeaders.IF_NONE_MATCH, snapshot.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.etag()))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testEtagFollowsContent() {
+        var same = CategoryListSnapshot.of(List.of(
+                new CategoryResponse(1, "Cheese", 0, UPDATED_AT),
+                new CategoryResponse(2, "Milk", 0, UPDATED_AT)));
+        var renamed = CategoryListSnapshot.of(List.of(
+                new CategoryResponse(1, "Cheese", 0, UPDATED_AT),
+                new CategoryResponse(2, "Dairy", 0, UPDATED_AT)));
+
+        assertEquals(snapshot.etag(), same.etag());
+        assertNotEquals(snapshot.etag(), renamed.etag());
+    }
+}
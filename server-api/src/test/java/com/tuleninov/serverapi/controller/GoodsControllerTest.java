@@ -0,0 +1,185 @@
+package com.tuleninov.serverapi.controller;
+
+import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.controller.goods.GoodsController;
+import com.tuleninov.serverapi.model.SliceResponse;
+import com.tuleninov.serverapi.model.goods.request.GoodsFilter;
+import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+import com.tuleninov.serverapi.model.goods.response.GoodsCategoryFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsFilterResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsPriceFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.service.goods.GoodsOperations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GoodsControllerTest {
+
+    private static final OffsetDateTime UPDATED_AT = OffsetDateTime.parse("2024-01-03T07:46:28.796Z");
+
+    private MockMvc mvc;
+    private GoodsOperations goodsOperations;
+    private GoodsResponse brie;
+
+    @BeforeEach
+    void setUp() {
+        brie = new GoodsResponse(7, "Brie", 1, "Cheese", 12.5, 200,
+                "Soft cheese with a white rind", "brie.png", 3, UPDATED_AT);
+        goodsOperations = mock(GoodsOperations.class);
+        when(goodsOperations.findById(7)).thenReturn(Optional.of(brie));
+        mvc = MockMvcBuilders
+                .standaloneSetup(new GoodsController(goodsOperations))
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .addInterceptors(new SortableByInterceptor())
+                .build();
+    }
+
+    @Test
+    void testGetGoodsByIdWithVersion() throws Exception {
+        mvc
+                .perform(get(Routes.GOODS + "/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-1704267988796\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, 1704267988000L))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"));
+    }
+
+    @Test
+    void testGetGoodsByIdNotModified() throws Exception {
+        mvc
+                .perform(get(Routes.GOODS + "/7")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-1704267988796\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.from(UPDATED_AT));
+        mvc
+                .perform(get(Routes.GOODS + "/7")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        mvc
+                .perform(get(Routes.GOODS + "/7")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"7-1\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testListGoodsTagFollowsRows() throws Exception {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(goodsOperations.list(any())).thenReturn(new PageImpl<>(List.of(brie), pageable, 1));
+
+        String etag = mvc
+                .perform(get(Routes.GOODS))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc
+                .perform(get(Routes.GOODS).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        var changed = new GoodsResponse(7, "Brie", 1, "Cheese", 13, 200,
+                "Soft cheese with a white rind", "brie.png", 0, UPDATED_AT.plusSeconds(1));
+        when(goodsOperations.list(any())).thenReturn(new PageImpl<>(List.of(changed), pageable, 1));
+
+        mvc
+                .perform(get(Routes.GOODS).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testFilterGoodsBindsFilterFromQuery() throws Exception {
+        var filter = new GoodsFilter(List.of(1, 2), 10.0, 20.0, null, 500);
+        var facets = new GoodsFacetsResponse(
+                List.of(new GoodsCategoryFacet(1, "Cheese", 1)),
+                List.of(new GoodsPriceFacet(10, 50.0, 1)));
+        when(goodsOperations.filter(eq(filter), any())).thenReturn(new GoodsFilterResponse(
+                new SliceResponse<>(List.of(brie), 0, 20, false, null), facets));
+
+        mvc
+                .perform(get(Routes.GOODS + "/filter")
+                        .param("categoryIds", "1", "2")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "20")
+                        .param("maxWeight", "500"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.goods.content[0].name").value("Brie"))
+                .andExpect(jsonPath("$.facets.categories[0].count").value(1))
+                .andExpect(jsonPath("$.facets.prices[0].to").value(50.0));
+    }
+
+    @Test
+    void testListGoodsRejectsUnsortableProperty() throws Exception {
+        when(goodsOperations.list(any())).thenReturn(new PageImpl<>(List.of(brie), PageRequest.of(0, 20), 1));
+
+        mvc
+                .perform(get(Routes.GOODS).param("sort", "price,desc").param("sort", "id"))
+                .andExpect(status().isOk());
+
+        mvc
+                .perform(get(Routes.GOODS).param("sort", "price").param("sort", "description,desc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testMergeGoodsPassesIfMatchVersion() throws Exception {
+        var request = new SaveGoodsRequest("Brie", 1, 13, 200, "Soft cheese with a white rind", "brie.png");
+        when(goodsOperations.mergeById(7, request, 3L)).thenReturn(brie);
+        String body = "{\"name\":\"Brie\",\"categoryId\":1,\"price\":13,\"weight\":200," +
+                "\"description\":\"Soft cheese with a white rind\",\"imageName\":\"brie.png\"}";
+
+        mvc
+                .perform(put(Routes.GOODS + "/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"3-1704267988796\"")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Brie"));
+
+        mvc
+                .perform(put(Routes.GOODS + "/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3-1704267988796\"")
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        mvc
+                .perform(put(Routes.GOODS + "/7")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        verify(goodsOperations).mergeById(7, request, 3L);
+        verifyNoMoreInteractions(goodsOperations);
+    }
+}
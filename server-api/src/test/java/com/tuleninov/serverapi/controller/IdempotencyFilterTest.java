@@ -0,0 +1,229 @@
+package com.tuleninov.serverapi.controller;
+
+import com.tuleninov.serverapi.IdempotencyConstants;
+import com.tuleninov.serverapi.Routes;
+import com.tuleninov.serverapi.controller.category.CategoryController;
+import com.tuleninov.serverapi.exceptions.category.CategoryExceptions;
+import com.tuleninov.serverapi.model.category.response.CategoryResponse;
+import com.tuleninov.serverapi.service.category.CategoryOperations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class IdempotencyFilterTest {
+
+    private static final OffsetDateTime UPDATED_AT = OffsetDateTime.parse("2024-01-03T07:46:28.796Z");
+
+    private MockMvc mvc;
+    private CategoryOperations categoryOperations;
+    private IdempotencyFilter idempotencyFilter;
+
+    @BeforeEach
+    void setUp() {
+        categoryOperations = mock(CategoryOperations.class);
+        when(categoryOperations.create(any())).thenReturn(new CategoryResponse(1, "Cheese", 0, UPDATED_AT));
+        idempotencyFilter = new IdempotencyFilter("maximumSize=100,expireAfterWrite=1h", Duration.ofSeconds(10));
+        mvc = MockMvcBuilders
+                .standaloneSetup(new CategoryController(categoryOperations))
+                .addFilters(idempotencyFilter)
+                .build();
+    }
+
+    private static MockHttpServletRequestBuilder createCategory(String name, String key) {
+        var request = post(Routes.CATEGORIES)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"" + name + "\"}");
+        return key == null ? request : request.header(IdempotencyConstants.IDEMPOTENCY_KEY, key);
+    }
+
+    @Test
+    void testRepeatedRequestGetsStoredResponse() throws Exception {
+        mvc
+                .perform(createCategory("Cheese", "a1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        mvc
+                .perform(createCategory("Cheese", "a1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost" + Routes.CATEGORIES + "/1"))
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("""
+                        {"id": 1, "name": "Cheese"}
+                        """));
+
+        verify(categoryOperations, times(1)).create(any());
+        assertEquals(1, idempotencyFilter.size());
+    }
+
+    @Test
+    void testRepeatedResponseHasHeadersOfFilterChainOnce() throws Exception {
+        mvc = MockMvcBuilders
+                .standaloneSetup(new CategoryController(categoryOperations))
+                .addFilters((request, response, chain) -> {
+                    // like the security headers, set on every response before the filter
+                    ((HttpServletResponse) response).setHeader("X-Content-Type-Options", "nosniff");
+                    chain.doFilter(request, response);
+                }, idempotencyFilter)
+                .build();
+
+        mvc.perform(createCategory("Cheese", "h1")).andExpect(status().isCreated());
+        mvc
+                .perform(createCategory("Cheese", "h1"))
+                .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(header().stringValues("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().stringValues(HttpHeaders.LOCATION, "http://localhost" + Routes.CATEGORIES + "/1"));
+    }
+
+    @Test
+    void testRequestsWithoutKeyOrWithOtherKeysAreExecuted() throws Exception {
+        mvc.perform(createCategory("Cheese", null)).andExpect(status().isCreated());
+        mvc.perform(createCategory("Cheese", null)).andExpect(status().isCreated());
+        mvc.perform(createCategory("Cheese", "a1")).andExpect(status().isCreated());
+        mvc.perform(createCategory("Cheese", "a2")).andExpect(status().isCreated());
+
+        verify(categoryOperations, times(4)).create(any());
+    }
+
+    @Test
+    void testKeyCannotBeReusedForAnotherRequest() throws Exception {
+        mvc.perform(createCategory("Cheese", "a1")).andExpect(status().isCreated());
+
+        mvc.perform(createCategory("Milk", "a1")).andExpect(status().isUnprocessableEntity());
+        mvc.perform(createCategory("Cheese", "")).andExpect(status().isBadRequest());
+        mvc.perform(createCategory("Cheese", "k".repeat(65))).andExpect(status().isBadRequest());
+
+        verify(categoryOperations, times(1)).create(any());
+    }
+
+    /**
+     * A request with a chunked body, whose length is not known before it is read.
+     */
+    private static MockHttpServletRequest chunkedRequest(int length, String key) {
+        var request = new MockHttpServletRequest("POST", Routes.CATEGORIES) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(new byte[length]);
+        request.addHeader(IdempotencyConstants.IDEMPOTENCY_KEY, key);
+        return request;
+    }
+
+    @Test
+    void testChunkedBodyIsReadUpToLimit() throws Exception {
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+        idempotencyFilter.doFilter(chunkedRequest(1024 * 1024 + 1, "a1"), response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+
+        chain = new MockFilterChain();
+        idempotencyFilter.doFilter(chunkedRequest(1024, "a2"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(1024, chain.getRequest().getInputStream().readAllBytes().length);
+    }
+
+    @Test
+    void testFailedRequestCanBeRepeated() throws Exception {
+        when(categoryOperations.create(any()))
+                .thenThrow(CategoryExceptions.duplicateName("Cheese"))
+                .thenReturn(new CategoryResponse(1, "Cheese", 0, UPDATED_AT));
+
+        mvc.perform(createCategory("Cheese", "a1")).andExpect(status().isBadRequest());
+        mvc
+                .perform(createCategory("Cheese", "a1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+
+        verify(categoryOperations, times(2)).create(any());
+    }
+
+    @Test
+    void testConcurrentDuplicatesWaitForFirstRequest() throws Exception {
+        var started = new CountDownLatch(1);
+        var finish = new CountDownLatch(1);
+        when(categoryOperations.create(any())).thenAnswer(invocation -> {
+            started.countDown();
+            finish.await(10, TimeUnit.SECONDS);
+            return new CategoryResponse(1, "Cheese", 0, UPDATED_AT);
+        });
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            var responses = new ArrayList<Future<MockHttpServletResponse>>();
+            for (int i = 0; i < threads; i++) {
+                responses.add(executor.submit(() ->
+                        mvc.perform(createCategory("Cheese", "a1")).andReturn().getResponse()));
+            }
+            started.await(10, TimeUnit.SECONDS);
+            finish.countDown();
+
+            List<String> bodies = new ArrayList<>();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertEquals(201, response.get().getStatus());
+                bodies.add(response.get().getContentAsString());
+            }
+            assertEquals(1, bodies.stream().distinct().count());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(categoryOperations, times(1)).create(any());
+    }
+
+    @Test
+    void testKeysOfDifferentUsersDoNotMeet() throws Exception {
+        mvc.perform(createCategory("Cheese", "a1")).andExpect(status().isCreated());
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin@gmail.com", null));
+        try {
+            mvc.perform(createCategory("Cheese", "a1")).andExpect(status().isCreated())
+                    .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+            mvc.perform(createCategory("Cheese", "a1")).andExpect(status().isCreated())
+                    .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(categoryOperations, times(2)).create(any());
+    }
+}
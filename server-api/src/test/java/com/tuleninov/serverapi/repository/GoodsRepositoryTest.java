@@ -0,0 +1,344 @@
+package com.tuleninov.serverapi.repository;
+
+import com.tuleninov.serverapi.model.SliceResponse;
+import com.tuleninov.serverapi.model.category.Category;
+import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.goods.GoodsScrollOrder;
+import com.tuleninov.serverapi.model.goods.request.GoodsFilter;
+import com.tuleninov.serverapi.model.goods.response.GoodsCategoryFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsPriceFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsScrollResponse;
+import com.tuleninov.serverapi.service.goods.ApproximateGoodsCount;
+import com.tuleninov.serverapi.service.goods.GoodsFacetCounters;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import com.tuleninov.serverapi.service.goods.GoodsOperations;
+import com.tuleninov.serverapi.service.goods.GoodsService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({GoodsService.class, ApproximateGoodsCount.class, GoodsNameIndex.class, GoodsFacetCounters.class})
+public class GoodsRepositoryTest {
+
+    private static final int GOODS_COUNT = 30;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private GoodsRepository goodsRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private GoodsOperations goodsOperations;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Cheese");
+        categoryRepository.save(category);
+
+        for (int i = 0; i < GOODS_COUNT; i++) {
+            var goods = new Goods();
+            goods.setName("Goods " + i);
+            goods.setCategory(category);
+            // repeated prices make the id decide the order inside a price
+            goods.setPrice(10.5 + i % 5);
+            goods.setWeight(100 + i);
+            goods.setDescription("Description of goods " + i);
+            goods.setImageName("image" + i + ".png");
+            goodsRepository.save(goods);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testListStatementCountDoesNotDependOnPageSize() {
+        long smallPage = countStatements(() -> goodsRepository.findAllResponses(PageRequest.of(0, 5)));
+        long largePage = countStatements(() -> goodsRepository.findAllResponses(PageRequest.of(0, 20)));
+
+        // one select for the content and one for the total count
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void testListByCategoryStatementCountDoesNotDependOnPageSize() {
+        int categoryId = category.getId();
+        long smallPage = countStatements(() ->
+                goodsRepository.findAllResponsesByCategoryId(PageRequest.of(0, 5), categoryId));
+        long largePage = countStatements(() ->
+                goodsRepository.findAllResponsesByCategoryId(PageRequest.of(0, 20), categoryId));
+
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void testSliceDoesNotCountGoods() {
+        int categoryId = category.getId();
+        long allGoods = countStatements(() -> goodsOperations.slice(PageRequest.of(0, 5)));
+        // the second statement checks that the category exists
+        long byCategory = countStatements(() -> goodsOperations.sliceByCategoryId(PageRequest.of(0, 5), categoryId));
+
+        assertEquals(1, allGoods);
+        assertEquals(2, byCategory);
+    }
+
+    @Test
+    void testSliceKnowsWhetherThereIsNextSlice() {
+        Slice<GoodsResponse> first = goodsOperations.slice(PageRequest.of(0, GOODS_COUNT - 1));
+        Slice<GoodsResponse> last = goodsOperations.slice(PageRequest.of(1, GOODS_COUNT - 1));
+
+        assertEquals(GOODS_COUNT - 1, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(1, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void testApproximateCountFallsBackToExactCountBeforeAnalyze() {
+        assertEquals(GOODS_COUNT, goodsOperations.approximateCount());
+    }
+
+    @Test
+    void testSearchRanksNameAboveDescription() {
+        saveGoods("Blue cheese", "Soft and creamy", "blue.png");
+        saveGoods("Brie", "Mild with a blue mould", "brie.png");
+
+        List<GoodsResponse> found = goodsOperations.search("blue", null, PageRequest.of(0, 10)).getContent();
+
+        assertEquals(2, found.size());
+        assertEquals("Blue cheese", found.get(0).name());
+        assertEquals("Brie", found.get(1).name());
+    }
+
+    @Test
+    void testSearchSlicesVisitEveryMatchOnce() {
+        Set<Integer> visited = new HashSet<>();
+        Slice<GoodsResponse> slice = goodsOperations.search("description", null, PageRequest.of(0, 7));
+        slice.forEach(goods -> visited.add(goods.id()));
+        while (slice.hasNext()) {
+            slice = goodsOperations.search("description", null, slice.nextPageable());
+            slice.forEach(goods -> visited.add(goods.id()));
+        }
+
+        assertEquals(GOODS_COUNT, visited.size());
+    }
+
+    @Test
+    void testSearchFiltersByCategory() {
+        var other = new Category();
+        other.setName("Milk");
+        categoryRepository.save(other);
+
+        assertEquals(1, goodsOperations.search("goods 7", category.getId(), PageRequest.of(0, 10))
+                .getNumberOfElements());
+        assertFalse(goodsOperations.search("goods 7", other.getId(), PageRequest.of(0, 10)).hasContent());
+    }
+
+    @Test
+    void testSearchRejectsBlankQuery() {
+        assertThrows(ResponseStatusException.class,
+                () -> goodsOperations.search(" ", null, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testListResponsesContainCategoryName() {
+        Page<GoodsResponse> page = goodsRepository.findAllResponses(PageRequest.of(0, GOODS_COUNT));
+
+        assertEquals(GOODS_COUNT, page.getNumberOfElements());
+        page.forEach(response -> {
+            assertEquals(category.getId(), response.categoryId());
+            assertEquals(category.getName(), response.categoryName());
+        });
+    }
+
+    @Test
+    void testFindResponseByIdUsesSingleStatement() {
+        int id = goodsRepository.findAll().get(0).getId();
+        entityManager.clear();
+
+        long statements = countStatements(() -> goodsRepository.findResponseById(id).orElseThrow());
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void testScrollVisitsEveryGoodsOnceInEveryOrder() {
+        for (GoodsScrollOrder order : GoodsScrollOrder.values()) {
+            List<GoodsResponse> expected = goodsOperations.scroll(null, order, GOODS_COUNT).content();
+            List<GoodsResponse> visited = new ArrayList<>();
+
+            GoodsScrollResponse page = goodsOperations.scroll(null, order, 7);
+            visited.addAll(page.content());
+            while (page.hasNext()) {
+                page = goodsOperations.scroll(page.next(), order, 7);
+                visited.addAll(page.content());
+            }
+
+            assertEquals(GOODS_COUNT, expected.size());
+            assertEquals(expected, visited, "order " + order);
+        }
+    }
+
+    @Test
+    void testScrollSeeksByExactPrice() {
+        // the prices lose their last digit on the way through a double
+        entityManager.createNativeQuery("update goods set price = price + 0.00000000000000000001").executeUpdate();
+        entityManager.clear();
+
+        for (GoodsScrollOrder order : List.of(GoodsScrollOrder.PRICE, GoodsScrollOrder.PRICE_DESC)) {
+            List<Integer> expected = goodsOperations.scroll(null, order, GOODS_COUNT).content().stream()
+                    .map(GoodsResponse::id).toList();
+            List<Integer> visited = new ArrayList<>();
+
+            GoodsScrollResponse page = goodsOperations.scroll(null, order, 7);
+            page.content().forEach(goods -> visited.add(goods.id()));
+            while (page.hasNext()) {
+                page = goodsOperations.scroll(page.next(), order, 7);
+                page.content().forEach(goods -> visited.add(goods.id()));
+            }
+
+            assertEquals(expected, visited, "order " + order);
+        }
+    }
+
+    @Test
+    void testScrollRejectsMalformedCursor() {
+        assertThrows(ResponseStatusException.class,
+                () -> goodsOperations.scroll("not-a-cursor", GoodsScrollOrder.ID, 5));
+    }
+
+    @Test
+    void testFilterMatchesEveryCondition() {
+        var filter = new GoodsFilter(List.of(category.getId()), 11.0, 12.5, 110, null);
+
+        SliceResponse<GoodsResponse> goods = goodsOperations.filter(filter,
+                PageRequest.of(0, 10, Sort.by("price"))).goods();
+
+        // prices 11.5 and 12.5 of the weights from 110 are the goods 11, 12, 16, 17, 21, 22, 26 and 27
+        assertEquals(8, goods.content().size());
+        assertFalse(goods.hasNext());
+        assertEquals(List.of("Goods 11", "Goods 16", "Goods 21", "Goods 26"), goods.content().subList(0, 4)
+                .stream().map(GoodsResponse::name).toList());
+    }
+
+    @Test
+    void testFacetsIgnoreFilterOfTheirOwn() {
+        var milk = new Category();
+        milk.setName("Milk");
+        categoryRepository.save(milk);
+        var goods = new Goods();
+        goods.setName("Goat milk");
+        goods.setCategory(milk);
+        goods.setPrice(60);
+        goods.setWeight(1000);
+        goods.setDescription("Fresh goat milk");
+        goods.setImageName("goat.png");
+        goodsRepository.save(goods);
+        entityManager.flush();
+
+        GoodsFacetsResponse facets = goodsRepository.countFacets(
+                new GoodsFilter(List.of(category.getId()), null, 12.0, null, null));
+
+        // the categories are counted over the price filter only, the prices over the category filter only
+        assertEquals(List.of(new GoodsCategoryFacet(category.getId(), "Cheese", 12)), facets.categories());
+        assertEquals(List.of(new GoodsPriceFacet(10, 50.0, GOODS_COUNT)), facets.prices());
+
+        GoodsFacetsResponse all = goodsRepository.countFacets(new GoodsFilter(null, null, null, null, null));
+
+        assertEquals(List.of(
+                new GoodsCategoryFacet(category.getId(), "Cheese", GOODS_COUNT),
+                new GoodsCategoryFacet(milk.getId(), "Milk", 1)), all.categories());
+        assertEquals(List.of(
+                new GoodsPriceFacet(10, 50.0, GOODS_COUNT),
+                new GoodsPriceFacet(50, 100.0, 1)), all.prices());
+    }
+
+    @Test
+    void testFilterRejectsReversedRange() {
+        assertThrows(ResponseStatusException.class, () -> goodsOperations.filter(
+                new GoodsFilter(null, 20.0, 10.0, null, null), PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testDescriptionUniquenessUsesDigest() {
+        String description = "Description of goods 7";
+
+        assertTrue(goodsRepository.existsByDescription(description));
+        assertFalse(goodsRepository.existsByDescription("Description of goods"));
+        assertEquals(List.of(description), goodsRepository.findDescriptionsIn(List.of(description, "Unknown")));
+
+        var e = assertThrows(DataIntegrityViolationException.class,
+                () -> saveGoods("Another goods", description, "another.png"));
+        assertTrue(e.getMessage().contains("goods_description_hash_key"));
+    }
+
+    private void saveGoods(String name, String description, String imageName) {
+        var goods = new Goods();
+        goods.setName(name);
+        goods.setCategory(category);
+        goods.setPrice(1);
+        goods.setWeight(1);
+        goods.setDescription(description);
+        goods.setImageName(imageName);
+        goodsRepository.saveAndFlush(goods);
+    }
+
+    private long countStatements(Supplier<?> query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        query.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,234 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.config.CacheConfig;
+import com.tuleninov.serverapi.exceptions.category.CategoryExceptions;
+import com.tuleninov.serverapi.exceptions.goods.GoodsExceptions;
+import com.tuleninov.serverapi.model.category.Category;
+import com.tuleninov.serverapi.model.category.request.SaveCategoryRequest;
+import com.tuleninov.serverapi.model.category.response.CategoryListSnapshot;
+import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.EntityTags;
+import com.tuleninov.serverapi.model.goods.request.SaveGoodsRequest;
+import com.tuleninov.serverapi.model.goods.response.GoodsCategoryFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsPriceFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.repository.CategoryRepository;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.service.category.CategoryOperations;
+import com.tuleninov.serverapi.service.category.CategoryService;
+import com.tuleninov.serverapi.service.goods.ApproximateGoodsCount;
+import com.tuleninov.serverapi.service.goods.GoodsFacetCounters;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import com.tuleninov.serverapi.service.goods.GoodsOperations;
+import com.tuleninov.serverapi.service.goods.GoodsService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The goods cache runs against real commits, so the services run in their own transactions here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "custom.cache.goods.spec=maximumSize=100,recordStats"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, GoodsService.class, CategoryService.class,
+        ApproximateGoodsCount.class, GoodsNameIndex.class, GoodsFacetCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class GoodsCacheTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private GoodsOperations goodsOperations;
+    @Autowired
+    private CategoryOperations categoryOperations;
+    @Autowired
+    private GoodsRepository goodsRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private GoodsFacetCounters goodsFacetCounters;
+
+    private Category category;
+    private Goods goods;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Cheese");
+        categoryRepository.save(category);
+
+        goods = new Goods();
+        goods.setName("Brie");
+        goods.setCategory(category);
+        goods.setPrice(12.5);
+        goods.setWeight(200);
+        goods.setDescription("Soft cheese with a white rind");
+        goods.setImageName("brie.png");
+        goodsRepository.save(goods);
+    }
+
+    @AfterEach
+    void tearDown() {
+        goodsRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testFindByIdReadsDatabaseOnce() {
+        goodsOperations.findById(goods.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        GoodsResponse cached = goodsOperations.findById(goods.getId()).orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals("Brie", cached.name());
+    }
+
+    @Test
+    void testMergeEvictsGoods() {
+        goodsOperations.findById(goods.getId());
+
+        goodsOperations.mergeById(goods.getId(), new SaveGoodsRequest(
+                "Camembert", category.getId(), 14, 250, "Soft cheese from Normandy", "camembert.png"), null);
+
+        assertEquals("Camembert", goodsOperations.findById(goods.getId()).orElseThrow().name());
+    }
+
+    @Test
+    void testCategoryRenameEvictsGoodsOfCategory() {
+        goodsOperations.findById(goods.getId());
+
+        categoryOperations.mergeById(category.getId(), new SaveCategoryRequest("Soft cheese"), null);
+
+        assertEquals("Soft cheese", goodsOperations.findById(goods.getId()).orElseThrow().categoryName());
+    }
+
+    @Test
+    void testDeleteEvictsGoods() {
+        goodsOperations.findById(goods.getId());
+
+        goodsOperations.deleteById(goods.getId());
+
+        assertTrue(goodsOperations.findById(goods.getId()).isEmpty());
+    }
+
+    @Test
+    void testCategoryListSnapshotIsKeptUntilChange() {
+        CategoryListSnapshot first = categoryOperations.categoriesSnapshot();
+
+        assertSame(first, categoryOperations.categoriesSnapshot());
+
+        categoryOperations.mergeById(category.getId(), new SaveCategoryRequest("Soft cheese"), null);
+        CategoryListSnapshot renamed = categoryOperations.categoriesSnapshot();
+
+        assertNotEquals(first.etag(), renamed.etag());
+        assertEquals("Soft cheese", renamed.categories().get(0).name());
+    }
+
+    @Test
+    void testMergeResponseHasStoredVersion() {
+        GoodsResponse before = goodsOperations.findById(goods.getId()).orElseThrow();
+
+        GoodsResponse merged = goodsOperations.mergeById(goods.getId(), new SaveGoodsRequest(
+                "Camembert", category.getId(), 14, 250, "Soft cheese from Normandy", "camembert.png"), null);
+        GoodsResponse stored = goodsOperations.findById(goods.getId()).orElseThrow();
+
+        assertTrue(merged.updatedAt().isAfter(before.updatedAt()));
+        assertEquals(EntityTags.strong(merged), EntityTags.strong(stored));
+    }
+
+    @Test
+    void testMergeRefusesStaleVersion() {
+        long version = goodsOperations.findById(goods.getId()).orElseThrow().version();
+
+        GoodsResponse merged = goodsOperations.mergeById(goods.getId(), new SaveGoodsRequest(
+                "Camembert", category.getId(), 14, 250, "Soft cheese from Normandy", "camembert.png"), version);
+
+        assertEquals(version + 1, merged.version());
+        assertEquals(version + 1, goodsOperations.findById(goods.getId()).orElseThrow().version());
+
+        var e = assertThrows(ResponseStatusException.class, () -> goodsOperations.mergeById(goods.getId(),
+                new SaveGoodsRequest("Brie", category.getId(), 12.5, 200, "Soft cheese", "brie.png"), version));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals("Camembert", goodsOperations.findById(goods.getId()).orElseThrow().name());
+
+        e = assertThrows(ResponseStatusException.class, () -> categoryOperations.mergeById(category.getId(),
+                new SaveCategoryRequest("Soft cheese"), 42L));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+    }
+
+    @Test
+    void testTakenValuesAreReportedByConstraints() {
+        var e = assertThrows(ResponseStatusException.class, () -> goodsOperations.create(new SaveGoodsRequest(
+                "Camembert", category.getId(), 14, 250, "Soft cheese with a white rind", "camembert.png")));
+        assertEquals(GoodsExceptions.duplicateDescription("Soft cheese with a white rind").getReason(), e.getReason());
+
+        goodsOperations.create(new SaveGoodsRequest(
+                "Camembert", category.getId(), 14, 250, "Soft cheese from Normandy", "camembert.png"));
+        e = assertThrows(ResponseStatusException.class, () -> goodsOperations.mergeById(goods.getId(),
+                new SaveGoodsRequest("Brie", category.getId(), 12.5, 200, "Soft cheese", "camembert.png"), null));
+        assertEquals(GoodsExceptions.duplicateImageName("camembert.png").getReason(), e.getReason());
+        assertEquals("brie.png", goodsOperations.findById(goods.getId()).orElseThrow().imageName());
+
+        e = assertThrows(ResponseStatusException.class,
+                () -> categoryOperations.create(new SaveCategoryRequest("Cheese")));
+        assertEquals(CategoryExceptions.duplicateName("Cheese").getReason(), e.getReason());
+    }
+
+    @Test
+    void testFacetCountersFollowCommittedChanges() {
+        goodsFacetCounters.reconcile();
+        goodsOperations.create(new SaveGoodsRequest(
+                "Camembert", category.getId(), 60, 250, "Soft cheese from Normandy", "camembert.png"));
+
+        assertEquals(List.of(new GoodsCategoryFacet(category.getId(), "Cheese", 2)),
+                goodsOperations.facets().categories());
+        assertEquals(List.of(new GoodsPriceFacet(10, 50.0, 1), new GoodsPriceFacet(50, 100.0, 1)),
+                goodsOperations.facets().prices());
+
+        categoryOperations.deleteById(category.getId());
+
+        assertTrue(goodsOperations.facets().categories().isEmpty());
+        assertTrue(goodsOperations.facets().prices().isEmpty());
+    }
+}
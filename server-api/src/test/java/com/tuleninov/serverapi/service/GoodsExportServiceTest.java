@@ -0,0 +1,139 @@
+package com.tuleninov.serverapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuleninov.serverapi.model.category.Category;
+import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+import com.tuleninov.serverapi.model.goods.response.GoodsImportResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsResponse;
+import com.tuleninov.serverapi.repository.CategoryRepository;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.service.goods.GoodsExportOperations;
+import com.tuleninov.serverapi.service.goods.GoodsExportService;
+import com.tuleninov.serverapi.service.goods.GoodsImportOperations;
+import com.tuleninov.serverapi.service.goods.GoodsImportService;
+import com.tuleninov.serverapi.service.goods.GoodsFacetCounters;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The export opens its own read-only transaction, so the test does not run in a rolled back one.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({GoodsExportService.class, GoodsImportService.class, GoodsNameIndex.class, GoodsFacetCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class GoodsExportServiceTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private GoodsExportOperations goodsExportOperations;
+    @Autowired
+    private GoodsImportOperations goodsImportOperations;
+    @Autowired
+    private GoodsRepository goodsRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Cheese, soft");
+        categoryRepository.save(category);
+
+        saveGoods("Brie", "Soft, with a \"white\" rind");
+        saveGoods("Camembert", "Soft cheese\r\nfrom Normandy");
+    }
+
+    @AfterEach
+    void tearDown() {
+        goodsRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testExportNdjsonWritesGoodsInIdOrder() throws IOException {
+        String body = export(GoodsDataFormat.NDJSON);
+
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        GoodsResponse first = objectMapper.readValue(lines.get(0), GoodsResponse.class);
+        assertEquals("Brie", first.name());
+        assertEquals("Cheese, soft", first.categoryName());
+        assertEquals("Camembert", objectMapper.readValue(lines.get(1), GoodsResponse.class).name());
+    }
+
+    @Test
+    void testExportCsvCanBeImportedBack() throws IOException {
+        String body = export(GoodsDataFormat.CSV);
+        assertTrue(body.startsWith("id,name,categoryId,categoryName,price,weight,description,imageName\r\n"));
+        assertTrue(body.contains(",\"Cheese, soft\","));
+
+        goodsRepository.deleteAll();
+        GoodsImportResponse response = goodsImportOperations.importGoods(GoodsDataFormat.CSV,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, response.imported());
+        assertEquals(0, response.failed());
+        assertTrue(goodsRepository.existsByDescription("Soft, with a \"white\" rind"));
+        assertTrue(goodsRepository.existsByDescription("Soft cheese\r\nfrom Normandy"));
+    }
+
+    private String export(GoodsDataFormat format) throws IOException {
+        var body = new ByteArrayOutputStream();
+        goodsExportOperations.exportGoods(format, body);
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private void saveGoods(String name, String description) {
+        var goods = new Goods();
+        goods.setName(name);
+        goods.setCategory(category);
+        goods.setPrice(12.5);
+        goods.setWeight(200);
+        goods.setDescription(description);
+        goods.setImageName(name.toLowerCase() + ".png");
+        goodsRepository.save(goods);
+    }
+}
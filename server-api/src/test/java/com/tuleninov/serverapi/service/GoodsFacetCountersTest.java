@@ -0,0 +1,92 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.model.goods.GoodsFacetCount;
+import com.tuleninov.serverapi.model.goods.response.GoodsCategoryFacet;
+import com.tuleninov.serverapi.model.goods.response.GoodsFacetsResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsPriceFacet;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.service.goods.GoodsFacetCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GoodsFacetCountersTest {
+
+    private GoodsRepository goodsRepository;
+    private GoodsFacetCounters goodsFacetCounters;
+
+    @BeforeEach
+    void setUp() {
+        goodsRepository = mock(GoodsRepository.class);
+        when(goodsRepository.countByCategoryAndPriceBucket()).thenReturn(List.of(
+                new GoodsFacetCount(1, "Cheese", 1, 3),
+                new GoodsFacetCount(1, "Cheese", 2, 1),
+                new GoodsFacetCount(2, "Milk", 0, 2)));
+        goodsFacetCounters = new GoodsFacetCounters(goodsRepository);
+        goodsFacetCounters.load();
+    }
+
+    @Test
+    public void testLoadSumsCategoriesAndPriceBuckets() {
+        GoodsFacetsResponse facets = goodsFacetCounters.facets();
+
+        assertEquals(List.of(
+                new GoodsCategoryFacet(1, "Cheese", 4),
+                new GoodsCategoryFacet(2, "Milk", 2)), facets.categories());
+        assertEquals(List.of(
+                new GoodsPriceFacet(0, 10.0, 2),
+                new GoodsPriceFacet(10, 50.0, 3),
+                new GoodsPriceFacet(50, 100.0, 1)), facets.prices());
+        assertSame(facets, goodsFacetCounters.facets());
+    }
+
+    @Test
+    public void testChangesMoveCounts() {
+        goodsFacetCounters.add(new GoodsFacetCounters.Entry(3, "Butter", 1000));
+        goodsFacetCounters.replace(
+                new GoodsFacetCounters.Entry(2, "Milk", 5),
+                new GoodsFacetCounters.Entry(1, "Cheese", 20));
+        goodsFacetCounters.remove(new GoodsFacetCounters.Entry(2, "Milk", 5));
+
+        GoodsFacetsResponse facets = goodsFacetCounters.facets();
+
+        assertEquals(List.of(
+                new GoodsCategoryFacet(3, "Butter", 1),
+                new GoodsCategoryFacet(1, "Cheese", 5)), facets.categories());
+        assertEquals(List.of(
+                new GoodsPriceFacet(10, 50.0, 4),
+                new GoodsPriceFacet(50, 100.0, 1),
+                new GoodsPriceFacet(1000, null, 1)), facets.prices());
+    }
+
+    @Test
+    public void testCategoryChangesKeepPriceBucketsInStep() {
+        goodsFacetCounters.renameCategory(1, "Hard cheese");
+        goodsFacetCounters.removeCategory(2);
+
+        GoodsFacetsResponse facets = goodsFacetCounters.facets();
+
+        assertEquals(List.of(new GoodsCategoryFacet(1, "Hard cheese", 4)), facets.categories());
+        assertEquals(List.of(
+                new GoodsPriceFacet(10, 50.0, 3),
+                new GoodsPriceFacet(50, 100.0, 1)), facets.prices());
+    }
+
+    @Test
+    public void testReconcileRepairsDrift() {
+        goodsFacetCounters.add(new GoodsFacetCounters.Entry(2, "Milk", 1));
+        when(goodsRepository.countByCategoryAndPriceBucket()).thenReturn(List.of(
+                new GoodsFacetCount(2, "Milk", 0, 1)));
+
+        goodsFacetCounters.reconcile();
+
+        assertEquals(List.of(new GoodsCategoryFacet(2, "Milk", 1)), goodsFacetCounters.facets().categories());
+        assertEquals(List.of(new GoodsPriceFacet(0, 10.0, 1)), goodsFacetCounters.facets().prices());
+    }
+}
@@ -0,0 +1,161 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.model.category.Category;
+import com.tuleninov.serverapi.model.goods.GoodsDataFormat;
+import com.tuleninov.serverapi.model.goods.response.GoodsImportError;
+import com.tuleninov.serverapi.model.goods.response.GoodsImportResponse;
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
+import com.tuleninov.serverapi.repository.CategoryRepository;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.service.goods.GoodsImportOperations;
+import com.tuleninov.serverapi.service.goods.GoodsImportService;
+import com.tuleninov.serverapi.service.goods.GoodsFacetCounters;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The import commits every chunk in its own transaction, so the test does not run in a rolled back one.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({GoodsImportService.class, GoodsNameIndex.class, GoodsFacetCounters.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class GoodsImportServiceTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private GoodsImportOperations goodsImportOperations;
+    @Autowired
+    private GoodsNameIndex goodsNameIndex;
+    @Autowired
+    private GoodsRepository goodsRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Cheese");
+        categoryRepository.save(category);
+        goodsNameIndex.replaceAll(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        goodsRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testImportNdjsonReportsFailedLines() {
+        String body = """
+                {"name": "Brie", "categoryId": %1$d, "price": 12.5, "weight": 200, "description": "Soft cheese with a white rind", "imageName": "brie.png"}
+
+                {"name": "Camembert", "categoryId": %1$d, "price": 14, "weight": 250, "description": "Soft cheese from Normandy", "imageName": "camembert.png"}
+                {"name": "Brie", "categoryId": %1$d, "price": 13, "weight": 200, "description": "Another soft cheese", "imageName": "brie2.png"}
+                {"name": "Gouda", "categoryId": %1$d, "price": 0, "weight": 500, "description": "Dutch yellow cheese", "imageName": "gouda.png"}
+                {"name": "Feta", "categoryId": 0, "price": 8, "weight": 200, "description": "Greek brined cheese", "imageName": "feta.png"}
+                {"name": "Edam"
+                """.formatted(category.getId());
+
+        GoodsImportResponse response = goodsImportOperations.importGoods(GoodsDataFormat.NDJSON, stream(body));
+
+        assertEquals(2, response.imported());
+        assertEquals(4, response.failed());
+        assertEquals(List.of(4L, 5L, 6L, 7L), response.errors().stream().map(GoodsImportError::line).toList());
+        assertEquals("Name 'Brie' already taken", response.errors().get(0).message());
+        assertEquals("the price of goods should be greater then 0.0", response.errors().get(1).message());
+        assertEquals("Category with id '0' not found", response.errors().get(2).message());
+        assertTrue(response.errors().get(3).message().startsWith("the line is not valid JSON"));
+        assertEquals(2, goodsRepository.count());
+        assertEquals(List.of("Brie"), goodsNameIndex.suggest("br", 10).stream().map(GoodsSuggestResponse::name).toList());
+    }
+
+    @Test
+    void testImportCsvWithQuotedFields() {
+        String body = "imageName,name,price,weight,categoryId,description\r\n" +
+                "brie.png,Brie,12.5,200," + category.getId() + ",\"Soft, with a \"\"white\"\" rind\"\r\n" +
+                "camembert.png,Camembert,14,250," + category.getId() + ",\"Soft cheese\nfrom Normandy\"\r\n" +
+                "gouda.png,Gouda,ten,500," + category.getId() + ",Dutch yellow cheese\r\n" +
+                "feta.png,Feta,8,200\r\n";
+
+        GoodsImportResponse response = goodsImportOperations.importGoods(GoodsDataFormat.CSV, stream(body));
+
+        assertEquals(2, response.imported());
+        assertEquals(List.of(5L, 6L), response.errors().stream().map(GoodsImportError::line).toList());
+        assertTrue(goodsRepository.existsByDescription("Soft, with a \"white\" rind"));
+        assertTrue(goodsRepository.existsByDescription("Soft cheese\nfrom Normandy"));
+    }
+
+    @Test
+    void testImportCsvWithoutColumnsIsRejected() {
+        var e = assertThrows(ResponseStatusException.class, () -> goodsImportOperations.importGoods(
+                GoodsDataFormat.CSV, stream("name,price\nBrie,12.5\n")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void testImportFindsDuplicatesInEarlierChunks() {
+        var body = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            body.append("""
+                    {"name": "Goods %d", "categoryId": %d, "price": 1, "weight": 1, "description": "Description %d", "imageName": "image%d.png"}
+                    """.formatted(i, category.getId(), i, i));
+        }
+        body.append("""
+                {"name": "Goods 7", "categoryId": %d, "price": 1, "weight": 1, "description": "Description x", "imageName": "imagex.png"}
+                """.formatted(category.getId()));
+
+        GoodsImportResponse response = goodsImportOperations.importGoods(GoodsDataFormat.NDJSON, stream(body.toString()));
+
+        assertEquals(1500, response.imported());
+        assertEquals(List.of(new GoodsImportError(1501, "Name 'Goods 7' already taken")), response.errors());
+        assertEquals(1500, goodsNameIndex.size());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
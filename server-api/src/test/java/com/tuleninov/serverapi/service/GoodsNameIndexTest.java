@@ -0,0 +1,111 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.model.goods.response.GoodsSuggestResponse;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.service.goods.GoodsNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GoodsNameIndexTest {
+
+    private static final List<GoodsSuggestResponse> NAMES = List.of(
+            new GoodsSuggestResponse(1, "Cheddar"),
+            new GoodsSuggestResponse(2, "cheese Brie"),
+            new GoodsSuggestResponse(3, "Camembert"),
+            new GoodsSuggestResponse(4, "Cheese Gouda"),
+            new GoodsSuggestResponse(5, "Milk"));
+
+    private GoodsRepository goodsRepository;
+    private GoodsNameIndex goodsNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        goodsRepository = mock(GoodsRepository.class);
+        when(goodsRepository.findAllNames()).thenReturn(NAMES);
+        goodsNameIndex = new GoodsNameIndex(goodsRepository);
+        goodsNameIndex.load();
+    }
+
+    @Test
+    public void testChangesCommittedWhileLoadingAreKept() {
+        when(goodsRepository.findAllNames()).thenAnswer(invocation -> {
+            // the changes commit after the names have been read
+            goodsNameIndex.put(6, "Cheese Feta");
+            goodsNameIndex.removeAll(List.of(5));
+            return NAMES;
+        });
+
+        goodsNameIndex.load();
+
+        assertEquals(List.of(
+                new GoodsSuggestResponse(1, "Cheddar"),
+                new GoodsSuggestResponse(2, "cheese Brie"),
+                new GoodsSuggestResponse(6, "Cheese Feta"),
+                new GoodsSuggestResponse(4, "Cheese Gouda")), goodsNameIndex.suggest("che", 10));
+        assertTrue(goodsNameIndex.suggest("mi", 10).isEmpty());
+        assertEquals(5, goodsNameIndex.size());
+    }
+
+    @Test
+    public void testSuggestIgnoresCaseAndKeepsNameOrder() {
+        List<GoodsSuggestResponse> suggestions = goodsNameIndex.suggest(" CHE", 10);
+
+        assertEquals(List.of(
+                new GoodsSuggestResponse(1, "Cheddar"),
+                new GoodsSuggestResponse(2, "cheese Brie"),
+                new GoodsSuggestResponse(4, "Cheese Gouda")), suggestions);
+    }
+
+    @Test
+    public void testSuggestRespectsLimit() {
+        assertEquals(2, goodsNameIndex.suggest("c", 2).size());
+        assertTrue(goodsNameIndex.suggest("c", 0).isEmpty());
+        assertTrue(goodsNameIndex.suggest(" ", 10).isEmpty());
+        assertTrue(goodsNameIndex.suggest("zzz", 10).isEmpty());
+    }
+
+    @Test
+    public void testPutAddsAndRenamesGoods() {
+        goodsNameIndex.put(6, "Cheese Feta");
+        goodsNameIndex.put(1, "Mozzarella");
+
+        assertEquals(List.of(
+                new GoodsSuggestResponse(2, "cheese Brie"),
+                new GoodsSuggestResponse(6, "Cheese Feta"),
+                new GoodsSuggestResponse(4, "Cheese Gouda")), goodsNameIndex.suggest("che", 10));
+        assertEquals(List.of(new GoodsSuggestResponse(1, "Mozzarella")), goodsNameIndex.suggest("mo", 10));
+        assertEquals(6, goodsNameIndex.size());
+    }
+
+    @Test
+    public void testRemoveAllDropsGoods() {
+        goodsNameIndex.removeAll(List.of(2, 4, 42));
+
+        assertEquals(List.of(new GoodsSuggestResponse(1, "Cheddar")), goodsNameIndex.suggest("che", 10));
+        assertEquals(3, goodsNameIndex.size());
+    }
+
+    @Test
+    public void testPutAllMergesGoods() {
+        goodsNameIndex.putAll(List.of(
+                new GoodsSuggestResponse(7, "Cheese Feta"),
+                new GoodsSuggestResponse(6, "Camembert"),
+                new GoodsSuggestResponse(2, "Brie")));
+
+        assertEquals(List.of(new GoodsSuggestResponse(2, "Brie")), goodsNameIndex.suggest("b", 10));
+        assertEquals(List.of(
+                new GoodsSuggestResponse(3, "Camembert"),
+                new GoodsSuggestResponse(6, "Camembert"),
+                new GoodsSuggestResponse(1, "Cheddar"),
+                new GoodsSuggestResponse(7, "Cheese Feta"),
+                new GoodsSuggestResponse(4, "Cheese Gouda")), goodsNameIndex.suggest("c", 10));
+        assertEquals(7, goodsNameIndex.size());
+    }
+}
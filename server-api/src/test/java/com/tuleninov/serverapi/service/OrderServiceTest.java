@@ -0,0 +1,235 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.model.category.Category;
+import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.order.request.CreateOrderRequest;
+import com.tuleninov.serverapi.model.order.response.OrderItemResponse;
+import com.tuleninov.serverapi.model.order.response.OrderResponse;
+import com.tuleninov.serverapi.model.stock.request.ReserveStockRequest;
+import com.tuleninov.serverapi.model.stock.request.SaveStockRequest;
+import com.tuleninov.serverapi.model.user.CustomUser;
+import com.tuleninov.serverapi.repository.CategoryRepository;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.repository.OrderRepository;
+import com.tuleninov.serverapi.repository.StockReservationRepository;
+import com.tuleninov.serverapi.repository.UserRepository;
+import com.tuleninov.serverapi.service.order.OrderOperations;
+import com.tuleninov.serverapi.service.order.OrderService;
+import com.tuleninov.serverapi.service.stock.StockCounters;
+import com.tuleninov.serverapi.service.stock.StockHolds;
+import com.tuleninov.serverapi.service.stock.StockOperations;
+import com.tuleninov.serverapi.service.stock.StockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The checkouts race each other for real, so the service runs in its own transactions here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, StockService.class, StockCounters.class, StockHolds.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderServiceTest {
+
+    private static final String EMAIL = "buyer@example.com";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private OrderOperations orderOperations;
+    @Autowired
+    private StockOperations stockOperations;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GoodsRepository goodsRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    private Goods brie;
+    private Goods camembert;
+
+    @BeforeEach
+    void setUp() {
+        var user = new CustomUser();
+        user.setEmail(EMAIL);
+        user.setNickname("buyer");
+        user.setPassword("password");
+        user.setCreatedAt(OffsetDateTime.now());
+        userRepository.save(user);
+
+        var category = new Category();
+        category.setName("Cheese");
+        categoryRepository.save(category);
+
+        brie = saveGoods(category, "Brie", 12.5, "brie.png");
+        camembert = saveGoods(category, "Camembert", 14.1, "camembert.png");
+    }
+
+    private Goods saveGoods(Category category, String name, double price, String imageName) {
+        var goods = new Goods();
+        goods.setName(name);
+        goods.setCategory(category);
+        goods.setPrice(price);
+        goods.setWeight(200);
+        goods.setDescription("Soft cheese " + name);
+        goods.setImageName(imageName);
+        goodsRepository.save(goods);
+        stockOperations.setStock(goods.getId(), new SaveStockRequest(100));
+        return goods;
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        goodsRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    private UUID reserve(Goods goods, int quantity) {
+        return stockOperations.reserve(EMAIL, new ReserveStockRequest(goods.getId(), quantity)).id();
+    }
+
+    private static CreateOrderRequest request(List<UUID> reservationIds) {
+        return new CreateOrderRequest(reservationIds, "Jean", "Dupont", EMAIL, "+380501234567", "Kyiv", null);
+    }
+
+    @Test
+    void testOrderKeepsPricesOfCheckout() {
+        List<UUID> cart = List.of(reserve(brie, 1), reserve(camembert, 3), reserve(brie, 1));
+
+        OrderResponse order = orderOperations.create(EMAIL, null, request(cart), null);
+
+        assertEquals(List.of(
+                new OrderItemResponse(brie.getId(), "Brie", 12.5, 2),
+                new OrderItemResponse(camembert.getId(), "Camembert", 14.1, 3)), order.items());
+        assertEquals(67.3, order.total());
+        assertEquals(0, reservationRepository.count());
+        assertEquals(98, stockOperations.findStock(brie.getId()).orElseThrow().stock());
+        assertEquals(97, stockOperations.findStock(camembert.getId()).orElseThrow().stock());
+
+        goodsRepository.findById(brie.getId()).ifPresent(goods -> {
+            goods.setPrice(99);
+            goodsRepository.save(goods);
+        });
+        assertEquals(order, orderOperations.findById(EMAIL, order.id()).orElseThrow());
+    }
+
+    @Test
+    void testRepeatedCheckoutGetsTheSameOrder() {
+        List<UUID> cart = List.of(reserve(brie, 2));
+        OrderResponse first = orderOperations.create(EMAIL, null, request(cart), "checkout-1");
+
+        OrderResponse repeated = orderOperations.create(EMAIL, null, request(cart), "checkout-1");
+
+        assertEquals(first, repeated);
+        assertEquals(1, orderRepository.count());
+
+        var e = assertThrows(ResponseStatusException.class,
+                () -> orderOperations.create(EMAIL, null, request(cart), "checkout-2"));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void testConcurrentDuplicateCheckoutsPlaceOneOrder() throws Exception {
+        List<UUID> cart = List.of(reserve(brie, 1), reserve(camembert, 1));
+        var start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<OrderResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return orderOperations.create(EMAIL, null, request(cart), "double-click");
+                }));
+            }
+            start.countDown();
+            var ids = new HashSet<Long>();
+            for (Future<OrderResponse> future : futures) {
+                ids.add(future.get().id());
+            }
+            assertEquals(1, ids.size());
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void testReleasedReservationFailsCheckout() {
+        UUID kept = reserve(brie, 1);
+        UUID released = reserve(camembert, 1);
+        stockOperations.release(released, EMAIL, false);
+
+        var e = assertThrows(ResponseStatusException.class,
+                () -> orderOperations.create(EMAIL, null, request(List.of(kept, released)), null));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(0, orderRepository.count());
+        assertEquals(1, reservationRepository.count());
+    }
+
+    @Test
+    void testReservationOfAnotherHolderFailsCheckout() {
+        UUID cartId = UUID.randomUUID();
+        UUID ofCart = stockOperations.reserve("cart:" + cartId, new ReserveStockRequest(brie.getId(), 1)).id();
+        UUID ofOther = stockOperations.reserve("other@example.com", new ReserveStockRequest(camembert.getId(), 1)).id();
+
+        var e = assertThrows(ResponseStatusException.class,
+                () -> orderOperations.create(EMAIL, null, request(List.of(ofCart)), null));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        e = assertThrows(ResponseStatusException.class,
+                () -> orderOperations.create(EMAIL, cartId, request(List.of(ofCart, ofOther)), null));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(0, orderRepository.count());
+        assertEquals(2, reservationRepository.count());
+
+        OrderResponse order = orderOperations.create(EMAIL, cartId, request(List.of(ofCart)), null);
+        assertEquals(List.of(new OrderItemResponse(brie.getId(), "Brie", 12.5, 1)), order.items());
+        assertEquals(1, reservationRepository.count());
+    }
+}
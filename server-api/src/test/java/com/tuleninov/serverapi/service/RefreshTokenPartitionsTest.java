@@ -0,0 +1,171 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.config.security.JWTVerification;
+import com.tuleninov.serverapi.config.security.properties.CustomSecurityProperties;
+import com.tuleninov.serverapi.exceptions.auth.InvalidRefreshTokenException;
+import com.tuleninov.serverapi.model.auth.CustomUserDetails;
+import com.tuleninov.serverapi.model.auth.RefreshToken;
+import com.tuleninov.serverapi.model.auth.response.AccessTokenResponse;
+import com.tuleninov.serverapi.model.user.CustomUser;
+import com.tuleninov.serverapi.model.user.KnownAuthority;
+import com.tuleninov.serverapi.repository.AuthorityRepository;
+import com.tuleninov.serverapi.repository.RefreshTokenRepository;
+import com.tuleninov.serverapi.repository.UserRepository;
+import com.tuleninov.serverapi.service.auth.AuthOperations;
+import com.tuleninov.serverapi.service.auth.JWTAuthService;
+import com.tuleninov.serverapi.service.auth.RefreshTokenPartitions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The partitions are created and dropped by the schema changes that commit, so the services run
+ * in their own transactions here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RefreshTokenPartitions.class, JWTAuthService.class, JWTVerification.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RefreshTokenPartitionsTest {
+
+    private static final DateTimeFormatter PARTITION_DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(CustomSecurityProperties.class)
+    static class SecurityPropertiesConfig {
+    }
+
+    @Autowired
+    private RefreshTokenPartitions refreshTokenPartitions;
+    @Autowired
+    private AuthOperations authOperations;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AuthorityRepository authorityRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CustomUser user;
+
+    @BeforeEach
+    void setUp() {
+        user = new CustomUser();
+        user.setEmail("user@example.com");
+        user.setNickname("user");
+        user.setPassword("password");
+        user.setCreatedAt(OffsetDateTime.now());
+        user.getAuthorities().put(KnownAuthority.ROLE_USER,
+                authorityRepository.findById(KnownAuthority.ROLE_USER).orElseThrow());
+        userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private String partition(OffsetDateTime expireAt) {
+        String name = "refresh_tokens_" + expireAt.withOffsetSameInstant(ZoneOffset.UTC).format(PARTITION_DAY);
+        return jdbcTemplate.queryForObject("select to_regclass(?)::text", String.class, name);
+    }
+
+    private void saveToken(OffsetDateTime expireAt) {
+        var token = new RefreshToken();
+        token.setUser(user);
+        token.setFamilyId(UUID.randomUUID());
+        token.setIssuedAt(expireAt.minusDays(3));
+        token.setExpireAt(expireAt);
+        refreshTokenRepository.save(token);
+    }
+
+    @Test
+    void testMaintainCreatesComingPartitionsAndDropsExpiredOnes() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime longAgo = now.minusDays(20);
+        refreshTokenPartitions.maintain(longAgo);
+        saveToken(longAgo.plusHours(1));
+        saveToken(now.plusDays(1));
+
+        assertNotNull(partition(longAgo));
+
+        refreshTokenPartitions.maintain(now);
+
+        assertNull(partition(longAgo));
+        assertNotNull(partition(now));
+        // the longest refresh token of the tests lives for 3 days, the partitions are created a week further
+        assertNotNull(partition(now.plusDays(10)));
+        assertEquals(1, refreshTokenRepository.count());
+    }
+
+    @Test
+    void testRefreshFindsTokenInItsPartitionAndReuseInvalidatesChain() throws InvalidRefreshTokenException {
+        refreshTokenPartitions.maintain();
+        AccessTokenResponse first = authOperations.getToken(new CustomUserDetails(user));
+
+        AccessTokenResponse second = authOperations.refreshToken(first.refreshToken());
+        assertNotNull(second.refreshToken());
+        assertEquals(2, refreshTokenRepository.count());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authOperations.refreshToken(first.refreshToken()));
+        assertEquals(0, refreshTokenRepository.count());
+        assertThrows(InvalidRefreshTokenException.class, () -> authOperations.refreshToken(second.refreshToken()));
+    }
+
+    @Test
+    void testReusedTokenInvalidatesOnlyItsFamily() throws InvalidRefreshTokenException {
+        refreshTokenPartitions.maintain();
+        AccessTokenResponse laptop = authOperations.getToken(new CustomUserDetails(user));
+        AccessTokenResponse phone = authOperations.getToken(new CustomUserDetails(user));
+
+        AccessTokenResponse laptopNext = authOperations.refreshToken(laptop.refreshToken());
+        authOperations.refreshToken(laptopNext.refreshToken());
+        AccessTokenResponse phoneNext = authOperations.refreshToken(phone.refreshToken());
+        assertEquals(5, refreshTokenRepository.count());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authOperations.refreshToken(laptop.refreshToken()));
+        assertEquals(2, refreshTokenRepository.count());
+
+        authOperations.invalidateToken(phoneNext.refreshToken(), user.getEmail());
+        assertEquals(0, refreshTokenRepository.count());
+    }
+}
@@ -0,0 +1,132 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.model.auth.RefreshToken;
+import com.tuleninov.serverapi.model.user.CustomUser;
+import com.tuleninov.serverapi.model.user.UserStatus;
+import com.tuleninov.serverapi.repository.RefreshTokenRepository;
+import com.tuleninov.serverapi.repository.UserRepository;
+import com.tuleninov.serverapi.service.auth.RefreshTokenPruner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The pruner commits its batches and takes a lock that lives in the database, so it runs in its own transactions here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "custom.security.refresh-prune-batch=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RefreshTokenPruner.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RefreshTokenPrunerTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private RefreshTokenPruner refreshTokenPruner;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        CustomUser active = saveUser("active@example.com", UserStatus.ACTIVE);
+        CustomUser suspended = saveUser("suspended@example.com", UserStatus.SUSPENDED);
+
+        for (int i = 0; i < 2; i++) saveToken(active);
+        for (int i = 0; i < 3; i++) saveToken(suspended);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private CustomUser saveUser(String email, UserStatus status) {
+        var user = new CustomUser();
+        user.setEmail(email);
+        user.setNickname(email.substring(0, email.indexOf('@')));
+        user.setPassword("password");
+        user.setCreatedAt(OffsetDateTime.now());
+        user.setStatus(status);
+        return userRepository.save(user);
+    }
+
+    private void saveToken(CustomUser user) {
+        var token = new RefreshToken();
+        token.setUser(user);
+        token.setFamilyId(UUID.randomUUID());
+        token.setIssuedAt(OffsetDateTime.now());
+        token.setExpireAt(OffsetDateTime.now().plusDays(1));
+        refreshTokenRepository.save(token);
+    }
+
+    private double pruned() {
+        return meterRegistry.get("refresh_tokens.pruned").tag("reason", "suspended").counter().count();
+    }
+
+    @Test
+    void testPruneDeletesTokensOfSuspendedUsersInBatches() {
+        double suspended = pruned();
+
+        assertEquals(3, refreshTokenPruner.prune());
+
+        assertEquals(2, refreshTokenRepository.count());
+        assertEquals(3, pruned() - suspended);
+
+        assertEquals(0, refreshTokenPruner.prune());
+    }
+
+    @Test
+    void testPruneIsSkippedWhileAnotherInstanceHoldsLock() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("select pg_advisory_lock(hashtext('refresh_tokens_prune'))");
+            double skipped = meterRegistry.get("refresh_tokens.prune.skipped").counter().count();
+
+            assertEquals(0, refreshTokenPruner.prune());
+            assertEquals(5, refreshTokenRepository.count());
+            assertEquals(1, meterRegistry.get("refresh_tokens.prune.skipped").counter().count() - skipped);
+
+            statement.execute("select pg_advisory_unlock(hashtext('refresh_tokens_prune'))");
+        }
+
+        assertEquals(3, refreshTokenPruner.prune());
+    }
+}
@@ -0,0 +1,255 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.model.category.Category;
+import com.tuleninov.serverapi.model.goods.Goods;
+import com.tuleninov.serverapi.model.stock.request.ReserveStockRequest;
+import com.tuleninov.serverapi.model.stock.request.SaveStockRequest;
+import com.tuleninov.serverapi.model.stock.response.StockReservationResponse;
+import com.tuleninov.serverapi.repository.CategoryRepository;
+import com.tuleninov.serverapi.repository.GoodsRepository;
+import com.tuleninov.serverapi.repository.StockReservationRepository;
+import com.tuleninov.serverapi.service.stock.StockCounters;
+import com.tuleninov.serverapi.service.stock.StockHolds;
+import com.tuleninov.serverapi.service.stock.StockOperations;
+import com.tuleninov.serverapi.service.stock.StockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The reservations race each other for real, so the service runs in its own transactions here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({StockService.class, StockCounters.class, StockHolds.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockServiceTest {
+
+    private static final int STOCK = 500;
+    private static final int RESERVATIONS = 4000;
+    private static final int THREADS = 32;
+    // the shop holds the goods for the carts of its guests, every cart is a holder of its own
+    private static final String CART = "cart:" + UUID.randomUUID();
+    private static final String USER = "user@example.com";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer =
+            new PostgreSQLContainer<>("postgres:latest");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+    }
+
+    @Autowired
+    private StockOperations stockOperations;
+    @Autowired
+    private StockCounters stockCounters;
+    @Autowired
+    private GoodsRepository goodsRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private StockHolds stockHolds;
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Goods goods;
+
+    @BeforeEach
+    void setUp() {
+        var category = new Category();
+        category.setName("Cheese");
+        categoryRepository.save(category);
+
+        goods = new Goods();
+        goods.setName("Brie");
+        goods.setCategory(category);
+        goods.setPrice(12.5);
+        goods.setWeight(200);
+        goods.setDescription("Soft cheese with a white rind");
+        goods.setImageName("brie.png");
+        goodsRepository.save(goods);
+
+        stockOperations.setStock(goods.getId(), new SaveStockRequest(STOCK));
+    }
+
+    @AfterEach
+    void tearDown() {
+        goodsRepository.deleteAll();
+        categoryRepository.deleteAll();
+        stockCounters.reconcile();
+    }
+
+    @Test
+    void testParallelReservationsNeverOversell() throws Exception {
+        var reserved = new AtomicInteger();
+        var refused = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < RESERVATIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        stockOperations.reserve("cart:" + UUID.randomUUID(), new ReserveStockRequest(goods.getId(), 1));
+                        reserved.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        assertEquals(STOCK, reserved.get());
+        assertEquals(RESERVATIONS - STOCK, refused.get());
+        assertEquals(0, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+        assertEquals(STOCK, reservationRepository.count());
+    }
+
+    @Test
+    void testReleaseGivesGoodsBackOnce() {
+        StockReservationResponse reservation =
+                stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 200));
+        StockReservationResponse committed =
+                stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 300));
+
+        var e = assertThrows(ResponseStatusException.class,
+                () -> stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 1)));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+
+        stockOperations.release(reservation.id(), CART, false);
+        stockOperations.commit(committed.id());
+
+        assertEquals(200, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+        e = assertThrows(ResponseStatusException.class, () -> stockOperations.release(reservation.id(), CART, false));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        e = assertThrows(ResponseStatusException.class, () -> stockOperations.release(committed.id(), CART, false));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        assertEquals(200, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+
+        stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 200));
+        assertEquals(0, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+    }
+
+    @Test
+    void testDatabaseRefusesReservationWhenCounterIsAhead() {
+        stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 1));
+        // another server sold the rest of the stock
+        transactionTemplate.executeWithoutResult(status -> goodsRepository.updateStock(goods.getId(), 10));
+
+        var e = assertThrows(ResponseStatusException.class,
+                () -> stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 100)));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+        assertEquals(10, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+
+        // the counter has taken the stock of the database
+        assertThrows(ResponseStatusException.class,
+                () -> stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 11)));
+        stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 10));
+        assertEquals(0, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+    }
+
+    @Test
+    void testExpiredHoldsAreReleased() {
+        StockReservationResponse expired =
+                stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 100));
+        StockReservationResponse committed =
+                stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 50));
+        stockOperations.commit(committed.id());
+
+        stockHolds.expire(expired.expireAt().toInstant().minusSeconds(1));
+        assertEquals(350, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+
+        stockHolds.expire(expired.expireAt().toInstant().plusSeconds(1));
+        assertEquals(450, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+        assertEquals(0, reservationRepository.count());
+        var e = assertThrows(ResponseStatusException.class, () -> stockOperations.release(expired.id(), CART, false));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+
+        // the counter has got the released goods back
+        stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 450));
+    }
+
+    @Test
+    void testHoldsAreRecoveredFromDatabase() {
+        StockReservationResponse reservation =
+                stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 100));
+
+        // a new wheel after a restart knows nothing of the reservation until it is recovered
+        var restarted = new StockHolds(reservationRepository, stockCounters, stockHolds.ttl(), Duration.ofSeconds(1));
+        restarted.recover();
+        assertEquals(1, restarted.size());
+
+        restarted.expire(Instant.now().plus(stockHolds.ttl()).plusSeconds(1));
+        assertEquals(STOCK, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+        assertEquals(0, reservationRepository.count());
+        assertEquals(reservation.expireAt().toInstant(), reservation.createdAt().plus(stockHolds.ttl()).toInstant());
+    }
+
+    @Test
+    void testHoldsOfUserAreLimited() {
+        List<UUID> holds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            holds.add(stockOperations.reserve(USER, new ReserveStockRequest(goods.getId(), 1)).id());
+        }
+
+        var e = assertThrows(ResponseStatusException.class,
+                () -> stockOperations.reserve(USER, new ReserveStockRequest(goods.getId(), 1)));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        assertEquals(STOCK - 20, stockOperations.findStock(goods.getId()).orElseThrow().stock());
+
+        // the hold of the user is not found by another one
+        e = assertThrows(ResponseStatusException.class,
+                () -> stockOperations.release(holds.get(0), "other@example.com", false));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+
+        stockOperations.release(holds.get(0), USER, false);
+        stockOperations.reserve(USER, new ReserveStockRequest(goods.getId(), 1));
+        stockOperations.reserve(CART, new ReserveStockRequest(goods.getId(), 1));
+    }
+}
@@ -0,0 +1,78 @@
+package com.tuleninov.serverapi.service;
+
+import com.tuleninov.serverapi.service.stock.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testKeysExpireAtTheirTick() {
+        var wheel = new TimingWheel<String>(Duration.ofSeconds(1), 0);
+        wheel.schedule("soon", 1_500);
+        wheel.schedule("later", 70_000);
+        wheel.schedule("much later", 5_000_000);
+
+        assertTrue(wheel.advance(1_999).isEmpty());
+        assertEquals(List.of("soon"), wheel.advance(2_000));
+        assertTrue(wheel.advance(69_999).isEmpty());
+        assertEquals(List.of("later"), wheel.advance(70_000));
+        assertTrue(wheel.advance(4_999_999).isEmpty());
+        assertEquals(List.of("much later"), wheel.advance(5_000_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCancelAndRescheduleMoveTheKey() {
+        var wheel = new TimingWheel<String>(Duration.ofSeconds(1), 0);
+        wheel.schedule("released", 10_000);
+        wheel.schedule("moved", 10_000);
+
+        assertTrue(wheel.cancel("released"));
+        assertFalse(wheel.cancel("released"));
+        wheel.schedule("moved", 20_000);
+
+        assertTrue(wheel.advance(19_000).isEmpty());
+        assertEquals(List.of("moved"), wheel.advance(20_000));
+    }
+
+    @Test
+    public void testPastDeadlineExpiresOnNextAdvance() {
+        var wheel = new TimingWheel<String>(Duration.ofSeconds(1), 100_000);
+        wheel.schedule("overdue", 50_000);
+
+        assertEquals(List.of("overdue"), wheel.advance(100_000));
+    }
+
+    @Test
+    public void testRandomDeadlinesNeverExpireEarlyOrLate() {
+        var wheel = new TimingWheel<Integer>(Duration.ofMillis(10), 0);
+        var random = new Random(42);
+        long[] deadlines = new long[10_000];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = random.nextInt(50_000_000);
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        var expired = new ArrayList<Integer>();
+        for (long now = 0; now <= 50_000_000; now += 1_000 + random.nextInt(100_000)) {
+            for (int key : wheel.advance(now)) {
+                assertTrue(deadlines[key] <= now, "expired early: " + key);
+                assertTrue(deadlines[key] > now - 101_000 - 10, "expired late: " + key);
+                expired.add(key);
+            }
+        }
+        expired.addAll(wheel.advance(50_000_000));
+
+        assertEquals(deadlines.length, expired.size());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -13,13 +13,17 @@ import com.tuleninov.serverapi.model.user.response.UserResponse;
 import com.tuleninov.serverapi.repository.AuthorityRepository;
 import com.tuleninov.serverapi.repository.UserRepository;
 import com.tuleninov.serverapi.service.user.UserService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -246,9 +250,7 @@ public class UserServiceTest {
         user.getAuthorities().put(KnownAuthority.ROLE_USER, userAuthority);
 
         when(authorityRepository.findById(KnownAuthority.ROLE_USER)).thenReturn(Optional.of(userAuthority));
-        when(userRepository.existsByEmail(request.email())).thenReturn(false);
-        when(userRepository.existsByNickname(request.nickname())).thenReturn(false);
-        when(userRepository.save(notNull())).thenAnswer(invocation -> {
+        when(userRepository.saveAndFlush(notNull())).thenAnswer(invocation -> {
             CustomUser entity = invocation.getArgument(0);
             assertThat(entity.getId()).isNull();
             assertThat(entity.getEmail()).isEqualTo(request.email());
@@ -267,9 +269,7 @@ public class UserServiceTest {
         assertThat(Optional.of(presentResponse)).hasValueSatisfying(userResponse ->
                 assertUserMatchesResponse(user, userResponse));
         verify(authorityRepository).findById(KnownAuthority.ROLE_USER);
-        verify(userRepository).save(notNull());
-        verify(userRepository).existsByEmail(request.email());
-        verify(userRepository).existsByNickname(request.nickname());
+        verify(userRepository).saveAndFlush(notNull());
 
         verifyNoMoreInteractions(authorityRepository, userRepository);
     }
@@ -298,9 +298,7 @@ public class UserServiceTest {
         user.getAuthorities().put(KnownAuthority.ROLE_ADMIN, adminAuthority);
 
         when(authorityRepository.findAllByIdIn(AuthorityRepository.ADMIN_AUTHORITIES)).thenReturn(Stream.of(adminAuthority));
-        when(userRepository.existsByEmail(request.email())).thenReturn(false);
-        when(userRepository.existsByNickname(request.nickname())).thenReturn(false);
-        when(userRepository.save(notNull())).thenAnswer(invocation -> {
+        when(userRepository.saveAndFlush(notNull())).thenAnswer(invocation -> {
             CustomUser entity = invocation.getArgument(0);
             assertThat(entity.getId()).isNull();
             assertThat(entity.getEmail()).isEqualTo(request.email());
@@ -319,13 +317,30 @@ public class UserServiceTest {
         assertThat(Optional.of(presentResponse)).hasValueSatisfying(userResponse ->
                 assertUserMatchesResponse(user, userResponse));
         verify(authorityRepository).findAllByIdIn(AuthorityRepository.ADMIN_AUTHORITIES);
-        verify(userRepository).save(notNull());
-        verify(userRepository).existsByEmail(request.email());
-        verify(userRepository).existsByNickname(request.nickname());
+        verify(userRepository).saveAndFlush(notNull());
 
         verifyNoMoreInteractions(authorityRepository, userRepository);
     }
 
+    @Test
+    void testCreateTranslatesTakenNickname() {
+        var request = new SaveUserRequest("test@gmail.com", "password", "test");
+        var userAuthority = new UserAuthority();
+        userAuthority.setId(KnownAuthority.ROLE_USER);
+        var violation = new ConstraintViolationException("duplicate key", new SQLException(), "users_nickname_uindex");
+
+        when(authorityRepository.findById(KnownAuthority.ROLE_USER)).thenReturn(Optional.of(userAuthority));
+        when(userRepository.saveAndFlush(notNull()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", violation));
+
+        var e = assertThrows(ResponseStatusException.class, () -> userService.create(request, "code"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+        assertEquals(UserExceptions.duplicateNickname("test").getReason(), e.getReason());
+        verify(userRepository).saveAndFlush(notNull());
+        verifyNoMoreInteractions(userRepository);
+    }
+
     @Test
     void testDeleteById() {
         var absentId = 100L;
@@ -26,18 +26,32 @@ public final class AppConstants {
     public static final String SCOPE_HEADER_CONTENT = "headerContent";
     public static final String SCOPE_PAGE = "page";
     public static final String SCOPE_SIZE = "size";
+    public static final String SCOPE_AFTER = "after";
+    public static final String SCOPE_SCROLL = "scroll";
+    public static final String SCOPE_QUERY = "query";
+    public static final String SCOPE_PAGE_QUERY = "pageQuery";
+    public static final String SCOPE_CATEGORY_ID = "categoryId";
     public static final String SCOPE_CATEGORY = "category";
     public static final String SCOPE_CATEGORIES = "categories";
     public static final String SCOPE_GOODS = "goods";
+    public static final String SCOPE_STOCK = "stock";
     public static final String SCOPE_CART = "cart";
     public static final String SCOPE_CART_COUNT = "cartCount";
     public static final String SCOPE_CART_TOTAL = "total";
     public static final String SCOPE_CART_SIZE = "cartSize";
+    public static final String SCOPE_CART_ID = "cartId";
+    public static final String SCOPE_ORDER = "order";
+    public static final String SCOPE_IDEMPOTENCY_KEY = "idempotencyKey";
     public static final String SCOPE_CAPTCHA_ERROR = "captchaError";
     public static final String SCOPE_SITE_KEY = "siteKey";
     public static final String SCOPE_MESSAGE_ERROR_PASSWORD_NOT_MATCH = "messageErrorPasswordNotMatch";
     // endregion scope
 
+    // region header
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String CART_ID = "X-Cart-Id";
+    // endregion header
+
     // region to format date and time
     public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     // endregion to format date and time
@@ -17,6 +17,9 @@ public final class Routes {
     public static final String API_USERS = API_ROOT + "/users";
     public static final String API_CATEGORIES = API_ROOT + "/categories";
     public static final String API_GOODS = API_ROOT + "/goods";
+    public static final String API_RESERVATIONS = API_ROOT + "/reservations";
+    public static final String API_ORDERS = API_ROOT + "/orders";
+    public static final String API_JWKS = "/.well-known/jwks.json";
     public static final String WEB_INDEX = "/";
     public static final String WEB_ROOT = "/web/v1";
     public static final String WEB_TOKEN = WEB_ROOT + "/token";
@@ -28,6 +31,7 @@ public final class Routes {
     public static final String WEB_GOODS = WEB_ROOT + "/goods";
     public static final String WEB_GOODS_CATEGORY = WEB_GOODS + "/category";
     public static final String WEB_GOODS_VIEW = WEB_GOODS + "/view";
+    public static final String WEB_GOODS_SEARCH = WEB_GOODS + "/search";
     public static final String WEB_CART = WEB_ROOT + "/cart";
 
 }
@@ -1,27 +1,36 @@
 package com.tuleninov.web.controller;
 
+import com.tuleninov.web.model.auth.TokenClaimsUI;
 import com.tuleninov.web.model.auth.request.RefreshTokenUIRequest;
 import com.tuleninov.web.model.auth.response.AccessTokenUIResponse;
+import com.tuleninov.web.model.user.KnownAuthorityUI;
 import com.tuleninov.web.service.auth.AuthService;
+import com.tuleninov.web.service.auth.TokenVerifier;
 import org.springframework.stereotype.Component;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.Set;
 
 import static com.tuleninov.web.AppConstants.*;
 import static com.tuleninov.web.config.security.SecurityConstantsUI.AUTH_TOKEN_PREFIX;
 
 /**
  * Class for providing the access token from the server.
+ * The token that the server signs with a published key is verified here once it comes,
+ * so the time it expires at and the roles of the user are taken from its claims.
  */
 @Component
 public class TokenProvider {
 
     private final AuthService authService;
+    private final TokenVerifier tokenVerifier;
 
-    public TokenProvider(AuthService authService) {
+    public TokenProvider(AuthService authService, TokenVerifier tokenVerifier) {
         this.authService = authService;
+        this.tokenVerifier = tokenVerifier;
     }
 
     /**
@@ -62,13 +71,24 @@ public class TokenProvider {
      *
      * @param req           an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
      * @param tokenResponse token`s data
+     * @return the authorities of the user, verified from the token if it can be verified here
      */
-    private void putScopeToken(HttpServletRequest req, AccessTokenUIResponse tokenResponse) {
-        OffsetDateTime controlDateTime = OffsetDateTime.now().plusSeconds(tokenResponse.expireIn());
+    public Set<KnownAuthorityUI> putScopeToken(HttpServletRequest req, AccessTokenUIResponse tokenResponse) {
+        Optional<TokenClaimsUI> claims = tokenVerifier.verify(tokenResponse.accessToken());
+        OffsetDateTime controlDateTime = claims.map(TokenClaimsUI::expiresAt)
+                .orElseGet(() -> OffsetDateTime.now().plusSeconds(tokenResponse.expireIn()));
+        Set<KnownAuthorityUI> authorities = claims.map(TokenClaimsUI::authorities)
+                .orElse(tokenResponse.authorities());
 
         HttpSession session = req.getSession();
         session.setAttribute(SCOPE_ACCESS_TOKEN, tokenResponse.accessToken());
         session.setAttribute(SCOPE_REFRESH_TOKEN, tokenResponse.refreshToken());
         session.setAttribute(SCOPE_CONTROL_DATE_TIME_TOKEN, controlDateTime);
+        if (authorities.contains(KnownAuthorityUI.ROLE_USER)) {
+            session.setAttribute(SCOPE_HEADER_CONTENT,
+                    authorities.contains(KnownAuthorityUI.ROLE_ADMIN) ? "header-admin" : "header-user");
+        }
+
+        return authorities;
     }
 }
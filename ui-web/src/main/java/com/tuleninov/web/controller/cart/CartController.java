@@ -1,23 +1,34 @@
 package com.tuleninov.web.controller.cart;
 
 import com.tuleninov.web.Routes;
-import com.tuleninov.web.model.goods.GoodsUI;
+import com.tuleninov.web.controller.TokenProvider;
+import com.tuleninov.web.model.cart.CartItemUI;
+import com.tuleninov.web.model.order.request.CreateOrderUIRequest;
 import com.tuleninov.web.service.goods.GoodsService;
+import com.tuleninov.web.service.order.OrderService;
+import com.tuleninov.web.service.stock.StockService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import javax.validation.Valid;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static com.tuleninov.web.AppConstants.*;
 
 /**
  * Controller for the cart.
+ * Every goods in the cart is held in the stock for a limited time, the server releases the holds that expire.
+ * The goods are held for the cart of the session, its id stays in the session and is never sent to the browser.
  *
  * @author Oleksandr Tuleninov
  * @version 01
@@ -28,26 +39,40 @@ public class CartController {
 
     private final GoodsService goodsService;
 
-    public CartController(GoodsService goodsService) {
+    private final StockService stockService;
+
+    private final OrderService orderService;
+
+    private final TokenProvider tokenProvider;
+
+    public CartController(GoodsService goodsService,
+                          StockService stockService,
+                          OrderService orderService,
+                          TokenProvider tokenProvider) {
         this.goodsService = goodsService;
+        this.stockService = stockService;
+        this.orderService = orderService;
+        this.tokenProvider = tokenProvider;
     }
 
     /**
-     * Add the goods to the cart.
+     * Add the goods to the cart and hold one piece of them in the stock.
      *
      * @param id  the id of the goods
      * @param req an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
      * @return the index page
      */
-    @GetMapping(value = "/{id}")
+    @PostMapping(value = "/{id}")
     public String addGoodsToCart(@PathVariable(value = "id") int id,
                                  HttpServletRequest req) {
         @SuppressWarnings("unchecked")
-        var cart = (List<GoodsUI>) req.getSession().getAttribute(SCOPE_CART);
+        var cart = (List<CartItemUI>) req.getSession().getAttribute(SCOPE_CART);
         if (cart == null) {
             cart = new ArrayList<>();
         }
-        cart.add(goodsService.getGoodsById(id));
+        var goods = goodsService.getGoodsById(id);
+        var reservation = stockService.reserve(cartId(req.getSession()), id);
+        cart.add(new CartItemUI(goods, reservation.id(), reservation.expireAt()));
 
         req.getSession().setAttribute(SCOPE_CART, cart);
         req.getSession().setAttribute(SCOPE_CART_SIZE, cart.size());
@@ -56,7 +81,7 @@ public class CartController {
     }
 
     /**
-     * Get cart page.
+     * Get cart page without the goods whose holds have expired.
      *
      * @param req   an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
      * @param model the holder for model attributes
@@ -66,21 +91,25 @@ public class CartController {
     public String getCartPage(HttpServletRequest req,
                               Model model) {
         @SuppressWarnings("unchecked")
-        var cart = (List<GoodsUI>) req.getSession().getAttribute(SCOPE_CART);
+        var cart = (List<CartItemUI>) req.getSession().getAttribute(SCOPE_CART);
         if (cart == null) {
             model.addAttribute(SCOPE_CART_COUNT, 0);
             model.addAttribute(SCOPE_CART_TOTAL, 0);
         } else {
+            var now = OffsetDateTime.now();
+            cart.removeIf(item -> item.isExpired(now));
+            req.getSession().setAttribute(SCOPE_CART_SIZE, cart.size());
+
             model.addAttribute(SCOPE_CART_COUNT, cart.size());
             model.addAttribute(SCOPE_CART, cart);
-            model.addAttribute(SCOPE_CART_TOTAL, cart.stream().mapToDouble(GoodsUI::getPrice).sum());
+            model.addAttribute(SCOPE_CART_TOTAL, cart.stream().mapToDouble(CartItemUI::getPrice).sum());
         }
 
         return "cart/cart";
     }
 
     /**
-     * Delete the goods from the cart.
+     * Delete the goods from the cart and give them back to the stock.
      *
      * @param index the index of goods in th cart
      * @param req   an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
@@ -90,8 +119,9 @@ public class CartController {
     public String deleteGoodsByIndex(@PathVariable(value = "index") int index,
                                      HttpServletRequest req) {
         @SuppressWarnings("unchecked")
-        var cart = (List<GoodsUI>) req.getSession().getAttribute(SCOPE_CART);
-        cart.remove(index);
+        var cart = (List<CartItemUI>) req.getSession().getAttribute(SCOPE_CART);
+        CartItemUI item = cart.remove(index);
+        stockService.release(cartId(req.getSession()), item.getReservationId());
 
         req.getSession().setAttribute(SCOPE_CART_SIZE, cart.size());
         req.getSession().setAttribute(SCOPE_CART, cart);
@@ -101,19 +131,59 @@ public class CartController {
 
     /**
      * Get order page with the sum of the cost of all items in the cart.
+     * The page carries a new idempotency key, so submitting it twice places one order.
      *
      * @param req   an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
      * @param model the holder for model attributes
-     * @return the order page
+     * @return the order page, or the login page for a guest
      */
     @GetMapping(value = "/order")
     public String checkout(HttpServletRequest req,
                            Model model) {
+        if (req.getSession().getAttribute(SCOPE_LOGIN) == null) return "redirect:" + Routes.WEB_TOKEN;
+
         @SuppressWarnings("unchecked")
-        var cart = (List<GoodsUI>) req.getSession().getAttribute(SCOPE_CART);
+        var cart = (List<CartItemUI>) req.getSession().getAttribute(SCOPE_CART);
 
-        model.addAttribute(SCOPE_CART_TOTAL, cart.stream().mapToDouble(GoodsUI::getPrice).sum());
+        model.addAttribute(SCOPE_CART_TOTAL, cart.stream().mapToDouble(CartItemUI::getPrice).sum());
+        model.addAttribute(SCOPE_IDEMPOTENCY_KEY, UUID.randomUUID().toString());
 
         return "cart/cart-order";
     }
+
+    /**
+     * Place the order from the goods in the cart, the prices are fixed by the server at this moment.
+     *
+     * @param request the request with the contacts and the idempotency key of the order page
+     * @param req     an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
+     * @param model   the holder for model attributes
+     * @return the page of the placed order
+     */
+    @PostMapping(value = "/order")
+    public String placeOrder(@Valid CreateOrderUIRequest request,
+                             HttpServletRequest req,
+                             Model model) {
+        @SuppressWarnings("unchecked")
+        var cart = (List<CartItemUI>) req.getSession().getAttribute(SCOPE_CART);
+        if (cart == null || cart.isEmpty()) return "redirect:" + Routes.WEB_CART;
+
+        request.setReservationIds(cart.stream().map(CartItemUI::getReservationId).toList());
+        var token = tokenProvider.provideTokenForHeader(req);
+        var order = orderService.create(token, cartId(req.getSession()), request);
+
+        req.getSession().removeAttribute(SCOPE_CART);
+        req.getSession().setAttribute(SCOPE_CART_SIZE, 0);
+        model.addAttribute(SCOPE_ORDER, order);
+
+        return "cart/order-placed";
+    }
+
+    private static UUID cartId(HttpSession session) {
+        var cartId = (UUID) session.getAttribute(SCOPE_CART_ID);
+        if (cartId == null) {
+            cartId = UUID.randomUUID();
+            session.setAttribute(SCOPE_CART_ID, cartId);
+        }
+        return cartId;
+    }
 }
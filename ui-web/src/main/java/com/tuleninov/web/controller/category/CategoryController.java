@@ -4,12 +4,12 @@ import com.tuleninov.web.Routes;
 import com.tuleninov.web.config.pagination.ConfigDTO;
 import com.tuleninov.web.config.pagination.PaginationConfig;
 import com.tuleninov.web.controller.TokenProvider;
+import com.tuleninov.web.model.SliceUI;
 import com.tuleninov.web.model.category.CategoryUI;
 import com.tuleninov.web.model.category.request.SaveCategoryUIRequest;
 import com.tuleninov.web.service.category.CategoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -17,8 +17,10 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.util.UUID;
 
 import static com.tuleninov.web.AppConstants.SCOPE_CATEGORY;
+import static com.tuleninov.web.AppConstants.SCOPE_IDEMPOTENCY_KEY;
 import static com.tuleninov.web.AppConstants.SCOPE_OBJECTS;
 
 /**
@@ -62,26 +64,32 @@ public class CategoryController {
 
     /**
      * Get the category create page with parameters.
+     * The page carries a new idempotency key, so submitting it twice creates one category.
      *
+     * @param model holder for model attributes
      * @return category`s create page
      */
     @GetMapping(value = "/create")
-    public String getCreateCategoryPage() {
+    public String getCreateCategoryPage(Model model) {
+        model.addAttribute(SCOPE_IDEMPOTENCY_KEY, UUID.randomUUID().toString());
+
         return "category/category-create";
     }
 
     /**
      * Create the category to the database.
      *
-     * @param request the request with category`s parameters
-     * @param req     an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
+     * @param request        the request with category`s parameters
+     * @param idempotencyKey the key of the create page
+     * @param req            an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
      * @return categories page
      */
     @PostMapping
     public String createCategory(@Valid SaveCategoryUIRequest request,
+                                 @RequestParam(value = SCOPE_IDEMPOTENCY_KEY, required = false) String idempotencyKey,
                                  HttpServletRequest req) {
         var token = tokenProvider.provideTokenForHeader(req);
-        var category = categoryService.create(token, request);
+        var category = categoryService.create(token, idempotencyKey, request);
 
         log.info("Category '" + category.getName() + "' has been added to database.");
 
@@ -147,20 +155,19 @@ public class CategoryController {
     }
 
     /**
-     * Get the categories from the database.
+     * Get the slice of categories from the database.
      * (If the user enters an incorrect page number, which is greater than the actual one,
-     * into the address bar, it will redirect to the last valid page).
+     * into the address bar, it will redirect to the first page).
      *
      * @param token  the token to access the corresponding endpoint
      * @param config pagination config
      * @return categories
      */
-    private Page<CategoryUI> getCategories(String token, ConfigDTO config) {
-        var categories = categoryService.listCategories(token, PageRequest.of(config.page(), config.size()));
+    private SliceUI<CategoryUI> getCategories(String token, ConfigDTO config) {
+        var categories = categoryService.sliceCategories(token, PageRequest.of(config.page(), config.size()));
 
-        var totalPages = categories.getTotalPages();
-        if (totalPages > 0 && config.page() + 1 > totalPages) {
-            categories = categoryService.listCategories(token, PageRequest.of(totalPages - 1, config.size()));
+        if (categories.content().isEmpty() && config.page() > 0) {
+            categories = categoryService.sliceCategories(token, PageRequest.of(0, config.size()));
         }
 
         return categories;
@@ -9,13 +9,14 @@ import com.tuleninov.web.controller.category.CategoryController;
 import com.tuleninov.web.exceptions.FileExceptions;
 import com.tuleninov.web.io.remove.Remover;
 import com.tuleninov.web.io.write.Writer;
+import com.tuleninov.web.model.SliceUI;
 import com.tuleninov.web.model.goods.GoodsUI;
 import com.tuleninov.web.model.goods.request.SaveGoodsUIRequest;
 import com.tuleninov.web.service.category.CategoryService;
 import com.tuleninov.web.service.goods.GoodsService;
+import com.tuleninov.web.service.stock.StockService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -28,6 +29,7 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.io.File;
+import java.util.UUID;
 
 import static com.tuleninov.web.AppConstants.*;
 
@@ -46,15 +48,17 @@ public class GoodsController {
     private final TokenProvider tokenProvider;
     private final CategoryService categoryService;
     private final GoodsService goodsService;
+    private final StockService stockService;
     private final FileProperties fileProperties;
     private final Writer writer;
     private final Remover remover;
 
-    public GoodsController(TokenProvider tokenProvider, CategoryService categoryService,
-                           GoodsService goodsService, FileProperties fileProperties, Writer writer, Remover remover) {
+    public GoodsController(TokenProvider tokenProvider, CategoryService categoryService, GoodsService goodsService,
+                           StockService stockService, FileProperties fileProperties, Writer writer, Remover remover) {
         this.tokenProvider = tokenProvider;
         this.categoryService = categoryService;
         this.goodsService = goodsService;
+        this.stockService = stockService;
         this.fileProperties = fileProperties;
         this.writer = writer;
         this.remover = remover;
@@ -94,21 +98,24 @@ public class GoodsController {
 
         model.addAttribute(SCOPE_GOODS, new SaveGoodsUIRequest());
         model.addAttribute(SCOPE_CATEGORIES, categories);
+        model.addAttribute(SCOPE_IDEMPOTENCY_KEY, UUID.randomUUID().toString());
 
         return "goods/goods-create";
     }
 
     /**
-     * Create the goods to the database.
+     * Create the goods to the database and set its stock, the goods without a stock can not be added to a cart.
      *
-     * @param request request with goods parameters
-     * @param file    a representation of an uploaded file received in a multipart request
-     * @param req     the servlet container, which provide req information for HTTP servlets
+     * @param request        request with goods parameters
+     * @param file           a representation of an uploaded file received in a multipart request
+     * @param idempotencyKey the key of the create page
+     * @param req            the servlet container, which provide req information for HTTP servlets
      * @return goods page
      */
     @PostMapping
     public String createGoods(@Valid SaveGoodsUIRequest request,
                               @RequestParam("goodsImage") MultipartFile file,
+                              @RequestParam(value = SCOPE_IDEMPOTENCY_KEY, required = false) String idempotencyKey,
                               HttpServletRequest req) {
         if (file.isEmpty()) throw FileExceptions.noFileNameSelected();
 
@@ -120,7 +127,8 @@ public class GoodsController {
         writer.write(fileProperties.getPath(), file);
 
         var token = tokenProvider.provideTokenForHeader(req);
-        var goods = goodsService.create(token, request);
+        var goods = goodsService.create(token, idempotencyKey, request);
+        if (request.getStock() != null) stockService.setStock(token, goods.getId(), request.getStock());
 
         log.info("Goods '" + goods.getName() + "' has been added to database.");
 
@@ -142,16 +150,17 @@ public class GoodsController {
                                     HttpServletRequest req,
                                     Model model) {
         var token = tokenProvider.provideTokenForHeader(req);
-        var goods = goodsService.getGoodsById(id);
+        var goods = goodsService.getTaggedGoodsById(id);
 
         model.addAttribute(SCOPE_GOODS, goods);
+        model.addAttribute(SCOPE_STOCK, stockService.getStock(id).stock());
         model.addAttribute(SCOPE_CATEGORIES, categoryService.listCategories(token, pageable));
 
         return "goods/goods-merge";
     }
 
     /**
-     * Merge the goods in the database.
+     * Merge the goods in the database, the stock is set only if a new one has been entered.
      *
      * @param id      the id of the goods
      * @param request the request with goods parameters
@@ -170,6 +179,7 @@ public class GoodsController {
         var token = tokenProvider.provideTokenForHeader(req);
         fileOverwriteIfFileIsNew(id, request, file);
         var mergedGoods = goodsService.mergeGoodsById(token, id, request);
+        if (request.getStock() != null) stockService.setStock(token, id, request.getStock());
 
         log.info("Goods '" + mergedGoods.getName() + "' were merged.");
 
@@ -226,19 +236,18 @@ public class GoodsController {
     }
 
     /**
-     * Get the goods from the database.
+     * Get the slice of goods from the database with the approximate number of all goods.
      * (If the user enters an incorrect page number, which is greater than the actual one,
-     * into the address bar, it will redirect to the last valid page).
+     * into the address bar, it will redirect to the first page).
      *
      * @param config pagination config
      * @return goods
      */
-    private Page<GoodsUI> getGoods(ConfigDTO config) {
-        var goods = goodsService.listGoods(PageRequest.of(config.page(), config.size()));
+    private SliceUI<GoodsUI> getGoods(ConfigDTO config) {
+        var goods = goodsService.sliceGoods(PageRequest.of(config.page(), config.size()), true);
 
-        var totalPages = goods.getTotalPages();
-        if (totalPages > 0 && config.page() + 1 > totalPages) {
-            goods = goodsService.listGoods(PageRequest.of(totalPages - 1, config.size()));
+        if (goods.content().isEmpty() && config.page() > 0) {
+            goods = goodsService.sliceGoods(PageRequest.of(0, config.size()), true);
         }
 
         return goods;
@@ -3,17 +3,20 @@ package com.tuleninov.web.controller.index;
 import com.tuleninov.web.Routes;
 import com.tuleninov.web.config.pagination.ConfigDTO;
 import com.tuleninov.web.config.pagination.PaginationConfig;
+import com.tuleninov.web.model.SliceUI;
 import com.tuleninov.web.model.goods.GoodsUI;
 import com.tuleninov.web.service.category.CategoryService;
 import com.tuleninov.web.service.goods.GoodsService;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
 
 import static com.tuleninov.web.AppConstants.*;
 
@@ -46,10 +49,12 @@ public class IndexController {
                                Model model) {
         var categories = categoryService.getListCategories();
         var config = PaginationConfig.config(req);
-        var goods = getGoods(config);
+        var scroll = goodsService.scrollGoods(req.getParameter(SCOPE_AFTER), config.size());
 
         model.addAttribute(SCOPE_CATEGORIES, categories);
-        model.addAttribute(SCOPE_OBJECTS, goods);
+        model.addAttribute(SCOPE_OBJECTS, scroll.content());
+        model.addAttribute(SCOPE_SCROLL, scroll);
+        model.addAttribute(SCOPE_SIZE, config.size());
 
         return "index";
     }
@@ -72,6 +77,47 @@ public class IndexController {
 
         model.addAttribute(SCOPE_CATEGORIES, categories);
         model.addAttribute(SCOPE_OBJECTS, goods);
+        model.addAttribute(SCOPE_CATEGORY_ID, id);
+
+        return "index";
+    }
+
+    /**
+     * Get the index page with the goods that match the search query.
+     *
+     * @param q        the search query
+     * @param category the id of the category to search in, absent to search in all categories
+     * @param req      an object that is passed as an argument to the servlet's utility methods (doGet, doPost, etc.)
+     * @param model    holder for model attributes
+     * @return the index page
+     */
+    @GetMapping(Routes.WEB_GOODS_SEARCH)
+    public String getSearchPage(@RequestParam String q,
+                                @RequestParam(required = false) Integer category,
+                                HttpServletRequest req,
+                                Model model) {
+        if (q.isBlank()) {
+            return category == null
+                    ? "redirect:" + Routes.WEB_INDEX
+                    : "redirect:" + Routes.WEB_GOODS_CATEGORY + "/" + category;
+        }
+
+        var categories = categoryService.getListCategories();
+        var config = PaginationConfig.config(req);
+        var goods = goodsService.searchGoods(PageRequest.of(config.page(), config.size()), q, category);
+        // the pager keeps the search parameters in its links
+        var pageQuery = UriComponentsBuilder.newInstance()
+                .queryParam("q", "{q}")
+                .queryParamIfPresent("category", Optional.ofNullable(category))
+                .encode()
+                .buildAndExpand(q)
+                .toUriString();
+
+        model.addAttribute(SCOPE_CATEGORIES, categories);
+        model.addAttribute(SCOPE_OBJECTS, goods);
+        model.addAttribute(SCOPE_QUERY, q);
+        model.addAttribute(SCOPE_PAGE_QUERY, pageQuery);
+        model.addAttribute(SCOPE_CATEGORY_ID, category);
 
         return "index";
     }
@@ -92,39 +138,19 @@ public class IndexController {
     }
 
     /**
-     * Get the goods from the database.
-     * (If the user enters an incorrect page number, which is greater than the actual one,
-     * into the address bar, it will redirect to the last valid page).
-     *
-     * @param config pagination config
-     * @return goods
-     */
-    private Page<GoodsUI> getGoods(ConfigDTO config) {
-        var goods = goodsService.listGoods(PageRequest.of(config.page(), config.size()));
-
-        var totalPages = goods.getTotalPages();
-        if (totalPages > 0 && config.page() + 1 > totalPages) {
-            goods = goodsService.listGoods(PageRequest.of(totalPages - 1, config.size()));
-        }
-
-        return goods;
-    }
-
-    /**
-     * Get the goods from the database.
+     * Get the slice of goods by category id from the database.
      * (If the user enters an incorrect page number, which is greater than the actual one,
-     * into the address bar, it will redirect to the last valid page).
+     * into the address bar, it will redirect to the first page).
      *
      * @param config pagination config
      * @param id     the id of the category
      * @return goods
      */
-    private Page<GoodsUI> getGoodsByCategoryId(ConfigDTO config, int id) {
-        var goods = goodsService.listByCategoryId(PageRequest.of(config.page(), config.size()), id);
+    private SliceUI<GoodsUI> getGoodsByCategoryId(ConfigDTO config, int id) {
+        var goods = goodsService.sliceByCategoryId(PageRequest.of(config.page(), config.size()), id);
 
-        var totalPages = goods.getTotalPages();
-        if (totalPages > 0 && config.page() + 1 > totalPages) {
-            goods = goodsService.listByCategoryId(PageRequest.of(totalPages - 1, config.size()), id);
+        if (goods.content().isEmpty() && config.page() > 0) {
+            goods = goodsService.sliceByCategoryId(PageRequest.of(0, config.size()), id);
         }
 
         return goods;
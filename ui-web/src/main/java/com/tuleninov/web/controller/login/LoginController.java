@@ -1,6 +1,7 @@
 package com.tuleninov.web.controller.login;
 
 import com.tuleninov.web.Routes;
+import com.tuleninov.web.controller.TokenProvider;
 import com.tuleninov.web.model.auth.request.SignInUIRequest;
 import com.tuleninov.web.model.auth.response.AccessTokenUIResponse;
 import com.tuleninov.web.model.user.KnownAuthorityUI;
@@ -14,12 +15,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 import javax.validation.Valid;
 import java.io.IOException;
-import java.time.OffsetDateTime;
+import java.util.Set;
 
-import static com.tuleninov.web.AppConstants.*;
+import static com.tuleninov.web.AppConstants.SCOPE_LOGIN;
 
 /**
  * Controller for the login page.
@@ -34,9 +34,11 @@ public class LoginController {
     private static final Logger log = LoggerFactory.getLogger(LoginController.class);
 
     private final AuthService authService;
+    private final TokenProvider tokenProvider;
 
-    public LoginController(AuthService authService) {
+    public LoginController(AuthService authService, TokenProvider tokenProvider) {
         this.authService = authService;
+        this.tokenProvider = tokenProvider;
     }
 
     /**
@@ -62,22 +64,10 @@ public class LoginController {
                       HttpServletResponse resp) throws IOException {
 
         AccessTokenUIResponse token = authService.login(request);
-        OffsetDateTime controlDateTime = OffsetDateTime.now().plusSeconds(token.expireIn());
+        req.getSession().setAttribute(SCOPE_LOGIN, request.login());
+        Set<KnownAuthorityUI> authorities = tokenProvider.putScopeToken(req, token);
 
-        HttpSession session = req.getSession();
-        session.setAttribute(SCOPE_LOGIN, request.login());
-        session.setAttribute(SCOPE_ACCESS_TOKEN, token.accessToken());
-        session.setAttribute(SCOPE_REFRESH_TOKEN, token.refreshToken());
-        session.setAttribute(SCOPE_CONTROL_DATE_TIME_TOKEN, controlDateTime);
-
-        if (token.authorities().contains(KnownAuthorityUI.ROLE_ADMIN)
-                && token.authorities().contains(KnownAuthorityUI.ROLE_USER)) {
-            req.getSession().setAttribute(SCOPE_HEADER_CONTENT, "header-admin");
-            log.info("User '" + request.login() + "' logged in.");
-            resp.sendRedirect(Routes.WEB_INDEX);
-        } else if (!token.authorities().contains(KnownAuthorityUI.ROLE_ADMIN)
-                && token.authorities().contains(KnownAuthorityUI.ROLE_USER)) {
-            req.getSession().setAttribute(SCOPE_HEADER_CONTENT, "header-user");
+        if (authorities.contains(KnownAuthorityUI.ROLE_USER)) {
             log.info("User '" + request.login() + "' logged in.");
             resp.sendRedirect(Routes.WEB_INDEX);
         } else {
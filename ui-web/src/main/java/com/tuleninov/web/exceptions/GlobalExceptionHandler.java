@@ -85,6 +85,10 @@ public class GlobalExceptionHandler {
                 handleUIValidationError(ex, redirectAttributes);
                 return "redirect:" + Routes.WEB_GOODS + "/create";
             }
+            case "createOrderUIRequest" -> {
+                handleUIValidationError(ex, redirectAttributes);
+                return "redirect:" + Routes.WEB_CART + "/order";
+            }
             default -> {
                 return "error/error";
             }
@@ -104,6 +108,7 @@ public class GlobalExceptionHandler {
         if (status == HttpStatus.METHOD_NOT_ALLOWED
                 || status == HttpStatus.NOT_FOUND
                 || status == HttpStatus.BAD_REQUEST
+                || status == HttpStatus.CONFLICT
                 || status == HttpStatus.FORBIDDEN
                 || status == HttpStatus.UNAUTHORIZED) {
             String errorMessage = ex.getMessage();
@@ -4,9 +4,11 @@ import com.tuleninov.web.Routes;
 import com.tuleninov.web.model.auth.request.RefreshTokenUIRequest;
 import com.tuleninov.web.model.auth.request.SignInUIRequest;
 import com.tuleninov.web.model.auth.response.AccessTokenUIResponse;
+import com.tuleninov.web.model.auth.response.JWKSetUIResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -58,4 +60,15 @@ public interface AuthServiceFeignClient {
     )
     void invalidate(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
                     @RequestBody RefreshTokenUIRequest request);
+
+    /**
+     * Get the public keys that verify the tokens.
+     *
+     * @return the keys, none while the server signs the tokens with a secret
+     */
+    @GetMapping(
+            value = Routes.API_JWKS,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    JWKSetUIResponse jwks();
 }
@@ -1,6 +1,7 @@
 package com.tuleninov.web.feignclient;
 
 import com.tuleninov.web.Routes;
+import com.tuleninov.web.model.SliceUI;
 import com.tuleninov.web.model.category.request.SaveCategoryUIRequest;
 import com.tuleninov.web.model.category.response.CategoryUIResponse;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -8,11 +9,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
 
+import static com.tuleninov.web.AppConstants.IDEMPOTENCY_KEY;
+
 /**
  * Feign Client for the Category.
  *
@@ -25,8 +29,9 @@ public interface CategoryServiceFeignClient {
     /**
      * Create the category in the database.
      *
-     * @param token   token to access the corresponding endpoint
-     * @param request request with category parameters
+     * @param token          token to access the corresponding endpoint
+     * @param idempotencyKey the key of the request, a repeated request with the same key gets the same category
+     * @param request        request with category parameters
      */
     @PostMapping(
             value = Routes.API_CATEGORIES,
@@ -34,6 +39,7 @@ public interface CategoryServiceFeignClient {
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     CategoryUIResponse create(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                              @RequestHeader(IDEMPOTENCY_KEY) String idempotencyKey,
                               @RequestBody @Valid SaveCategoryUIRequest request);
 
     /**
@@ -50,16 +56,34 @@ public interface CategoryServiceFeignClient {
     Page<CategoryUIResponse> listCategories(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
                                             Pageable pageable);
 
+    /**
+     * Get a slice of categories from the database in response format without counting all categories.
+     *
+     * @param token    token to access the corresponding endpoint
+     * @param pageable abstract interface for pagination information
+     * @return the categories from the database in response format with the information about the next slice
+     */
+    @GetMapping(
+            value = Routes.API_CATEGORIES + "/slice",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    SliceUI<CategoryUIResponse> sliceCategories(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                                                Pageable pageable);
+
     /**
      * Get all categories from the database in response format.
+     * The server answers with {@code 304 Not Modified}, which Feign throws as {@code FeignException},
+     * when the list still has the given entity tag.
      *
-     * @return all categories from the database in response format
+     * @param etag the entity tag of the list the client already has, or null
+     * @return all categories from the database in response format with the entity tag of the list
      */
     @GetMapping(
             value = Routes.API_CATEGORIES + "/list",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    List<CategoryUIResponse> getListCategories();
+    ResponseEntity<List<CategoryUIResponse>> getListCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String etag);
 
     /**
      * Get the category by id in the database in response format.
@@ -1,15 +1,20 @@
 package com.tuleninov.web.feignclient;
 
 import com.tuleninov.web.Routes;
+import com.tuleninov.web.model.SliceUI;
 import com.tuleninov.web.model.goods.request.SaveGoodsUIRequest;
+import com.tuleninov.web.model.goods.response.GoodsScrollUIResponse;
 import com.tuleninov.web.model.goods.response.GoodsUIResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import static com.tuleninov.web.AppConstants.IDEMPOTENCY_KEY;
+
 /**
  * Feign Client for the Goods.
  *
@@ -22,8 +27,9 @@ public interface GoodsServiceFeignClient {
     /**
      * Create the goods in the database.
      *
-     * @param token   token to access the corresponding endpoint
-     * @param request the request with goods parameters
+     * @param token          token to access the corresponding endpoint
+     * @param idempotencyKey the key of the request, a repeated request with the same key gets the same goods
+     * @param request        the request with goods parameters
      * @return the goods from the database in response format
      */
     @PostMapping(
@@ -32,6 +38,7 @@ public interface GoodsServiceFeignClient {
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     GoodsUIResponse create(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                           @RequestHeader(IDEMPOTENCY_KEY) String idempotencyKey,
                            @RequestBody SaveGoodsUIRequest request);
 
     /**
@@ -60,6 +67,64 @@ public interface GoodsServiceFeignClient {
     Page<GoodsUIResponse> listByCategoryId(Pageable pageable,
                                            @PathVariable int id);
 
+    /**
+     * Find a slice of goods in the database in response format without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param total    whether to add the approximate number of all goods
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @GetMapping(
+            value = Routes.API_GOODS + "/slice",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    SliceUI<GoodsUIResponse> sliceGoods(Pageable pageable,
+                                        @RequestParam("total") boolean total);
+
+    /**
+     * Find a slice of goods by category id in the database in response format without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param id       the id of the category
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @GetMapping(
+            value = Routes.API_GOODS + "/{id}/goods/slice",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    SliceUI<GoodsUIResponse> sliceByCategoryId(Pageable pageable,
+                                               @PathVariable int id);
+
+    /**
+     * Find the goods that match the search query in response format, the most relevant first.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param q        the search query
+     * @param category the id of the category to search in, null to search in all categories
+     * @return the goods from the database in response format with the information about the next slice
+     */
+    @GetMapping(
+            value = Routes.API_GOODS + "/search",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    SliceUI<GoodsUIResponse> searchGoods(Pageable pageable,
+                                         @RequestParam("q") String q,
+                                         @RequestParam(value = "category", required = false) Integer category);
+
+    /**
+     * Find the goods page that follows the cursor using keyset pagination.
+     *
+     * @param after the cursor of the previous page, null for the first page
+     * @param size  the number of goods on the page
+     * @return the goods from the database in response format with the cursor of the next page
+     */
+    @GetMapping(
+            value = Routes.API_GOODS + "/scroll",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    GoodsScrollUIResponse scrollGoods(@RequestParam(value = "after", required = false) String after,
+                                      @RequestParam("size") int size);
+
     /**
      * Get the goods by id in the database in response format.
      *
@@ -72,10 +137,23 @@ public interface GoodsServiceFeignClient {
     )
     GoodsUIResponse getGoodsById(@PathVariable int id);
 
+    /**
+     * Get the goods by id in the database with the tag of their version.
+     *
+     * @param id    the id of the goods
+     * @return the goods from database in response format with the ETag header
+     */
+    @GetMapping(
+            value = Routes.API_GOODS + "/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    ResponseEntity<GoodsUIResponse> getTaggedGoodsById(@PathVariable int id);
+
     /**
      * Merge the goods by id in the database.
      *
      * @param token   token to access the corresponding endpoint
+     * @param ifMatch the tag of the goods the request was made from
      * @param id      the id of the goods
      * @param request the request with goods parameters
      */
@@ -84,6 +162,7 @@ public interface GoodsServiceFeignClient {
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     GoodsUIResponse mergeGoodsById(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                                   @RequestHeader(HttpHeaders.IF_MATCH) String ifMatch,
                                    @PathVariable int id,
                                    @RequestBody SaveGoodsUIRequest request);
 
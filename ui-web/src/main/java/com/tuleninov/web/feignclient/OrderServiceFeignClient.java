@@ -0,0 +1,43 @@
+package com.tuleninov.web.feignclient;
+
+import com.tuleninov.web.Routes;
+import com.tuleninov.web.model.order.request.CreateOrderUIRequest;
+import com.tuleninov.web.model.order.response.OrderUIResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+import static com.tuleninov.web.AppConstants.CART_ID;
+import static com.tuleninov.web.AppConstants.IDEMPOTENCY_KEY;
+
+/**
+ * Feign Client for the Orders.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@FeignClient(name = "OrderController.class", url = "${services.server.api}")
+public interface OrderServiceFeignClient {
+
+    /**
+     * Place the order from the reservations of the cart.
+     *
+     * @param token          token to access the corresponding endpoint
+     * @param cartId         the cart the goods are held for
+     * @param idempotencyKey the key of the checkout, a repeated checkout with the same key gets the same order
+     * @param request        the request with the reservations and the contacts
+     * @return the order in response format
+     */
+    @PostMapping(
+            value = Routes.API_ORDERS,
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    OrderUIResponse create(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                           @RequestHeader(CART_ID) UUID cartId,
+                           @RequestHeader(IDEMPOTENCY_KEY) String idempotencyKey,
+                           @RequestBody CreateOrderUIRequest request);
+}
@@ -0,0 +1,87 @@
+package com.tuleninov.web.feignclient;
+
+import com.tuleninov.web.Routes;
+import com.tuleninov.web.model.stock.request.ReserveStockUIRequest;
+import com.tuleninov.web.model.stock.request.SaveStockUIRequest;
+import com.tuleninov.web.model.stock.response.StockReservationUIResponse;
+import com.tuleninov.web.model.stock.response.StockUIResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+import static com.tuleninov.web.AppConstants.CART_ID;
+
+/**
+ * Feign Client for the stock of the goods and its reservations.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@FeignClient(name = "StockController.class", url = "${services.server.api}")
+public interface StockServiceFeignClient {
+
+    /**
+     * Get the stock of the goods.
+     *
+     * @param id the id of the goods
+     * @return the stock of the goods in response format
+     */
+    @GetMapping(
+            value = Routes.API_GOODS + "/{id}/stock",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    StockUIResponse getStock(@PathVariable int id);
+
+    /**
+     * Set the stock of the goods.
+     *
+     * @param token   token to access the corresponding endpoint
+     * @param id      the id of the goods
+     * @param request the request with the stock
+     * @return the stock of the goods in response format
+     */
+    @PutMapping(
+            value = Routes.API_GOODS + "/{id}/stock",
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    StockUIResponse setStock(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                             @PathVariable int id,
+                             @RequestBody SaveStockUIRequest request);
+
+    /**
+     * Reserve the goods from the stock for a limited time.
+     *
+     * @param token   token to access the corresponding endpoint
+     * @param cartId  the cart the goods are held for
+     * @param request the request with the goods and the quantity
+     * @return the reservation in response format
+     */
+    @PostMapping(
+            value = Routes.API_RESERVATIONS,
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    StockReservationUIResponse reserve(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                                       @RequestHeader(CART_ID) UUID cartId,
+                                       @RequestBody ReserveStockUIRequest request);
+
+    /**
+     * Release the reservation and give the goods back to the stock.
+     *
+     * @param token  token to access the corresponding endpoint
+     * @param cartId the cart the goods are held for
+     * @param id     the id of the reservation
+     * @return the released reservation in response format
+     */
+    @DeleteMapping(
+            value = Routes.API_RESERVATIONS + "/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    StockReservationUIResponse release(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                                       @RequestHeader(CART_ID) UUID cartId,
+                                       @PathVariable UUID id);
+}
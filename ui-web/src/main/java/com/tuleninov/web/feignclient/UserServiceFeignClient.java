@@ -11,6 +11,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import static com.tuleninov.web.AppConstants.IDEMPOTENCY_KEY;
+
 /**
  * Feign Client for the User.
  *
@@ -37,8 +39,9 @@ public interface UserServiceFeignClient {
     /**
      * Register user as client in database.
      *
-     * @param request request with user`s parameters
-     * @param code    activation code
+     * @param idempotencyKey the key of the request, a repeated request with the same key gets the same user
+     * @param request        request with user`s parameters
+     * @param code           activation code
      * @return user who was registered in response format
      */
     @PostMapping(
@@ -46,7 +49,8 @@ public interface UserServiceFeignClient {
             produces = MediaType.APPLICATION_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    UserUIResponse register(@RequestBody SaveUserUIRequest request,
+    UserUIResponse register(@RequestHeader(IDEMPOTENCY_KEY) String idempotencyKey,
+                            @RequestBody SaveUserUIRequest request,
                             @RequestParam String code);
 
     /**
@@ -146,7 +150,8 @@ public interface UserServiceFeignClient {
     /**
      * Register user as admin in database.
      *
-     * @param request request with new admin data
+     * @param idempotencyKey the key of the request, a repeated request with the same key gets the same admin
+     * @param request        request with new admin data
      */
     @PostMapping(
             value = Routes.API_USERS + "/admins",
@@ -154,6 +159,7 @@ public interface UserServiceFeignClient {
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     UserUIResponse registerAdmin(@RequestHeader(HttpHeaders.AUTHORIZATION) String token,
+                                 @RequestHeader(IDEMPOTENCY_KEY) String idempotencyKey,
                                  @RequestBody SaveUserUIRequest request,
                                  @RequestParam String code);
 
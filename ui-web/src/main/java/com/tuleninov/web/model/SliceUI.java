@@ -0,0 +1,55 @@
+package com.tuleninov.web.model;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Record for the page of objects that knows only whether a next page exists.
+ *
+ * @param number           the zero-based number of the page
+ * @param approximateTotal the estimated number of all objects, null when the server did not send it
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record SliceUI<T>(
+
+        List<T> content,
+
+        int number,
+
+        int size,
+
+        boolean hasNext,
+
+        Long approximateTotal
+) implements Iterable<T> {
+
+    /**
+     * Convert the objects of the slice keeping the pagination information.
+     *
+     * @param converter the function to convert an object
+     * @return the slice with the converted objects
+     */
+    public <R> SliceUI<R> map(Function<? super T, ? extends R> converter) {
+        List<R> converted = content.stream()
+                .<R>map(converter)
+                .toList();
+        return new SliceUI<>(converted, number, size, hasNext, approximateTotal);
+    }
+
+    /**
+     * Get the estimated number of pages.
+     *
+     * @return the number of pages, or null when the total is unknown
+     */
+    public Long approximatePages() {
+        if (approximateTotal == null || size == 0) return null;
+        return Math.max(number + 1, (approximateTotal + size - 1) / size);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return content.iterator();
+    }
+}
@@ -0,0 +1,14 @@
+package com.tuleninov.web.model.auth;
+
+import com.tuleninov.web.model.user.KnownAuthorityUI;
+
+import java.time.OffsetDateTime;
+import java.util.Set;
+
+/**
+ * Record for the claims of the access token that has been verified.
+ */
+public record TokenClaimsUI(String subject,
+                            Set<KnownAuthorityUI> authorities,
+                            OffsetDateTime expiresAt) {
+}
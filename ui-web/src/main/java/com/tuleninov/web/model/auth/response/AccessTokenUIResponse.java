@@ -2,6 +2,7 @@ package com.tuleninov.web.model.auth.response;
 
 import com.tuleninov.web.model.user.KnownAuthorityUI;
 
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -11,4 +12,9 @@ public record AccessTokenUIResponse(String accessToken,
                                     String refreshToken,
                                     long expireIn,
                                     Set<KnownAuthorityUI> authorities) {
+
+    public AccessTokenUIResponse {
+        // an authority not known here is read as null, such a user has no authorities here and is sent back to login
+        if (authorities == null || authorities.stream().anyMatch(Objects::isNull)) authorities = Set.of();
+    }
 }
@@ -0,0 +1,9 @@
+package com.tuleninov.web.model.auth.response;
+
+import java.util.List;
+
+/**
+ * Record for the public keys of the server that verify the tokens.
+ */
+public record JWKSetUIResponse(List<JWKUIResponse> keys) {
+}
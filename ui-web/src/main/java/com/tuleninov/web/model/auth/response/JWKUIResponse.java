@@ -0,0 +1,11 @@
+package com.tuleninov.web.model.auth.response;
+
+/**
+ * Record for the public key of the server that verifies the tokens, in the JSON Web Key format.
+ */
+public record JWKUIResponse(String kty,
+                            String crv,
+                            String kid,
+                            String x,
+                            String y) {
+}
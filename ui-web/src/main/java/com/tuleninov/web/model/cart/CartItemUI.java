@@ -0,0 +1,69 @@
+package com.tuleninov.web.model.cart;
+
+import com.tuleninov.web.model.goods.GoodsUI;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Class for the goods in the cart, held in the stock until the hold expires.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public class CartItemUI {
+
+    private final GoodsUI goods;
+
+    private final UUID reservationId;
+
+    private final OffsetDateTime expireAt;
+
+    public CartItemUI(GoodsUI goods, UUID reservationId, OffsetDateTime expireAt) {
+        this.goods = goods;
+        this.reservationId = reservationId;
+        this.expireAt = expireAt;
+    }
+
+    public GoodsUI getGoods() {
+        return goods;
+    }
+
+    public int getId() {
+        return goods.getId();
+    }
+
+    public String getName() {
+        return goods.getName();
+    }
+
+    public double getPrice() {
+        return goods.getPrice();
+    }
+
+    public int getWeight() {
+        return goods.getWeight();
+    }
+
+    public String getImageName() {
+        return goods.getImageName();
+    }
+
+    public UUID getReservationId() {
+        return reservationId;
+    }
+
+    public OffsetDateTime getExpireAt() {
+        return expireAt;
+    }
+
+    /**
+     * Check whether the hold of the goods has expired and the server has given them back to the stock.
+     *
+     * @param now the current time
+     * @return true if the hold has expired
+     */
+    public boolean isExpired(OffsetDateTime now) {
+        return !expireAt.isAfter(now);
+    }
+}
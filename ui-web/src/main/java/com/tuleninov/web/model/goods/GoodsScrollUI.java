@@ -0,0 +1,30 @@
+package com.tuleninov.web.model.goods;
+
+import com.tuleninov.web.model.goods.response.GoodsScrollUIResponse;
+
+import java.util.List;
+
+/**
+ * Record for the goods page of keyset pagination.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsScrollUI(
+
+        List<GoodsUI> content,
+
+        boolean hasNext,
+
+        String next
+) {
+
+    public static GoodsScrollUI fromGoodsScrollResponse(GoodsScrollUIResponse response) {
+        return new GoodsScrollUI(
+                response.content().stream()
+                        .map(GoodsUI::fromGoodsResponse)
+                        .toList(),
+                response.hasNext(),
+                response.next());
+    }
+}
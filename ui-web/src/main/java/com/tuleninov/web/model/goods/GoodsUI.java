@@ -25,8 +25,13 @@ public class GoodsUI {
 
     private final String imageName;
 
+    /**
+     * The tag of the goods the merge page is made from, null if the goods were read without it.
+     */
+    private final String etag;
+
     private GoodsUI(int id, String name, CategoryUI category, double price,
-                    int weight, String description, String imageName) {
+                    int weight, String description, String imageName, String etag) {
         this.id = id;
         this.name = name;
         this.category = category;
@@ -34,11 +39,12 @@ public class GoodsUI {
         this.weight = weight;
         this.description = description;
         this.imageName = imageName;
+        this.etag = etag;
     }
 
     public static GoodsUI create(int id, String name, CategoryUI category, double price,
-                                 int weight, String description, String imageName) {
-        return new GoodsUI(id, name, category, price, weight, description, imageName);
+                                 int weight, String description, String imageName, String etag) {
+        return new GoodsUI(id, name, category, price, weight, description, imageName, etag);
     }
 
     public int getId() {
@@ -69,7 +75,15 @@ public class GoodsUI {
         return imageName;
     }
 
+    public String getEtag() {
+        return etag;
+    }
+
     public static GoodsUI fromGoodsResponse(GoodsUIResponse response) {
+        return fromGoodsResponse(response, null);
+    }
+
+    public static GoodsUI fromGoodsResponse(GoodsUIResponse response, String etag) {
         return new GoodsUIBuilder()
                 .id(response.id())
                 .name(response.name())
@@ -78,6 +92,7 @@ public class GoodsUI {
                 .weight(response.weight())
                 .description(response.description())
                 .imageName(response.imageName())
+                .etag(etag)
                 .build();
     }
 
@@ -97,6 +112,8 @@ public class GoodsUI {
 
         private String imageName;
 
+        private String etag;
+
         public GoodsUIBuilder id(int id) {
             this.id = id;
             return this;
@@ -132,9 +149,14 @@ public class GoodsUI {
             return this;
         }
 
+        public GoodsUIBuilder etag(String etag) {
+            this.etag = etag;
+            return this;
+        }
+
         public GoodsUI build() {
             return GoodsUI.create(id, name, category,
-                    price, weight, description, imageName);
+                    price, weight, description, imageName, etag);
         }
     }
 }
@@ -1,5 +1,7 @@
 package com.tuleninov.web.model.goods.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -35,6 +37,20 @@ public class SaveGoodsUIRequest {
     @Size(min = 5, max = 30, message = "the image name of goods should be between 5 and 30 characters")
     private String imageName;
 
+    /**
+     * The new stock of the goods, or null to leave it as it is; it is set apart from the goods,
+     * so it is not sent in the body.
+     */
+    @JsonIgnore
+    @PositiveOrZero(message = "the stock of goods should not be negative")
+    private Integer stock;
+
+    /**
+     * The tag of the goods the merge page was made from, it is sent in If-Match rather than in the body.
+     */
+    @JsonIgnore
+    private String etag;
+
     public int getId() {
         return id;
     }
@@ -91,4 +107,20 @@ public class SaveGoodsUIRequest {
         this.imageName = imageName;
     }
 
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
 }
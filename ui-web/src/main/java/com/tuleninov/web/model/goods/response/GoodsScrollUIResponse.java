@@ -0,0 +1,21 @@
+package com.tuleninov.web.model.goods.response;
+
+import java.util.List;
+
+/**
+ * Record for the goods response with keyset pagination information.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record GoodsScrollUIResponse(
+
+        List<GoodsUIResponse> content,
+
+        int size,
+
+        boolean hasNext,
+
+        String next
+) {
+}
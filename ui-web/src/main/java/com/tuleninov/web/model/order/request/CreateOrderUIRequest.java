@@ -0,0 +1,112 @@
+package com.tuleninov.web.model.order.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Class for Order DTO.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public class CreateOrderUIRequest {
+
+    /**
+     * The reservations of the goods in the cart, they are taken from the session rather than from the form.
+     */
+    private List<UUID> reservationIds;
+
+    @NotBlank(message = "the first name is mandatory")
+    private String firstName;
+
+    @NotBlank(message = "the last name is mandatory")
+    private String lastName;
+
+    @Email(message = "the email must be a valid email string")
+    @NotNull(message = "the email is mandatory")
+    private String email;
+
+    @NotBlank(message = "the phone is mandatory")
+    private String phone;
+
+    @NotBlank(message = "the address is mandatory")
+    private String address;
+
+    private String comment;
+
+    /**
+     * The key of the order page, it is sent in Idempotency-Key rather than in the body,
+     * so submitting the same page twice places one order.
+     */
+    @JsonIgnore
+    private String idempotencyKey;
+
+    public List<UUID> getReservationIds() {
+        return reservationIds;
+    }
+
+    public void setReservationIds(List<UUID> reservationIds) {
+        this.reservationIds = reservationIds;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+}
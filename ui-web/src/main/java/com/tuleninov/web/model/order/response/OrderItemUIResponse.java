@@ -0,0 +1,20 @@
+package com.tuleninov.web.model.order.response;
+
+/**
+ * Record for the line of the order response.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record OrderItemUIResponse(
+
+        Integer goodsId,
+
+        String name,
+
+        double price,
+
+        int quantity
+
+) {
+}
@@ -0,0 +1,35 @@
+package com.tuleninov.web.model.order.response;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Record for the order response.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record OrderUIResponse(
+
+        long id,
+
+        List<OrderItemUIResponse> items,
+
+        double total,
+
+        String firstName,
+
+        String lastName,
+
+        String email,
+
+        String phone,
+
+        String address,
+
+        String comment,
+
+        OffsetDateTime createdAt
+
+) {
+}
@@ -0,0 +1,16 @@
+package com.tuleninov.web.model.stock.request;
+
+/**
+ * Record for the request that reserves the goods from the stock.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record ReserveStockUIRequest(
+
+        int goodsId,
+
+        int quantity
+
+) {
+}
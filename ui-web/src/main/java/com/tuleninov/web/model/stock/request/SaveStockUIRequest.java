@@ -0,0 +1,14 @@
+package com.tuleninov.web.model.stock.request;
+
+/**
+ * Record for the request that sets the stock of the goods.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record SaveStockUIRequest(
+
+        int stock
+
+) {
+}
@@ -0,0 +1,25 @@
+package com.tuleninov.web.model.stock.response;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Record for the stock reservation response.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record StockReservationUIResponse(
+
+        UUID id,
+
+        int goodsId,
+
+        int quantity,
+
+        OffsetDateTime createdAt,
+
+        OffsetDateTime expireAt
+
+) {
+}
@@ -0,0 +1,16 @@
+package com.tuleninov.web.model.stock.response;
+
+/**
+ * Record for the stock response.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+public record StockUIResponse(
+
+        int goodsId,
+
+        int stock
+
+) {
+}
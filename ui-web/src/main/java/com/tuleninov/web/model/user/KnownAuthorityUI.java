@@ -1,9 +1,27 @@
 package com.tuleninov.web.model.user;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+
 public enum KnownAuthorityUI {
 
     ROLE_USER,
 
-    ROLE_ADMIN;
+    ROLE_ADMIN,
+
+    ROLE_SHOP;
 
+    /**
+     * Read the authority from the response of the server.
+     *
+     * @param name the name of the authority
+     * @return the authority, or null if it is not known here
+     */
+    @JsonCreator
+    public static KnownAuthorityUI fromName(String name) {
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.tuleninov.web.feignclient.AuthServiceFeignClient;
 import com.tuleninov.web.model.auth.request.RefreshTokenUIRequest;
 import com.tuleninov.web.model.auth.request.SignInUIRequest;
 import com.tuleninov.web.model.auth.response.AccessTokenUIResponse;
+import com.tuleninov.web.model.auth.response.JWKSetUIResponse;
 import org.springframework.stereotype.Service;
 
 /**
@@ -50,4 +51,13 @@ public class AuthService {
     public void invalidate(String token, RefreshTokenUIRequest request) {
         authServiceFeignClient.invalidate(token, request);
     }
+
+    /**
+     * Get the public keys that verify the tokens.
+     *
+     * @return the keys of the server
+     */
+    public JWKSetUIResponse jwks() {
+        return authServiceFeignClient.jwks();
+    }
 }
@@ -0,0 +1,74 @@
+package com.tuleninov.web.service.auth;
+
+import com.tuleninov.web.model.auth.TokenClaimsUI;
+import com.tuleninov.web.model.auth.request.RefreshTokenUIRequest;
+import com.tuleninov.web.model.auth.request.SignInUIRequest;
+import com.tuleninov.web.model.auth.response.AccessTokenUIResponse;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+import static com.tuleninov.web.config.security.SecurityConstantsUI.AUTH_TOKEN_PREFIX;
+
+/**
+ * The own account of the shop in the server, the goods in the carts are held in the stock with it,
+ * so a guest that has not logged in can fill the cart too.
+ * The account has the role of the shop rather than of an admin, it holds the goods for every cart separately.
+ * The token is refreshed a little before it expires, and got again with the credentials
+ * if the refresh token is no longer valid.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class ShopAccount {
+
+    private static final long EXPIRY_MARGIN_SECONDS = 30;
+
+    private final AuthService authService;
+
+    private final TokenVerifier tokenVerifier;
+
+    private final SignInUIRequest credentials;
+
+    private AccessTokenUIResponse token;
+
+    private OffsetDateTime refreshAt = OffsetDateTime.MIN;
+
+    public ShopAccount(AuthService authService,
+                       TokenVerifier tokenVerifier,
+                       @Value("${services.server.account.login}") String login,
+                       @Value("${services.server.account.password}") String password) {
+        this.authService = authService;
+        this.tokenVerifier = tokenVerifier;
+        this.credentials = new SignInUIRequest(login, password);
+    }
+
+    /**
+     * Provide the access token of the shop.
+     *
+     * @return access token for header
+     */
+    public synchronized String provideTokenForHeader() {
+        if (!OffsetDateTime.now().isBefore(refreshAt)) {
+            token = token == null ? authService.login(credentials) : refresh(token.refreshToken());
+            OffsetDateTime expiresAt = tokenVerifier.verify(token.accessToken())
+                    .map(TokenClaimsUI::expiresAt)
+                    .orElseGet(() -> OffsetDateTime.now().plusSeconds(token.expireIn()));
+            refreshAt = expiresAt.minusSeconds(EXPIRY_MARGIN_SECONDS);
+        }
+
+        return AUTH_TOKEN_PREFIX.concat(token.accessToken());
+    }
+
+    private AccessTokenUIResponse refresh(String refreshToken) {
+        try {
+            return authService.refresh(new RefreshTokenUIRequest(refreshToken));
+        } catch (FeignException.Unauthorized e) {
+            // the refresh token has expired or has been invalidated
+            return authService.login(credentials);
+        }
+    }
+}
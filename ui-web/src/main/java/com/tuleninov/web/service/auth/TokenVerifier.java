@@ -0,0 +1,189 @@
+package com.tuleninov.web.service.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.ECDSAKeyProvider;
+import com.tuleninov.web.model.auth.TokenClaimsUI;
+import com.tuleninov.web.model.auth.response.JWKSetUIResponse;
+import com.tuleninov.web.model.auth.response.JWKUIResponse;
+import com.tuleninov.web.model.user.KnownAuthorityUI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Verifier of the access tokens that the server signs with ES256, by the public keys it publishes.
+ * The keys are got once and again only when a token comes with a key id that is not known,
+ * at most once a minute, so the rotated keys are picked up without a request to the server for every token.
+ * The tokens signed with the secret of the server cannot be verified here, so they have no claims.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Component
+public class TokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenVerifier.class);
+
+    private static final String ALGORITHM = "ES256";
+
+    private static final String AUTHORITIES_CLAIM = "authorities";
+
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(1);
+
+    private final AuthService authService;
+
+    private final JWTVerifier verifier;
+
+    private final ECParameterSpec curve;
+
+    private volatile Map<String, ECPublicKey> keys = Map.of();
+
+    private volatile Instant refreshedAt;
+
+    public TokenVerifier(AuthService authService) {
+        this.authService = authService;
+        this.verifier = JWT.require(Algorithm.ECDSA256(new ServerKeys())).build();
+        try {
+            var parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            this.curve = parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 curve is not supported", e);
+        }
+    }
+
+    /**
+     * Verify the access token and read its claims.
+     *
+     * @param token the encoded access token
+     * @return the claims, or empty if the token is not valid, is not signed with a published key
+     * or has an authority that is not known here
+     */
+    public Optional<TokenClaimsUI> verify(String token) {
+        if (token == null) return Optional.empty();
+
+        DecodedJWT decodedJWT;
+        try {
+            decodedJWT = JWT.decode(token);
+            if (!ALGORITHM.equals(decodedJWT.getAlgorithm()) || key(decodedJWT.getKeyId()) == null) {
+                return Optional.empty();
+            }
+            decodedJWT = verifier.verify(decodedJWT);
+        } catch (JWTVerificationException e) {
+            return Optional.empty();
+        }
+
+        Set<KnownAuthorityUI> authorities = EnumSet.noneOf(KnownAuthorityUI.class);
+        List<String> names = decodedJWT.getClaim(AUTHORITIES_CLAIM).asList(String.class);
+        if (names != null) {
+            for (String name : names) {
+                KnownAuthorityUI authority = KnownAuthorityUI.fromName(name);
+                if (authority == null) {
+                    log.warn("Access token has the authority '{}' that is not known", name);
+                    return Optional.empty();
+                }
+                authorities.add(authority);
+            }
+        }
+        Instant expiresAt = decodedJWT.getExpiresAtAsInstant();
+
+        return Optional.of(new TokenClaimsUI(decodedJWT.getSubject(), authorities,
+                expiresAt == null ? null : OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC)));
+    }
+
+    /**
+     * Get the key by its id, getting the keys from the server again if the key is not known.
+     */
+    private ECPublicKey key(String keyId) {
+        if (keyId == null) return null;
+
+        ECPublicKey key = keys.get(keyId);
+        if (key == null && refresh()) key = keys.get(keyId);
+        return key;
+    }
+
+    /**
+     * Get the keys from the server, unless they have been got less than a minute ago.
+     *
+     * @return true if the keys have been got
+     */
+    private synchronized boolean refresh() {
+        Instant now = Instant.now();
+        if (refreshedAt != null && refreshedAt.plus(REFRESH_INTERVAL).isAfter(now)) return false;
+
+        refreshedAt = now;
+        try {
+            keys = toKeys(authService.jwks());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Public keys of the tokens cannot be got from the server: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<String, ECPublicKey> toKeys(JWKSetUIResponse response) {
+        Map<String, ECPublicKey> result = new HashMap<>();
+        if (response == null || response.keys() == null) return result;
+
+        var decoder = Base64.getUrlDecoder();
+        for (JWKUIResponse jwk : response.keys()) {
+            if (!"EC".equals(jwk.kty()) || !"P-256".equals(jwk.crv()) || jwk.kid() == null) continue;
+            try {
+                var point = new ECPoint(new BigInteger(1, decoder.decode(jwk.x())),
+                        new BigInteger(1, decoder.decode(jwk.y())));
+                result.put(jwk.kid(), (ECPublicKey) KeyFactory.getInstance("EC")
+                        .generatePublic(new ECPublicKeySpec(point, curve)));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Public key '{}' of the tokens is not valid: {}", jwk.kid(), e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The published keys of the server, chosen by the key id in the header of a token.
+     */
+    private final class ServerKeys implements ECDSAKeyProvider {
+
+        @Override
+        public ECPublicKey getPublicKeyById(String keyId) {
+            return keyId == null ? null : keys.get(keyId);
+        }
+
+        @Override
+        public ECPrivateKey getPrivateKey() {
+            return null;
+        }
+
+        @Override
+        public String getPrivateKeyId() {
+            return null;
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.tuleninov.web.service.category;
 
 import com.tuleninov.web.feignclient.CategoryServiceFeignClient;
+import com.tuleninov.web.model.SliceUI;
 import com.tuleninov.web.model.category.CategoryUI;
 import com.tuleninov.web.model.category.request.SaveCategoryUIRequest;
 import com.tuleninov.web.model.category.response.CategoryUIResponse;
+import feign.FeignException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Service class for Category.
@@ -21,20 +26,28 @@ public class CategoryService {
 
     private final CategoryServiceFeignClient categoryServiceFeignClient;
 
+    /**
+     * The last list of all categories with its entity tag, revalidated with the server on every read.
+     */
+    private volatile CachedList cachedList;
+
     public CategoryService(CategoryServiceFeignClient categoryServiceFeignClient) {
         this.categoryServiceFeignClient = categoryServiceFeignClient;
     }
 
     /**
      * Create the category in the database.
+     * The request is sent with the key of the create page, so a form submitted twice creates one category.
      *
-     * @param token   token to access the corresponding endpoint
-     * @param request request with category parameters
+     * @param token          token to access the corresponding endpoint
+     * @param idempotencyKey the key of the create page, or null to protect only the retries of this call
+     * @param request        request with category parameters
      * @return the category from database in response format
      */
-    public CategoryUI create(String token, SaveCategoryUIRequest request) {
+    public CategoryUI create(String token, String idempotencyKey, SaveCategoryUIRequest request) {
+        String key = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : UUID.randomUUID().toString();
         return CategoryUIResponse.fromCategoryUIResponse(
-                categoryServiceFeignClient.create(token, request));
+                categoryServiceFeignClient.create(token, key, request));
     }
 
     /**
@@ -49,15 +62,41 @@ public class CategoryService {
                 .map(CategoryUI::fromCategoryResponse);
     }
 
+    /**
+     * Find a slice of categories from database without counting all categories.
+     *
+     * @param token    token to access the corresponding endpoint
+     * @param pageable abstract interface for pagination information
+     * @return the categories with the information about the next slice
+     */
+    public SliceUI<CategoryUI> sliceCategories(String token, Pageable pageable) {
+        return categoryServiceFeignClient.sliceCategories(token, pageable)
+                .map(CategoryUI::fromCategoryResponse);
+    }
+
     /**
      * Get all categories from the database.
+     * The list is downloaded again only when it has changed on the server,
+     * so it is shared between the requests and must not be modified.
      *
      * @return all categories from database
      */
     public List<CategoryUI> getListCategories() {
-        return categoryServiceFeignClient.getListCategories()
+        CachedList cached = cachedList;
+        ResponseEntity<List<CategoryUIResponse>> response;
+        try {
+            response = categoryServiceFeignClient.getListCategories(cached == null ? null : cached.etag());
+        } catch (FeignException e) {
+            if (cached != null && e.status() == HttpStatus.NOT_MODIFIED.value()) return cached.categories();
+            throw e;
+        }
+
+        List<CategoryUI> categories = response.getBody() == null ? List.of() : response.getBody()
                 .stream()
                 .map(CategoryUI::fromCategoryResponse).toList();
+        String etag = response.getHeaders().getETag();
+        cachedList = etag == null ? null : new CachedList(etag, categories);
+        return categories;
     }
 
     /**
@@ -94,4 +133,10 @@ public class CategoryService {
         return CategoryUI.fromCategoryResponse(
                 categoryServiceFeignClient.deleteCategoryById(token, id));
     }
+
+    /**
+     * The list of all categories with the entity tag the server gave it.
+     */
+    private record CachedList(String etag, List<CategoryUI> categories) {
+    }
 }
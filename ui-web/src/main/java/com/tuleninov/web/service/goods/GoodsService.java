@@ -1,12 +1,18 @@
 package com.tuleninov.web.service.goods;
 
 import com.tuleninov.web.feignclient.GoodsServiceFeignClient;
+import com.tuleninov.web.model.SliceUI;
 import com.tuleninov.web.model.goods.request.SaveGoodsUIRequest;
+import com.tuleninov.web.model.goods.GoodsScrollUI;
 import com.tuleninov.web.model.goods.GoodsUI;
+import com.tuleninov.web.model.goods.response.GoodsUIResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 /**
  * Service class for Goods.
  *
@@ -24,14 +30,17 @@ public class GoodsService {
 
     /**
      * Create the goods in the database.
+     * The request is sent with the key of the create page, so a form submitted twice creates one goods.
      *
-     * @param token   token to access the corresponding endpoint
-     * @param request the request with goods parameters
+     * @param token          token to access the corresponding endpoint
+     * @param idempotencyKey the key of the create page, or null to protect only the retries of this call
+     * @param request        the request with goods parameters
      * @return the goods from the database in response format
      */
-    public GoodsUI create(String token, SaveGoodsUIRequest request) {
+    public GoodsUI create(String token, String idempotencyKey, SaveGoodsUIRequest request) {
+        String key = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : UUID.randomUUID().toString();
         return GoodsUI.fromGoodsResponse(
-                goodsServiceFeignClient.create(token, request));
+                goodsServiceFeignClient.create(token, key, request));
     }
 
     /**
@@ -57,6 +66,55 @@ public class GoodsService {
                 .map(GoodsUI::fromGoodsResponse);
     }
 
+    /**
+     * Find a slice of goods from database without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param total    whether to add the approximate number of all goods
+     * @return the goods with the information about the next slice
+     */
+    public SliceUI<GoodsUI> sliceGoods(Pageable pageable, boolean total) {
+        return goodsServiceFeignClient.sliceGoods(pageable, total)
+                .map(GoodsUI::fromGoodsResponse);
+    }
+
+    /**
+     * Find a slice of goods by category id in the database without counting all goods.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param id       the id of the category
+     * @return the goods with the information about the next slice
+     */
+    public SliceUI<GoodsUI> sliceByCategoryId(Pageable pageable, int id) {
+        return goodsServiceFeignClient.sliceByCategoryId(pageable, id)
+                .map(GoodsUI::fromGoodsResponse);
+    }
+
+    /**
+     * Find the goods that match the search query, the most relevant first.
+     *
+     * @param pageable abstract interface for pagination information
+     * @param query    the search query
+     * @param category the id of the category to search in, null to search in all categories
+     * @return the goods with the information about the next slice
+     */
+    public SliceUI<GoodsUI> searchGoods(Pageable pageable, String query, Integer category) {
+        return goodsServiceFeignClient.searchGoods(pageable, query, category)
+                .map(GoodsUI::fromGoodsResponse);
+    }
+
+    /**
+     * Find the goods page that follows the cursor using keyset pagination.
+     *
+     * @param after the cursor of the previous page, null for the first page
+     * @param size  the number of goods on the page
+     * @return the goods with the cursor of the next page
+     */
+    public GoodsScrollUI scrollGoods(String after, int size) {
+        return GoodsScrollUI.fromGoodsScrollResponse(
+                goodsServiceFeignClient.scrollGoods(after, size));
+    }
+
     /**
      * Get the goods by id in the database in response format.
      *
@@ -69,15 +127,26 @@ public class GoodsService {
     }
 
     /**
-     * Merge the goods by id in the database.
+     * Get the goods by id in the database with the tag that a merge of them has to match.
+     *
+     * @param id    the id of the goods
+     * @return the goods from database in response format
+     */
+    public GoodsUI getTaggedGoodsById(int id) {
+        ResponseEntity<GoodsUIResponse> response = goodsServiceFeignClient.getTaggedGoodsById(id);
+        return GoodsUI.fromGoodsResponse(response.getBody(), response.getHeaders().getETag());
+    }
+
+    /**
+     * Merge the goods by id in the database unless another admin has changed it since the merge page was made.
      *
      * @param token   token to access the corresponding endpoint
      * @param id      the id of the goods
-     * @param request the request with goods parameters
+     * @param request the request with goods parameters and the tag of the goods they were made from
      */
     public GoodsUI mergeGoodsById(String token, int id, SaveGoodsUIRequest request) {
         return GoodsUI.fromGoodsResponse(
-                goodsServiceFeignClient.mergeGoodsById(token, id, request));
+                goodsServiceFeignClient.mergeGoodsById(token, request.getEtag(), id, request));
     }
 
     /**
@@ -0,0 +1,36 @@
+package com.tuleninov.web.service.order;
+
+import com.tuleninov.web.feignclient.OrderServiceFeignClient;
+import com.tuleninov.web.model.order.request.CreateOrderUIRequest;
+import com.tuleninov.web.model.order.response.OrderUIResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Service class for Order.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Service
+public class OrderService {
+
+    private final OrderServiceFeignClient orderServiceFeignClient;
+
+    public OrderService(OrderServiceFeignClient orderServiceFeignClient) {
+        this.orderServiceFeignClient = orderServiceFeignClient;
+    }
+
+    /**
+     * Place the order from the reservations of the cart, the server takes only the reservations of the cart.
+     *
+     * @param token   token to access the corresponding endpoint
+     * @param cartId  the cart of the session
+     * @param request the request with the reservations, the contacts and the key of the order page
+     * @return the order in response format
+     */
+    public OrderUIResponse create(String token, UUID cartId, CreateOrderUIRequest request) {
+        return orderServiceFeignClient.create(token, cartId, request.getIdempotencyKey(), request);
+    }
+}
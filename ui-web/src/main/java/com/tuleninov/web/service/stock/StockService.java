@@ -0,0 +1,82 @@
+package com.tuleninov.web.service.stock;
+
+import com.tuleninov.web.feignclient.StockServiceFeignClient;
+import com.tuleninov.web.model.stock.request.ReserveStockUIRequest;
+import com.tuleninov.web.model.stock.request.SaveStockUIRequest;
+import com.tuleninov.web.model.stock.response.StockReservationUIResponse;
+import com.tuleninov.web.model.stock.response.StockUIResponse;
+import com.tuleninov.web.service.auth.ShopAccount;
+import feign.FeignException;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Service class for the stock of the goods and its reservations.
+ * The goods in the carts are held with the own account of the shop, every cart of a session is a holder of its own,
+ * so the server limits the number of the holds of each cart.
+ *
+ * @author Oleksandr Tuleninov
+ * @version 01
+ */
+@Service
+public class StockService {
+
+    private final StockServiceFeignClient stockServiceFeignClient;
+
+    private final ShopAccount shopAccount;
+
+    public StockService(StockServiceFeignClient stockServiceFeignClient, ShopAccount shopAccount) {
+        this.stockServiceFeignClient = stockServiceFeignClient;
+        this.shopAccount = shopAccount;
+    }
+
+    /**
+     * Get the number of the goods that can still be reserved.
+     *
+     * @param goodsId the id of the goods
+     * @return the stock of the goods in response format
+     */
+    public StockUIResponse getStock(int goodsId) {
+        return stockServiceFeignClient.getStock(goodsId);
+    }
+
+    /**
+     * Set the number of the goods that can still be reserved, the goods held in the carts are not counted in it.
+     *
+     * @param token   token to access the corresponding endpoint
+     * @param goodsId the id of the goods
+     * @param stock   the stock of the goods
+     * @return the stock of the goods in response format
+     */
+    public StockUIResponse setStock(String token, int goodsId, int stock) {
+        return stockServiceFeignClient.setStock(token, goodsId, new SaveStockUIRequest(stock));
+    }
+
+    /**
+     * Reserve one piece of the goods from the stock for a limited time.
+     *
+     * @param cartId  the cart of the session
+     * @param goodsId the id of the goods
+     * @return the reservation in response format
+     */
+    public StockReservationUIResponse reserve(UUID cartId, int goodsId) {
+        return stockServiceFeignClient.reserve(shopAccount.provideTokenForHeader(), cartId,
+                new ReserveStockUIRequest(goodsId, 1));
+    }
+
+    /**
+     * Release the reservation and give the goods back to the stock.
+     * A reservation that has already expired has been released by the server.
+     *
+     * @param cartId the cart of the session
+     * @param id     the id of the reservation
+     */
+    public void release(UUID cartId, UUID id) {
+        try {
+            stockServiceFeignClient.release(shopAccount.provideTokenForHeader(), cartId, id);
+        } catch (FeignException.NotFound ignored) {
+            // the hold has expired in the meantime
+        }
+    }
+}
@@ -59,8 +59,9 @@ public class UserService {
      */
     public CustomUserUI register(SaveUserUIRequest request) {
         var activationCode = UUID.randomUUID();
+        // the key makes the retries of this call safe, a form submitted twice is refused by the unique email
         var user = CustomUserUI.fromUserUIResponse(
-                userServiceFeignClient.register(request, activationCode.toString()));
+                userServiceFeignClient.register(UUID.randomUUID().toString(), request, activationCode.toString()));
         var locale = LocaleContextHolder.getLocale();
 
         new Thread(() -> {
@@ -183,7 +184,8 @@ public class UserService {
     public CustomUserUI registerAdmin(String token, SaveUserUIRequest request) {
         var activationCode = UUID.randomUUID();
         var user = CustomUserUI.fromUserUIResponse(
-                userServiceFeignClient.registerAdmin(token, request, activationCode.toString()));
+                userServiceFeignClient.registerAdmin(
+                        token, UUID.randomUUID().toString(), request, activationCode.toString()));
         var locale = LocaleContextHolder.getLocale();
 
         new Thread(() -> {